@@ -62,6 +62,7 @@ public abstract class BaseXServlet extends HttpServlet {
     try {
       http.authorize();
       run(http);
+      http.finish();
       http.log(SC_OK, "");
     } catch(final HTTPException ex) {
       http.status(ex.getStatus(), Util.message(ex), restxq);
@@ -0,0 +1,114 @@
+package org.basex.http;
+
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+import org.basex.core.locks.*;
+
+/**
+ * Cache for the responses of HTTP GET requests. Each response is stored along with the
+ * modification states of the databases that were accessed while it was generated.
+ * A cached response will be discarded as soon as one of these databases has been updated.
+ * If the maximum size is exceeded, the least recently used responses are removed.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+final class HTTPCache {
+  /** Counter for entity tags. */
+  private static final AtomicLong TAGS = new AtomicLong();
+
+  /** Cached responses (least recently used first). */
+  private final LinkedHashMap<String, Response> responses = new LinkedHashMap<>(16, 0.75f, true);
+  /** Maximum size of all cached responses. */
+  private final long max;
+  /** Current size of all cached responses. */
+  private long size;
+
+  /**
+   * Constructor.
+   * @param max maximum size of all cached responses
+   */
+  HTTPCache(final long max) {
+    this.max = max;
+  }
+
+  /**
+   * Returns the maximum size of a single response.
+   * @return size
+   */
+  long max() {
+    return max;
+  }
+
+  /**
+   * Returns a cached response if it is still up-to-date.
+   * @param key key
+   * @param mods modification counters
+   * @return response or {@code null}
+   */
+  synchronized Response get(final String key, final Modifications mods) {
+    final Response response = responses.get(key);
+    if(response == null || response.snapshot.current(mods)) return response;
+    // discard outdated response
+    remove(key);
+    return null;
+  }
+
+  /**
+   * Caches a response.
+   * @param key key
+   * @param type content type
+   * @param content content
+   * @param snapshot modification states of the accessed databases
+   */
+  synchronized void put(final String key, final String type, final byte[] content,
+      final Snapshot snapshot) {
+    remove(key);
+    final Response response = new Response(type, content, snapshot);
+    responses.put(key, response);
+    size += response.content.length;
+
+    // remove least recently used responses
+    final Iterator<Response> iter = responses.values().iterator();
+    while(size > max && iter.hasNext()) {
+      size -= iter.next().content.length;
+      iter.remove();
+    }
+  }
+
+  /**
+   * Removes a response.
+   * @param key key
+   */
+  private void remove(final String key) {
+    final Response response = responses.remove(key);
+    if(response != null) size -= response.content.length;
+  }
+
+  /**
+   * Cached response.
+   */
+  static final class Response {
+    /** Entity tag. */
+    final String etag = '"' + Long.toHexString(TAGS.incrementAndGet()) + '"';
+    /** Content type. */
+    final String type;
+    /** Content. */
+    final byte[] content;
+    /** Modification states of the accessed databases. */
+    final Snapshot snapshot;
+
+    /**
+     * Constructor.
+     * @param type content type
+     * @param content content
+     * @param snapshot modification states of the accessed databases
+     */
+    private Response(final String type, final byte[] content, final Snapshot snapshot) {
+      this.type = type;
+      this.content = content;
+      this.snapshot = snapshot;
+    }
+  }
+}
@@ -15,6 +15,7 @@ import javax.servlet.http.*;
 import org.basex.*;
 import org.basex.core.*;
 import org.basex.core.StaticOptions.AuthMethod;
+import org.basex.core.locks.*;
 import org.basex.core.users.*;
 import org.basex.io.*;
 import org.basex.io.out.*;
@@ -41,6 +42,8 @@ public final class HTTPContext {
   private static IOException exception;
   /** Server instance. */
   private static BaseXServer server;
+  /** Response cache (assigned if caching is enabled). */
+  private static HTTPCache cache;
 
   /** Servlet request. */
   public final HttpServletRequest req;
@@ -60,13 +63,23 @@ public final class HTTPContext {
 
   /** Performance. */
   private final Performance perf = new Performance();
+  /** Start time of the request. */
+  private final long started = System.nanoTime();
   /** Path, starting with a slash. */
   private final String path;
 
   /** Client database context. */
   private Context ctx;
+  /** Indicates if the user has been authenticated. */
+  private boolean authenticated;
   /** Serialization parameters. */
   private SerializerOptions sopts;
+  /** Response output stream (can be {@code null}). */
+  private HTTPOutput out;
+  /** Cache key (assigned if the response will be cached). */
+  private String key;
+  /** Request type for the metrics ({@code null} if the request has already been recorded). */
+  private String request;
 
   /**
    * Constructor.
@@ -78,8 +91,9 @@ public final class HTTPContext {
       final BaseXServlet servlet) {
 
     this.req = req;
-    this.res = res;
+    this.res = new HTTPResponse(res, context.metrics);
     params = new HTTPParams(this);
+    request = Util.className(servlet).replace("Servlet", "").toUpperCase(Locale.ENGLISH);
     method = req.getMethod();
 
     final StringBuilder uri = new StringBuilder(req.getRequestURL());
@@ -228,6 +242,107 @@ public final class HTTPContext {
     return list.toArray(new MediaType[list.size()]);
   }
 
+  /**
+   * Returns the preferred content encoding accepted by the client.
+   * @return {@link HttpText#GZIP}, {@link HttpText#DEFLATE}, or {@code null}
+   */
+  public String encoding() {
+    final String accept = req.getHeader(ACCEPT_ENCODING);
+    if(accept == null) return null;
+    String encoding = null;
+    for(final String coding : accept.split("\\s*,\\s*")) {
+      // skip encodings with a quality factor of zero
+      final MediaType type = new MediaType(coding);
+      final String qf = type.parameters().get("q");
+      if(qf != null && !(toDouble(token(qf)) > 0)) continue;
+      final String name = type.main().trim().toLowerCase(Locale.ENGLISH);
+      if(name.equals(GZIP)) return GZIP;
+      if(name.equals(DEFLATE)) encoding = DEFLATE;
+    }
+    return encoding;
+  }
+
+  /**
+   * Returns the output stream of the response. If compression is enabled, the response
+   * will be compressed if it is large enough and if the client accepts compressed data.
+   * @return output stream
+   * @throws IOException I/O exception
+   */
+  public OutputStream output() throws IOException {
+    final int min = context.soptions.get(StaticOptions.HTTPCOMPRESS);
+    if(min < 0 && key == null) return res.getOutputStream();
+    if(out == null) {
+      final ArrayList<MediaType> types = new ArrayList<>();
+      for(final String type : context.soptions.get(StaticOptions.HTTPCOMPRESSTYPES).split(",")) {
+        if(!type.trim().isEmpty()) types.add(new MediaType(type.trim()));
+      }
+      out = new HTTPOutput(this, min, types.toArray(new MediaType[types.size()]));
+      if(key != null) out.record(cache.max());
+    }
+    return out;
+  }
+
+  /**
+   * Sends a cached response if caching is enabled, if this is a GET request, and if none
+   * of the databases that were accessed by the cached response has been updated since then.
+   * Otherwise, the response of this request will be cached (unless databases are updated
+   * or all databases are accessed).
+   * The entity tag of the cached response is checked against the {@code If-None-Match}
+   * header, and the status {@code 304} is returned if the client already has the response.
+   * Credentials and cookies are not part of the cache key: if the user has not been
+   * authenticated, requests with credentials or cookies will not be cached, as the response
+   * may depend on them.
+   * @return {@code true} if a cached response was sent
+   * @throws IOException I/O exception
+   */
+  public boolean cached() throws IOException {
+    final HTTPCache hc = cache();
+    if(hc == null || !method.equals(HttpMethod.GET.name())) return false;
+    if(!authenticated && (req.getHeader(AUTHORIZATION) != null ||
+        req.getHeader(COOKIE) != null)) return false;
+
+    final Context cx = context(false);
+    final String k = key(cx);
+    final HTTPCache.Response response = hc.get(k, cx.modifications);
+    if(response == null) {
+      // record databases that are accessed by the request
+      key = k;
+      cx.snapshot = new Snapshot();
+      return false;
+    }
+
+    res.setHeader(ETAG, response.etag);
+    final String match = req.getHeader(IF_NONE_MATCH);
+    if(match != null && (match.trim().equals("*") || match.contains(response.etag))) {
+      res.setStatus(SC_NOT_MODIFIED);
+    } else {
+      res.setContentType(response.type);
+      output().write(response.content);
+    }
+    return true;
+  }
+
+  /**
+   * Prevents caching of the current response.
+   */
+  public void nocache() {
+    key = null;
+  }
+
+  /**
+   * Finishes the response output. Caches the response if required.
+   * @throws IOException I/O exception
+   */
+  void finish() throws IOException {
+    if(out == null) return;
+    out.finish();
+
+    final byte[] content = key != null ? out.recorded() : null;
+    if(content != null && ctx.snapshot.complete()) {
+      cache.put(key, res.getContentType(), content, ctx.snapshot);
+    }
+  }
+
   /**
    * Sets a status and sends an info message.
    * @param code status code
@@ -238,6 +353,9 @@ public final class HTTPContext {
   public void status(final int code, final String info, final boolean error) throws IOException {
     try {
       log(code, info);
+      // discard output that has not been sent yet, do not cache response
+      out = null;
+      key = null;
       res.resetBuffer();
       if(code == SC_UNAUTHORIZED) {
         final TokenBuilder header = new TokenBuilder(auth.toString());
@@ -287,10 +405,24 @@ public final class HTTPContext {
     if(ctx == null) {
       ctx = new Context(context);
       ctx.user(authenticate ? authenticate() : context.users.get(UserText.ADMIN));
+      authenticated = authenticate;
     }
     return ctx;
   }
 
+  /**
+   * Assigns the client database context that will be used for the rest of the request.
+   * The user and the snapshot of the current client context are adopted.
+   * @param cx client database context
+   */
+  public void context(final Context cx) {
+    if(ctx != null) {
+      cx.user(ctx.user());
+      cx.snapshot = ctx.snapshot;
+    }
+    ctx = cx;
+  }
+
   /**
    * Authenticates the user and returns a new client {@link Context} instance.
    * @return user
@@ -373,11 +505,62 @@ public final class HTTPContext {
    * @param info info string (can be {@code null})
    */
   void log(final int type, final String info) {
+    // record the first result of a request
+    if(request != null) {
+      final Metrics metrics = context.metrics;
+      metrics.request(request, System.nanoTime() - started, type < SC_BAD_REQUEST);
+      metrics.received(req.getContentLength());
+      request = null;
+    }
     context.log.write(address(), context.user(), type, info, perf);
   }
 
+  /**
+   * Assigns the type of the request, which will be used to record its metrics.
+   * @param type request type
+   */
+  public void request(final String type) {
+    if(request != null) request = type;
+  }
+
+  /**
+   * Returns the cache key of the current request. Conditional request headers, credentials
+   * and cookies are ignored; the name of the user is added instead.
+   * @param cx database context
+   * @return key
+   */
+  private String key(final Context cx) {
+    final StringBuilder sb = new StringBuilder(req.getRequestURL());
+    final String qs = req.getQueryString();
+    if(qs != null) sb.append('?').append(qs);
+    sb.append('\n').append(cx.user().name());
+    final Enumeration<String> names = req.getHeaderNames();
+    while(names.hasMoreElements()) {
+      final String name = names.nextElement();
+      if(name.regionMatches(true, 0, "If-", 0, 3) || name.equalsIgnoreCase(AUTHORIZATION) ||
+          name.equalsIgnoreCase(COOKIE)) continue;
+      final Enumeration<String> values = req.getHeaders(name);
+      while(values.hasMoreElements()) {
+        sb.append('\n').append(name).append(": ").append(values.nextElement());
+      }
+    }
+    return sb.toString();
+  }
+
   // STATIC METHODS =====================================================================
 
+  /**
+   * Returns the response cache.
+   * @return cache, or {@code null} if caching is disabled
+   */
+  private static synchronized HTTPCache cache() {
+    if(cache == null) {
+      final int max = context.soptions.get(StaticOptions.HTTPCACHE);
+      if(max > 0) cache = new HTTPCache(max);
+    }
+    return cache;
+  }
+
   /**
    * Initializes the HTTP context.
    * @return context;
@@ -425,6 +608,7 @@ public final class HTTPContext {
       context.soptions.setSystem();
       context.options.setSystem();
     }
+    context.metrics.register();
 
     // start server instance
     if(!context.soptions.get(StaticOptions.HTTPLOCAL)) {
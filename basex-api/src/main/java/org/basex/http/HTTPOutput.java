@@ -0,0 +1,175 @@
+package org.basex.http;
+
+import static org.basex.util.http.HttpText.*;
+
+import java.io.*;
+import java.util.zip.*;
+
+import org.basex.io.out.*;
+import org.basex.util.http.*;
+
+/**
+ * Output stream of an HTTP response, which compresses the response if this is supported
+ * by the client. The first bytes of the response are buffered until the minimum size for
+ * compression is reached. If the response is smaller, it is sent uncompressed, along with
+ * its length. Otherwise, a compressed stream is created, and all remaining bytes are passed
+ * on without further buffering. As the length of compressed responses is not known in
+ * advance, they will be sent in chunks by the web server.
+ * A copy of the uncompressed response can be recorded for caching.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+final class HTTPOutput extends OutputStream {
+  /** Buffer size of compressed streams. */
+  private static final int BUFFER = 1 << 13;
+
+  /** HTTP context. */
+  private final HTTPContext http;
+  /** Minimum size of compressed responses. */
+  private final int min;
+  /** Media types of compressed responses. */
+  private final MediaType[] types;
+
+  /** Buffered bytes (set to {@code null} when the output stream has been chosen). */
+  private ArrayOutput buffer = new ArrayOutput();
+  /** Output stream. */
+  private OutputStream out;
+  /** Compressed output stream (assigned if the response is compressed). */
+  private DeflaterOutputStream compressed;
+  /** Deflater of the compressed output stream (assigned for the deflate encoding). */
+  private Deflater deflater;
+  /** Copy of the response (assigned if the response is recorded). */
+  private ArrayOutput copy;
+  /** Maximum size of the copy. */
+  private long limit;
+
+  /**
+   * Constructor.
+   * @param http HTTP context
+   * @param min minimum size of compressed responses (compression is disabled if negative)
+   * @param types media types of compressed responses
+   */
+  HTTPOutput(final HTTPContext http, final int min, final MediaType[] types) {
+    this.http = http;
+    this.min = min;
+    this.types = types;
+  }
+
+  @Override
+  public void write(final int b) throws IOException {
+    write(new byte[] { (byte) b }, 0, 1);
+  }
+
+  @Override
+  public void write(final byte[] b, final int off, final int len) throws IOException {
+    if(copy != null) {
+      if(copy.size() + len > limit) copy = null;
+      else copy.write(b, off, len);
+    }
+    if(buffer == null) {
+      out.write(b, off, len);
+    } else {
+      buffer.write(b, off, len);
+      if(buffer.size() >= (min < 0 ? BUFFER : min)) init(min >= 0);
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    // buffered bytes will only be sent when the minimum size is reached
+    if(buffer == null) out.flush();
+  }
+
+  @Override
+  public void close() {
+    // the stream may be requested multiple times; it will be finished by the HTTP context
+  }
+
+  /**
+   * Records a copy of the response.
+   * @param max maximum size of the copy
+   */
+  void record(final long max) {
+    copy = new ArrayOutput();
+    limit = max;
+  }
+
+  /**
+   * Returns the recorded copy of the response.
+   * @return copy, or {@code null} if no copy was recorded, or if the maximum size was exceeded
+   */
+  byte[] recorded() {
+    return copy != null ? copy.toArray() : null;
+  }
+
+  /**
+   * Sends all buffered bytes and finishes the response.
+   * @throws IOException I/O exception
+   */
+  void finish() throws IOException {
+    try {
+      if(buffer != null) {
+        http.res.setContentLength((int) buffer.size());
+        init(false);
+      }
+      // closing the compressed stream releases its native resources
+      if(compressed != null) compressed.close();
+      else out.flush();
+    } finally {
+      if(deflater != null) deflater.end();
+    }
+  }
+
+  /**
+   * Chooses the output stream and sends the buffered bytes.
+   * @param compress consider compression
+   * @throws IOException I/O exception
+   */
+  private void init(final boolean compress) throws IOException {
+    out = http.res.getOutputStream();
+    if(compress && compressible()) {
+      // the response may differ depending on the accepted encodings
+      http.res.addHeader(VARY, ACCEPT_ENCODING);
+      final String encoding = http.encoding();
+      if(encoding != null) {
+        http.res.setHeader(CONTENT_ENCODING, encoding);
+        // the response stream will be closed by the web server
+        final OutputStream os = new FilterOutputStream(out) {
+          @Override
+          public void write(final byte[] b, final int off, final int len) throws IOException {
+            out.write(b, off, len);
+          }
+          @Override
+          public void close() throws IOException {
+            out.flush();
+          }
+        };
+        if(encoding.equals(GZIP)) {
+          compressed = new GZIPOutputStream(os, BUFFER);
+        } else {
+          deflater = new Deflater();
+          compressed = new DeflaterOutputStream(os, deflater, BUFFER);
+        }
+        out = compressed;
+      }
+    }
+    out.write(buffer.buffer(), 0, (int) buffer.size());
+    buffer = null;
+  }
+
+  /**
+   * Checks if the media type of the response is to be compressed.
+   * @return result of check
+   */
+  private boolean compressible() {
+    final String ct = http.res.getContentType();
+    if(ct == null) return false;
+    final MediaType type = new MediaType(ct);
+    if(type.isXML()) return true;
+    for(final MediaType pattern : types) {
+      if(type.matches(pattern)) return true;
+    }
+    return false;
+  }
+}
@@ -0,0 +1,62 @@
+package org.basex.http;
+
+import java.io.*;
+
+import javax.servlet.*;
+import javax.servlet.http.*;
+
+import org.basex.core.*;
+
+/**
+ * Servlet response, which records the number of bytes that are sent to the client.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+final class HTTPResponse extends HttpServletResponseWrapper {
+  /** Metrics. */
+  private final Metrics metrics;
+  /** Output stream (created on demand). */
+  private ServletOutputStream out;
+
+  /**
+   * Constructor.
+   * @param res response
+   * @param metrics metrics
+   */
+  HTTPResponse(final HttpServletResponse res, final Metrics metrics) {
+    super(res);
+    this.metrics = metrics;
+  }
+
+  @Override
+  public ServletOutputStream getOutputStream() throws IOException {
+    if(out == null) {
+      final ServletOutputStream os = super.getOutputStream();
+      out = new ServletOutputStream() {
+        @Override
+        public void write(final int b) throws IOException {
+          os.write(b);
+          metrics.sent(1);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+          os.write(b, off, len);
+          metrics.sent(len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+          os.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+          os.close();
+        }
+      };
+    }
+    return out;
+  }
+}
@@ -0,0 +1,30 @@
+package org.basex.http.metrics;
+
+import static org.basex.util.Token.*;
+
+import org.basex.core.*;
+import org.basex.core.users.*;
+import org.basex.http.*;
+import org.basex.server.*;
+import org.basex.util.http.*;
+
+/**
+ * <p>This servlet returns the server-wide metrics in the Prometheus text format.
+ * It can only be accessed by admin users.</p>
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class MetricsServlet extends BaseXServlet {
+  /** Media type of the Prometheus text format. */
+  private static final String TYPE = MediaType.TEXT_PLAIN + "; version=0.0.4; charset=utf-8";
+
+  @Override
+  protected void run(final HTTPContext http) throws Exception {
+    final Context ctx = http.context(true);
+    if(!ctx.user().has(Perm.ADMIN)) throw new LoginException();
+
+    http.res.setContentType(TYPE);
+    http.res.getOutputStream().write(token(ctx.metrics.prometheus()));
+  }
+}
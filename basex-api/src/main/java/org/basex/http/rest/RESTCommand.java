@@ -30,7 +30,7 @@ final class RESTCommand extends RESTCmd {
     http.sopts().set(SerializerOptions.METHOD, SerialMethod.TEXT);
     http.initResponse();
 
-    for(final Command cmd : cmds) run(cmd, http.res.getOutputStream());
+    for(final Command cmd : cmds) run(cmd, http.output());
   }
 
   /**
@@ -24,6 +24,6 @@ final class RESTExec extends RESTCmd {
   protected void run0() throws IOException {
     // execute command and return info of last command
     for(final Command c : cmds) run(c);
-    session.http.res.getOutputStream().write(Token.token(info()));
+    session.http.output().write(Token.token(info()));
   }
 }
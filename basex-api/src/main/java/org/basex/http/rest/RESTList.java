@@ -34,7 +34,7 @@ final class RESTList extends RESTCmd {
 
     final HTTPContext http = session.http;
     http.initResponse();
-    try(final Serializer ser = Serializer.get(http.res.getOutputStream(), http.sopts())) {
+    try(final Serializer ser = Serializer.get(http.output(), http.sopts())) {
       ser.serialize(el);
     }
   }
@@ -71,7 +71,7 @@ class RESTQuery extends RESTCmd {
         http.initResponse();
       }
       // run command
-      run(cmd, http.res.getOutputStream());
+      run(cmd, http.output());
     }
   }
 
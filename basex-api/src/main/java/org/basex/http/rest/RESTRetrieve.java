@@ -45,7 +45,7 @@ final class RESTRetrieve extends RESTCmd {
       http.initResponse();
 
       context.options.set(MainOptions.SERIALIZER, http.sopts());
-      run(query(raw ? _DB_RETRIEVE : _DB_OPEN), http.res.getOutputStream());
+      run(query(raw ? _DB_RETRIEVE : _DB_OPEN), http.output());
 
     } else {
       // list database resources
@@ -55,7 +55,7 @@ final class RESTRetrieve extends RESTCmd {
       list(table, el, RESTText.Q_RESOURCE, 0);
 
       http.initResponse();
-      try(final Serializer ser = Serializer.get(http.res.getOutputStream(), http.sopts())) {
+      try(final Serializer ser = Serializer.get(http.output(), http.sopts())) {
         ser.serialize(el);
       }
     }
@@ -17,6 +17,7 @@ public final class RESTServlet extends BaseXServlet {
   @Override
   protected void run(final HTTPContext http) throws IOException {
     final RESTSession session = new RESTSession(http, http.context(true));
+    if(http.cached()) return;
     final RESTCmd cmd = code(session);
     try {
       cmd.execute(session.context);
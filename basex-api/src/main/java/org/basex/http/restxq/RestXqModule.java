@@ -5,11 +5,15 @@ import static org.basex.util.Token.*;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.*;
 
+import org.basex.core.*;
+import org.basex.core.users.*;
 import org.basex.http.*;
 import org.basex.io.*;
 import org.basex.query.*;
 import org.basex.query.func.*;
+import org.basex.util.*;
 
 /**
  * This class caches information on a single XQuery module with RESTXQ annotations.
@@ -18,12 +22,21 @@ import org.basex.query.func.*;
  * @author Christian Gruen
  */
 final class RestXqModule {
+  /** Maximum number of parsed query contexts that are kept for upcoming requests. */
+  private static final int POOL = 4;
+  /** Threads for parsing query contexts in the background. */
+  private static ExecutorService parser;
+
+  /** Parsed query contexts that have not been evaluated yet. */
+  private final ArrayDeque<QueryContext> pool = new ArrayDeque<>();
   /** Supported methods. */
   private final ArrayList<RestXqFunction> functions = new ArrayList<>();
   /** File reference. */
   private final IOFile file;
   /** Parsing timestamp. */
   private long time;
+  /** Query string of the parsed module. */
+  private volatile String query;
 
   /**
    * Constructor.
@@ -41,10 +54,16 @@ final class RestXqModule {
    * @throws Exception exception (including unexpected ones)
    */
   boolean parse(final HTTPContext http) throws Exception {
+    close();
     functions.clear();
+    try {
+      query = string(file.read());
+    } catch(final IOException ex) {
+      throw IOERR_X.get(null, ex);
+    }
 
-    // loop through all functions
-    try(final QueryContext qc = qc(http)) {
+    final QueryContext qc = qc();
+    try {
       // loop through all functions
       final String name = file.name();
       for(final StaticFunc uf : qc.funcs.funcs()) {
@@ -54,10 +73,26 @@ final class RestXqModule {
           if(rxf.parse(http)) functions.add(rxf);
         }
       }
+    } catch(final Exception ex) {
+      qc.close();
+      throw ex;
     }
+    // the context has not been evaluated: keep it for the first request
+    if(functions.isEmpty()) qc.close();
+    else offer(qc);
     return !functions.isEmpty();
   }
 
+  /**
+   * Closes all pooled query contexts.
+   */
+  void close() {
+    synchronized(pool) {
+      for(final QueryContext qc : pool) qc.close();
+      pool.clear();
+    }
+  }
+
   /**
    * Checks if the timestamp is still up-to-date.
    * @return result of check
@@ -91,8 +126,9 @@ final class RestXqModule {
   void process(final HTTPContext http, final RestXqFunction func, final QueryException error)
       throws Exception {
 
-    // create new XQuery instance
-    try(final QueryContext qc = qc(http)) {
+    // take a parsed query context and assign its database context to the request
+    try(final QueryContext qc = take()) {
+      http.context(qc.context);
       final RestXqFunction rxf = new RestXqFunction(find(qc, func.function), qc, this);
       rxf.parse(http);
       RestXqResponse.create(rxf, qc, http, error);
@@ -102,20 +138,88 @@ final class RestXqModule {
   // PRIVATE METHODS ====================================================================
 
   /**
-   * Retrieves a query context for the given module.
-   * @param http HTTP context
+   * Returns a parsed query context from the pool and starts parsing a replacement in the
+   * background. If the pool is empty, a new query context is parsed.
+   * @return query context
+   * @throws Exception exception
+   */
+  private QueryContext take() throws Exception {
+    final QueryContext qc;
+    synchronized(pool) {
+      qc = pool.poll();
+    }
+    final String qu = query;
+    parser().execute(new Runnable() {
+      @Override
+      public void run() {
+        // skip parsing if the pool is full, or if the module has been parsed again
+        synchronized(pool) {
+          if(pool.size() >= POOL || qu != query) return;
+        }
+        try {
+          offer(qc());
+        } catch(final Exception ex) {
+          // parsing errors will be raised by the next request that parses the module itself
+          Util.debug(ex);
+        }
+      }
+    });
+    return qc != null ? qc : qc();
+  }
+
+  /**
+   * Adds a parsed query context to the pool, or closes it if the pool is full.
+   * @param qc query context
+   */
+  private void offer(final QueryContext qc) {
+    synchronized(pool) {
+      if(pool.size() < POOL) {
+        pool.add(qc);
+        return;
+      }
+    }
+    qc.close();
+  }
+
+  /**
+   * Parses a new query context for the given module. The query string that has been read
+   * by the last call of {@link #parse} will be parsed, so the module will be consistent
+   * with the cached functions. Each query gets its own database context, which will be
+   * assigned to the request that evaluates the query.
    * @return query context
    * @throws Exception exception
    */
-  private QueryContext qc(final HTTPContext http) throws Exception {
-    final QueryContext qc = new QueryContext(http.context(false));
+  private QueryContext qc() throws Exception {
+    final Context ctx = new Context(HTTPContext.init());
+    ctx.user(ctx.users.get(UserText.ADMIN));
+    final QueryContext qc = new QueryContext(ctx);
     try {
-      qc.parse(string(file.read()), file.path(), null);
-      return qc;
-    } catch(final IOException ex) {
-      // may be triggered when reading the file
-      throw IOERR_X.get(null, ex);
+      qc.parse(query, file.path(), null);
+    } catch(final Exception ex) {
+      qc.close();
+      throw ex;
+    }
+    return qc;
+  }
+
+  /**
+   * Returns the threads that parse query contexts in the background.
+   * The number of threads is limited by the number of available processors.
+   * @return executor service
+   */
+  private static synchronized ExecutorService parser() {
+    if(parser == null) {
+      final int threads = Runtime.getRuntime().availableProcessors();
+      parser = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+        @Override
+        public Thread newThread(final Runnable r) {
+          final Thread thread = new Thread(r, Util.className(RestXqModule.class));
+          thread.setDaemon(true);
+          return thread;
+        }
+      });
     }
+    return parser;
   }
 
   /**
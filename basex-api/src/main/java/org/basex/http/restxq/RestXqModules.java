@@ -24,8 +24,12 @@ public final class RestXqModules {
 
   /** Module cache. */
   private HashMap<String, RestXqModule> modules = new HashMap<>();
+  /** Routing table for the functions of all modules. */
+  private RestXqRoutes routes = new RestXqRoutes(modules.values());
   /** RESTXQ path. */
   private IOFile restxq;
+  /** Time (nano seconds) when the RESTXQ directory was last parsed. */
+  private long parsed;
   /** Private constructor. */
   private RestXqModules() { }
 
@@ -37,6 +41,17 @@ public final class RestXqModules {
     return INSTANCE;
   }
 
+  /**
+   * Discards all cached modules. The RESTXQ directory and all modules will be parsed
+   * again with the next request.
+   */
+  public synchronized void init() {
+    close(modules.values(), null);
+    modules = new HashMap<>();
+    routes = new RestXqRoutes(modules.values());
+    restxq = null;
+  }
+
   /**
    * Returns a WADL description for all available URIs.
    * @param http HTTP context
@@ -57,11 +72,17 @@ public final class RestXqModules {
   RestXqFunction find(final HTTPContext http, final QNm error) throws Exception {
     cache(http);
 
-    // collect all functions
+    // collect all matching functions (path functions: consult routing table)
     final ArrayList<RestXqFunction> list = new ArrayList<>();
-    for(final RestXqModule mod : modules.values()) {
-      for(final RestXqFunction rxf : mod.functions()) {
-        if(rxf.matches(http, error)) list.add(rxf);
+    if(error == null) {
+      for(final RestXqFunction rxf : routes.find(http.path())) {
+        if(rxf.matches(http, null)) list.add(rxf);
+      }
+    } else {
+      for(final RestXqModule mod : modules.values()) {
+        for(final RestXqFunction rxf : mod.functions()) {
+          if(rxf.matches(http, error)) list.add(rxf);
+        }
       }
     }
     // no path matches
@@ -127,13 +148,20 @@ public final class RestXqModules {
 
   /**
    * Updates the module cache. Parses new modules and discards obsolete ones.
+   * The RESTXQ directory will only be parsed again if the timeout specified by
+   * {@link StaticOptions#PARSERESTXQ} has expired. A negative timeout indicates that
+   * it will only be parsed once.
    * @param http http context
    * @throws Exception exception (including unexpected ones)
    */
   private synchronized void cache(final HTTPContext http) throws Exception {
-    // initialize RESTXQ directory (may be relative against WEBPATH)
-    if(restxq == null) {
-      final StaticOptions sopts = http.context(false).soptions;
+    final StaticOptions sopts = http.context(false).soptions;
+    final long time = System.nanoTime();
+    if(restxq != null) {
+      final long timeout = sopts.get(StaticOptions.PARSERESTXQ) * 1000000000L;
+      if(timeout < 0 || time - parsed < timeout) return;
+    } else {
+      // initialize RESTXQ directory (may be relative against WEBPATH)
       final String webpath = sopts.get(StaticOptions.WEBPATH);
       final String rxqpath = sopts.get(StaticOptions.RESTXQPATH);
       restxq = new IOFile(webpath).resolve(rxqpath);
@@ -141,7 +169,22 @@ public final class RestXqModules {
     // create new cache
     final HashMap<String, RestXqModule> cache = new HashMap<>();
     cache(http, restxq, cache);
+    close(modules.values(), cache);
+    routes = new RestXqRoutes(cache.values());
     modules = cache;
+    parsed = time;
+  }
+
+  /**
+   * Closes the pooled query contexts of modules that are no longer cached.
+   * @param old old modules
+   * @param cache new modules (can be {@code null})
+   */
+  private static void close(final Collection<RestXqModule> old,
+      final HashMap<String, RestXqModule> cache) {
+    for(final RestXqModule module : old) {
+      if(cache == null || !cache.containsValue(module)) module.close();
+    }
   }
 
   /**
@@ -173,6 +216,8 @@ public final class RestXqModules {
           if(parsed || module.parse(http)) {
             module.touch();
             cache.put(path, module);
+          } else {
+            module.close();
           }
         }
       }
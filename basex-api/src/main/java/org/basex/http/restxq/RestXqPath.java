@@ -5,6 +5,7 @@ import org.basex.query.QueryException;
 import org.basex.query.value.item.QNm;
 import org.basex.util.InputInfo;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -19,6 +20,8 @@ final class RestXqPath implements Comparable<RestXqPath> {
   private final String path;
   /** Path matcher. */
   private final RestXqPathMatcher matcher;
+  /** Leading path segments without templates. */
+  private final List<String> segments = new ArrayList<>();
 
   /**
    * Constructor.
@@ -29,6 +32,16 @@ final class RestXqPath implements Comparable<RestXqPath> {
   RestXqPath(final String path, final InputInfo info) throws QueryException {
     this.path = path;
     matcher = RestXqPathMatcher.parse(path, info);
+
+    final String p = path.startsWith("/") ? path.substring(1) : path;
+    if(!p.isEmpty()) {
+      for(final String segment : p.split("/", -1)) {
+        if(segment.indexOf('{') != -1) break;
+        final String decoded = HTTPContext.decode(segment);
+        if(decoded.indexOf('/') != -1) break;
+        segments.add(decoded);
+      }
+    }
   }
 
   /**
@@ -40,6 +53,14 @@ final class RestXqPath implements Comparable<RestXqPath> {
     return matcher.matches(http.path());
   }
 
+  /**
+   * Returns the leading path segments that contain no templates.
+   * @return decoded segments
+   */
+  List<String> segments() {
+    return segments;
+  }
+
   /**
    * Returns the names of the template variables.
    * @return list of qualified variable names
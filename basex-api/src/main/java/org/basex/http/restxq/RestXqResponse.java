@@ -12,6 +12,7 @@ import org.basex.query.iter.*;
 import org.basex.query.value.item.*;
 import org.basex.query.value.node.*;
 import org.basex.query.value.type.*;
+import org.basex.util.*;
 import org.basex.util.http.*;
 
 /**
@@ -48,6 +49,11 @@ final class RestXqResponse {
     query.http(http);
     query.context.register(query);
 
+    // assign memory limits (the same user is checked as for the timeout)
+    final Profile profile = query.info.profile;
+    query.context.limits.assign(profile, query.context.user());
+    final boolean entered = profile.enter();
+
     String redirect = null, forward = null;
     RestXqRespBuilder response = null;
     try {
@@ -87,11 +93,14 @@ final class RestXqResponse {
       final SerializerOptions sp = function.output;
       http.sopts(sp);
       http.initResponse();
-      try(final Serializer ser = Serializer.get(http.res.getOutputStream(), sp)) {
+      try(final Serializer ser = Serializer.get(http.output(), sp)) {
         for(; item != null; item = iter.next()) ser.serialize(item);
       }
 
+    } catch(final QueryLimitException ex) {
+      throw ex.getCause();
     } finally {
+      profile.exit(entered);
       query.close();
       query.context.unregister(query);
 
@@ -100,9 +109,11 @@ final class RestXqResponse {
       } else if(forward != null) {
         http.req.getRequestDispatcher(forward).forward(http.req, http.res);
       } else if(response != null) {
+        // custom responses are not cached
+        http.nocache();
         if(response.status != 0) http.status(response.status, response.message, response.error);
         final byte[] out = response.cache.finish();
-        if(out.length != 0) http.res.getOutputStream().write(out);
+        if(out.length != 0) http.output().write(out);
       }
     }
   }
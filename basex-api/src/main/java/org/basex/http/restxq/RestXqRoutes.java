@@ -0,0 +1,68 @@
+package org.basex.http.restxq;
+
+import java.util.*;
+
+/**
+ * This class indexes RESTXQ functions by the literal segments at the beginning of their
+ * path templates. For a given request, only the functions need to be checked whose
+ * literal segments are a prefix of the requested path.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+final class RestXqRoutes {
+  /** Functions whose literal segments end at this node. */
+  private final ArrayList<RestXqFunction> functions = new ArrayList<>();
+  /** Child nodes, indexed by path segments. */
+  private final HashMap<String, RestXqRoutes> children = new HashMap<>();
+
+  /**
+   * Constructor, indexing the path functions of the specified modules.
+   * @param modules modules
+   */
+  RestXqRoutes(final Collection<RestXqModule> modules) {
+    for(final RestXqModule module : modules) {
+      for(final RestXqFunction rxf : module.functions()) {
+        if(rxf.path != null) add(rxf);
+      }
+    }
+  }
+
+  /**
+   * Constructor for child nodes.
+   */
+  private RestXqRoutes() { }
+
+  /**
+   * Adds a function.
+   * @param rxf function
+   */
+  private void add(final RestXqFunction rxf) {
+    RestXqRoutes node = this;
+    for(final String segment : rxf.path.segments()) {
+      RestXqRoutes child = node.children.get(segment);
+      if(child == null) {
+        child = new RestXqRoutes();
+        node.children.put(segment, child);
+      }
+      node = child;
+    }
+    node.functions.add(rxf);
+  }
+
+  /**
+   * Returns all functions that may match the specified path.
+   * @param path normalized and decoded path
+   * @return functions
+   */
+  ArrayList<RestXqFunction> find(final String path) {
+    final ArrayList<RestXqFunction> list = new ArrayList<>(functions);
+    RestXqRoutes node = this;
+    for(final String segment : path.substring(1).split("/")) {
+      node = node.children.get(segment);
+      if(node == null) break;
+      list.addAll(node.functions);
+    }
+    return list;
+  }
+}
@@ -18,11 +18,13 @@ import org.basex.query.*;
 public final class RestXqServlet extends BaseXServlet {
   @Override
   protected void run(final HTTPContext http) throws Exception {
+    if(http.cached()) return;
     // analyze input path
     final RestXqModules rxm = RestXqModules.get();
     // select XQuery function
     RestXqFunction func = rxm.find(http, null);
     if(func == null) throw HTTPCode.NO_XQUERY.get();
+    http.request("RESTXQ " + func.path);
 
     try {
       // process function that matches the current request
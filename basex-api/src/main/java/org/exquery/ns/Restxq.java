@@ -41,6 +41,13 @@ public final class Restxq extends QueryModule {
     return Uri.uri(http().req.getRequestURI());
   }
 
+  /**
+   * Initializes the RESTXQ module cache: all modules will be parsed again with the next request.
+   */
+  public void init() {
+    RestXqModules.get().init();
+  }
+
   /**
    * Returns the servlet request instance.
    * @return request
@@ -0,0 +1,84 @@
+package org.basex.http.rest;
+
+import static org.basex.util.Token.*;
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.net.*;
+
+import org.basex.core.*;
+import org.basex.http.*;
+import org.basex.io.*;
+import org.basex.io.in.*;
+import org.basex.util.http.*;
+import org.junit.*;
+
+/**
+ * This class tests the response cache of the embedded REST API.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class RESTCacheTest extends RESTTest {
+  /** Query that reads the test database. */
+  private static final String COUNT = NAME + "?query=count(//b)";
+
+  /**
+   * Enables the response cache.
+   */
+  @BeforeClass
+  public static void enable() {
+    HTTPContext.init().soptions.set(StaticOptions.HTTPCACHE, 1 << 20);
+  }
+
+  /**
+   * Checks if cached responses are invalidated by updates.
+   * @throws IOException I/O exception
+   */
+  @Test
+  public void invalidate() throws IOException {
+    put(NAME, new ArrayInput(token("<a/>")));
+    try {
+      final String[] first = get(COUNT, null);
+      assertEquals("200", first[0]);
+      assertEquals("0", first[2]);
+      final String etag = first[1];
+      assertNotNull(etag);
+
+      // unchanged database: cached response is not sent again
+      assertEquals("304", get(COUNT, etag)[0]);
+
+      // updated database: new response is sent
+      get(NAME + "?query=insert+node+<b/>+into+/a");
+      final String[] second = get(COUNT, etag);
+      assertEquals("200", second[0]);
+      assertEquals("1", second[2]);
+      assertFalse(etag.equals(second[1]));
+      assertEquals("304", get(COUNT, second[1])[0]);
+    } finally {
+      delete(NAME);
+    }
+  }
+
+  /**
+   * Executes a GET request with an optional entity tag.
+   * @param query request
+   * @param etag entity tag (can be {@code null})
+   * @return response code, entity tag and result
+   * @throws IOException I/O exception
+   */
+  private static String[] get(final String query, final String etag) throws IOException {
+    final HttpURLConnection conn = (HttpURLConnection)
+        new IOUrl(REST_ROOT + query).connection();
+    try {
+      if(etag != null) conn.setRequestProperty(HttpText.IF_NONE_MATCH, etag);
+      final int code = conn.getResponseCode();
+      final String result = code == HttpURLConnection.HTTP_OK ?
+        read(conn.getInputStream()) : "";
+      return new String[] { Integer.toString(code), conn.getHeaderField(HttpText.ETAG),
+          result };
+    } finally {
+      conn.disconnect();
+    }
+  }
+}
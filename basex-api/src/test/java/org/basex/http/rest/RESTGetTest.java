@@ -3,6 +3,8 @@ package org.basex.http.rest;
 import static org.junit.Assert.*;
 
 import java.io.*;
+import java.net.*;
+import java.util.zip.*;
 
 import org.basex.core.*;
 import org.basex.io.*;
@@ -162,4 +164,43 @@ public final class RESTGetTest extends RESTTest {
     } catch(final IOException ignored) {
     }
   }
+
+  /**
+   * Compressed responses.
+   * @throws IOException I/O exception
+   */
+  @Test
+  public void compress() throws IOException {
+    // small responses are sent uncompressed
+    HttpURLConnection conn = compressed("?query=1");
+    try {
+      assertNull(conn.getHeaderField(HttpText.CONTENT_ENCODING));
+      assertEquals("1", read(conn.getInputStream()));
+    } finally {
+      conn.disconnect();
+    }
+
+    // large responses are compressed
+    conn = compressed("?query=string-join((1+to+100000)!string())");
+    try {
+      assertEquals(HttpText.GZIP, conn.getHeaderField(HttpText.CONTENT_ENCODING));
+      final String result = read(new GZIPInputStream(conn.getInputStream()));
+      assertTrue(result.startsWith("123456789101112"));
+      assertTrue(result.endsWith("99999100000"));
+    } finally {
+      conn.disconnect();
+    }
+  }
+
+  /**
+   * Returns a connection for a GET request that accepts compressed responses.
+   * @param query request
+   * @return connection
+   * @throws IOException I/O exception
+   */
+  private static HttpURLConnection compressed(final String query) throws IOException {
+    final HttpURLConnection conn = (HttpURLConnection) new IOUrl(REST_ROOT + query).connection();
+    conn.setRequestProperty(HttpText.ACCEPT_ENCODING, HttpText.GZIP + ", " + HttpText.DEFLATE);
+    return conn;
+  }
 }
@@ -0,0 +1,36 @@
+package org.basex.http.restxq;
+
+import static org.basex.util.Token.*;
+import static org.junit.Assert.*;
+
+import org.basex.core.*;
+import org.basex.io.*;
+import org.junit.*;
+
+/**
+ * This test checks when RESTXQ modules are parsed.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class RestXqParseTest extends RestXqTest {
+  /**
+   * Modules are only parsed again after the timeout of {@link StaticOptions#PARSERESTXQ}
+   * or after the cache has been invalidated.
+   * @throws Exception exception
+   */
+  @Test
+  public void parse() throws Exception {
+    get("declare %R:path('') function m:f() { 1 };", "", "1");
+    assertEquals("1", get(""));
+
+    // modify module: the cached version is used until the timeout has expired
+    final IOFile file = new IOFile(context.soptions.get(StaticOptions.WEBPATH)).children()[0];
+    file.write(token(string(file.read()).replace("{ 1 }", "{ 2 }")));
+    assertEquals("1", get(""));
+
+    // invalidate cache: the module is parsed again, even if its timestamp is unchanged
+    RestXqModules.get().init();
+    assertEquals("2", get(""));
+  }
+}
@@ -41,6 +41,26 @@ public final class RestXqPathTest extends RestXqTest {
     get("declare %R:path('/test') function m:f() {'ok'};", "test", "ok");
   }
 
+  /**
+   * Retrieves paths with common literal segments.
+   * @throws Exception exception
+   */
+  @Test
+  public void getSegments() throws Exception {
+    final String f = "declare %R:path('/a') function m:a() {'a'};" +
+        "declare %R:path('/a/b') function m:b() {'b'};" +
+        "declare %R:path('/a/{$x}') function m:c($x) {'c' || $x};" +
+        "declare %R:path('/a/b%20c/d') function m:d() {'d'};" +
+        "declare %R:path('/{$x}/b') function m:e($x) {'e' || $x};";
+    get(f, "a", "a");
+    get(f, "a/b", "b");
+    get(f, "a/c", "cc");
+    get(f, "a/b%20c/d", "d");
+    get(f, "x/b", "ex");
+    getE(f, "a/b/c");
+    getE(f, "b");
+  }
+
   /**
    * Retrieves paths with variables.
    * @throws Exception exception
@@ -88,6 +88,8 @@ public abstract class RestXqTest extends HTTPTest {
     for(final IOFile f : new IOFile(path).children()) assertTrue(f.delete());
     // create new module
     module().write(new TokenBuilder(HEADER).add(function).finish());
+    // invalidate module cache
+    RestXqModules.get().init();
   }
 
   /**
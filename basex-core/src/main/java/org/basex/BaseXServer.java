@@ -4,6 +4,7 @@ import static org.basex.core.Text.*;
 
 import java.io.*;
 import java.net.*;
+import java.nio.channels.*;
 import java.util.*;
 
 import org.basex.api.client.*;
@@ -38,6 +39,8 @@ public final class BaseXServer extends CLI implements Runnable {
   private StringList commands;
   /** Server socket. */
   private ServerSocket socket;
+  /** Selector for client sessions. */
+  private ClientSelector selector;
   /** Start as daemon. */
   private boolean service;
   /** Quiet flag. */
@@ -104,7 +107,7 @@ public final class BaseXServer extends CLI implements Runnable {
       // execute initial command-line arguments
       for(final String cmd : commands) execute(cmd);
 
-      socket = new ServerSocket();
+      socket = ServerSocketChannel.open().socket();
       socket.setReuseAddress(true);
       socket.bind(new InetSocketAddress(addr, port));
       esocket = new ServerSocket();
@@ -116,6 +119,9 @@ public final class BaseXServer extends CLI implements Runnable {
       throw ex;
     }
 
+    selector = new ClientSelector(sopts.get(StaticOptions.SERVERTHREADS));
+    selector.start();
+    context.metrics.register();
     new Thread(this).start();
     do Thread.yield(); while(!running);
 
@@ -153,7 +159,7 @@ public final class BaseXServer extends CLI implements Runnable {
               if(ms - cs.last > ka) cs.quit();
             }
           }
-          final ClientListener cl = new ClientListener(s, context, this);
+          final ClientListener cl = new ClientListener(s, context, this, selector);
           // start authentication timeout
           final long to = context.soptions.get(StaticOptions.KEEPALIVE) * 1000L;
           if(to > 0) {
@@ -201,6 +207,8 @@ public final class BaseXServer extends CLI implements Runnable {
     for(final ClientListener cs : context.sessions) {
       cs.quit();
     }
+    selector.close();
+    context.metrics.unregister();
 
     try {
       // close interactive input if server was stopped by another process
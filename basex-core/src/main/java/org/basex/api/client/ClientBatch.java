@@ -0,0 +1,181 @@
+package org.basex.api.client;
+
+import java.io.*;
+import java.util.*;
+
+import org.basex.core.*;
+import org.basex.io.in.*;
+import org.basex.io.out.*;
+import org.basex.server.*;
+import org.basex.util.*;
+import org.basex.util.list.*;
+
+/**
+ * This class collects database commands and query requests, which are sent to the server
+ * by {@link #execute()} without waiting for the responses of the previous requests.
+ * The responses are read in the order of the requests. This way, only few round trips are
+ * needed, no matter how many requests are sent.
+ *
+ * <p>The server stops reading requests while it is sending a response. If the client kept
+ * writing requests without reading the responses, both sides could block each other as soon
+ * as the socket buffers are full. Requests are therefore only sent as long as the requests
+ * that have not been answered yet fit into a window of {@link #WINDOW} bytes.</p>
+ *
+ * <p>Requests are processed one by one by the server. If a request fails, the remaining
+ * requests will still be processed.</p>
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class ClientBatch {
+  /** Maximum number of bytes of unanswered requests (smaller than common socket buffers). */
+  public static final int WINDOW = 1 << 14;
+
+  /** Client session. */
+  private final ClientSession cs;
+  /** Server commands of the requests ({@code COMMAND} for database commands). */
+  private final ArrayList<ServerCmd> cmds = new ArrayList<>();
+  /** Requests. */
+  private final ArrayOutput requests = new ArrayOutput();
+  /** End offsets of the requests. */
+  private final IntList ends = new IntList();
+
+  /**
+   * Constructor.
+   * @param session client session
+   */
+  ClientBatch(final ClientSession session) {
+    cs = session;
+  }
+
+  /**
+   * Adds a database command.
+   * @param command command to be executed
+   * @return self reference
+   * @throws IOException I/O exception
+   */
+  public ClientBatch execute(final String command) throws IOException {
+    return add(ServerCmd.COMMAND, command);
+  }
+
+  /**
+   * Adds a database command.
+   * @param command command to be executed
+   * @return self reference
+   * @throws IOException I/O exception
+   */
+  public ClientBatch execute(final Command command) throws IOException {
+    return execute(command.toString());
+  }
+
+  /**
+   * Adds the binding of a value to an external variable of a query.
+   * @param query query
+   * @param name name of variable
+   * @param value value to be bound
+   * @param type value type (may be {@code null})
+   * @return self reference
+   * @throws IOException I/O exception
+   */
+  public ClientBatch bind(final ClientQuery query, final String name, final Object value,
+      final String type) throws IOException {
+    return add(ServerCmd.BIND, query.args(name, value, type));
+  }
+
+  /**
+   * Adds the binding of a context value to a query.
+   * @param query query
+   * @param value value to be bound
+   * @param type value type (may be {@code null})
+   * @return self reference
+   * @throws IOException I/O exception
+   */
+  public ClientBatch context(final ClientQuery query, final Object value, final String type)
+      throws IOException {
+    return add(ServerCmd.CONTEXT, query.args(null, value, type));
+  }
+
+  /**
+   * Adds the execution of a query.
+   * @param query query
+   * @return self reference
+   * @throws IOException I/O exception
+   */
+  public ClientBatch execute(final ClientQuery query) throws IOException {
+    return add(ServerCmd.EXEC, query.id);
+  }
+
+  /**
+   * Adds the closing of a query.
+   * @param query query
+   * @return self reference
+   * @throws IOException I/O exception
+   */
+  public ClientBatch close(final ClientQuery query) throws IOException {
+    return add(ServerCmd.CLOSE, query.id);
+  }
+
+  /**
+   * Sends all requests to the server and reads the responses. The results of database commands
+   * and executed queries are returned as strings; empty strings are returned for all other
+   * requests. If requests failed, an exception with the message of the first error will be
+   * raised after all responses have been read.
+   * @return results, in the order of the requests
+   * @throws IOException I/O exception
+   */
+  public List<String> execute() throws IOException {
+    final int rs = cmds.size();
+    final byte[] data = requests.buffer();
+    final ArrayList<String> results = new ArrayList<>(rs);
+    String error = null;
+    final BufferInput bi = cs.sin;
+    for(int sent = 0, r = 0; r < rs; r++) {
+      // send next requests, unless the unanswered requests exceed the window
+      final int start = r == 0 ? 0 : ends.get(r - 1);
+      int s = sent;
+      while(s < rs && (s == r || ends.get(s) - start <= WINDOW)) s++;
+      if(s > sent) {
+        final int off = sent == 0 ? 0 : ends.get(sent - 1);
+        cs.sout.write(data, off, ends.get(s - 1) - off);
+        cs.sout.flush();
+        sent = s;
+      }
+
+      // read response
+      final ServerCmd cmd = cmds.get(r);
+      final ArrayOutput ao = new ArrayOutput();
+      ClientSession.receive(bi, ao);
+      final String info = cmd == ServerCmd.COMMAND ? bi.readString() : null;
+      if(ClientSession.ok(bi)) {
+        if(info != null) cs.info = info;
+      } else {
+        final String msg = info != null ? info : bi.readString();
+        if(error == null) error = msg;
+      }
+      results.add(ao.toString());
+    }
+    requests.reset();
+    ends.reset();
+    cmds.clear();
+    if(error != null) throw new BaseXException(error);
+    return results;
+  }
+
+  /**
+   * Adds a request.
+   * @param cmd server command
+   * @param arg argument
+   * @return self reference
+   * @throws IOException I/O exception
+   */
+  private ClientBatch add(final ServerCmd cmd, final String arg) throws IOException {
+    // database commands are sent without control code
+    if(cmd == ServerCmd.COMMAND) cs.command(arg);
+    else requests.write(cmd.code);
+    requests.write(Token.token(arg));
+    requests.write(0);
+    ends.add((int) requests.size());
+    cmds.add(cmd);
+    return this;
+  }
+}
@@ -1,6 +1,7 @@
 package org.basex.api.client;
 
 import java.io.*;
+import java.util.*;
 
 import org.basex.api.dom.*;
 import org.basex.core.*;
@@ -17,6 +18,12 @@ import org.basex.util.*;
  * This class defines all methods for iteratively evaluating queries with the
  * client/server architecture. All sent data is received by the
  * {@link ClientListener} and interpreted by the {@link ServerQuery}.
+ * By default, {@link #more()} and {@link #next()} request all results at once. If a batch
+ * size is set via {@link #batch(int, long)}, results will be fetched from a server-side
+ * cursor in batches. Results can also be retrieved as Java objects via {@link #nextObject()},
+ * in which case they will be fetched from a cursor and transferred in a compact
+ * {@link BinaryFormat}. An open cursor keeps the locks of its query until all results
+ * have been fetched or the query is closed.
  *
  * @author BaseX Team 2005-15, BSD License
  * @author Christian Gruen
@@ -27,6 +34,19 @@ public class ClientQuery extends Query {
   /** Query id. */
   final String id;
 
+  /** Maximum number of items per batch. */
+  private int items = 1000;
+  /** Maximum number of bytes per batch. */
+  private long bytes = 1 << 20;
+  /** Indicates if results are fetched from a cursor by {@link #more()} and {@link #next()}. */
+  private boolean cursor;
+  /** Indicates if a cursor has been opened. */
+  private boolean open;
+  /** Cached objects. */
+  private ArrayList<Object> objects;
+  /** Index of the next cached object. */
+  private int index;
+
   /**
    * Standard constructor.
    * @param query query to be run
@@ -58,7 +78,22 @@ public class ClientQuery extends Query {
 
   @Override
   public void bind(final String name, final Object value, final String type) throws IOException {
+    cs.exec(name == null ? ServerCmd.CONTEXT : ServerCmd.BIND, args(name, value, type), null);
+  }
+
+  /**
+   * Returns the arguments for binding a value to an external variable or the context.
+   * Invalidates cached results.
+   * @param name name of variable (if {@code null}, the context value will be bound)
+   * @param value value to be bound
+   * @param type value type (may be {@code null})
+   * @return arguments
+   * @throws IOException I/O exception
+   */
+  String args(final String name, final Object value, final String type) throws IOException {
     cache = null;
+    objects = null;
+    open = false;
 
     final Object vl = value  instanceof BXNode ? ((BXNode) value).getNode() : value;
     String t = type == null ? "" : type;
@@ -87,9 +122,8 @@ public class ClientQuery extends Query {
       v = value.toString();
     }
 
-    final ServerCmd cmd = name == null ? ServerCmd.CONTEXT : ServerCmd.BIND;
     final String n = name == null ? "" : name + '\0';
-    cs.exec(cmd, id + '\0' + n + v + '\0' + t, null);
+    return id + '\0' + n + v + '\0' + t;
   }
 
   @Override
@@ -104,17 +138,106 @@ public class ClientQuery extends Query {
 
   @Override
   public void close() throws IOException {
+    open = false;
     cs.exec(ServerCmd.CLOSE, id, null);
   }
 
+  /**
+   * Sets the maximum size of the batches in which results will be fetched from the server.
+   * At least one item will be returned per batch. After calling this method, the results
+   * returned by {@link #more()} and {@link #next()} will be fetched from a cursor.
+   * @param max maximum number of items
+   * @param size maximum number of bytes
+   */
+  public void batch(final int max, final long size) {
+    items = max;
+    bytes = size;
+    cursor = true;
+  }
+
+  @Override
+  public boolean more() throws IOException {
+    if(!cursor) return super.more();
+    // fetch next batch until an item is found or the cursor is exhausted
+    while(!super.more()) {
+      if(!open) return false;
+    }
+    return true;
+  }
+
+  /**
+   * Returns the next item of the query as Java object.
+   * The types of the returned objects are documented in {@link BinaryFormat#read}.
+   * This method should not be mixed with {@link #more()} and {@link #next()}.
+   * @return object, or {@code null} if all items have been returned
+   * @throws IOException I/O exception
+   */
+  public Object nextObject() throws IOException {
+    if(objects == null || index == objects.size()) {
+      final BufferInput bi = fetch(ServerCmd.BINARY);
+      objects = new ArrayList<>();
+      for(Object obj; (obj = BinaryFormat.read(bi)) != null;) objects.add(obj);
+      check(bi);
+      index = 0;
+      // empty batch: cursor is exhausted
+      if(objects.isEmpty()) {
+        open = false;
+        objects = null;
+        return null;
+      }
+    }
+    return objects.get(index++);
+  }
+
   @Override
-  @SuppressWarnings("resource")
   protected void cache() throws IOException {
+    final BufferInput bi = cursor ? fetch(ServerCmd.FETCH) : results();
+    cache(bi);
+    check(bi);
+    // empty batch: cursor is exhausted
+    if(cache.isEmpty()) open = false;
+  }
+
+  /**
+   * Requests all results of the query.
+   * @return input stream
+   * @throws IOException I/O exception
+   */
+  private BufferInput results() throws IOException {
     cs.sout.write(ServerCmd.RESULTS.code);
     cs.send(id);
     cs.sout.flush();
-    final BufferInput bi = new BufferInput(cs.sin);
-    cache(bi);
-    if(!ClientSession.ok(bi)) throw new BaseXException(bi.readString());
+    return cs.sin;
+  }
+
+  /**
+   * Opens a cursor if necessary and requests the next batch of results.
+   * @param cmd server command
+   * @return input stream
+   * @throws IOException I/O exception
+   */
+  private BufferInput fetch(final ServerCmd cmd) throws IOException {
+    if(!open) {
+      cs.exec(ServerCmd.CURSOR, id, null);
+      open = true;
+    }
+    cs.sout.write(cmd.code);
+    cs.send(id);
+    cs.send(Integer.toString(items));
+    cs.send(Long.toString(bytes));
+    cs.sout.flush();
+    return cs.sin;
+  }
+
+  /**
+   * Checks the success flag of a response.
+   * @param bi input stream
+   * @throws IOException I/O exception
+   */
+  private void check(final BufferInput bi) throws IOException {
+    if(!ClientSession.ok(bi)) {
+      open = false;
+      throw new BaseXException(bi.readString());
+    }
   }
 }
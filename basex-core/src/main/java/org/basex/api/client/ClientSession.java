@@ -35,8 +35,8 @@ public class ClientSession extends Session {
       Collections.synchronizedMap(new HashMap<String, EventNotifier>());
   /** Server output (buffered). */
   final PrintOutput sout;
-  /** Server input. */
-  final InputStream sin;
+  /** Server input (buffered). */
+  final BufferInput sin;
 
   /** Socket reference. */
   private final Socket socket;
@@ -108,11 +108,10 @@ public class ClientSession extends Session {
     } catch(final IllegalArgumentException ex) {
       throw new BaseXException(ex);
     }
-    sin = socket.getInputStream();
+    sin = new BufferInput(socket.getInputStream());
 
     // receive server response
-    final BufferInput bi = new BufferInput(sin);
-    final String[] response = Strings.split(bi.readString(), ':');
+    final String[] response = Strings.split(sin.readString(), ':');
     final String code, nonce;
     if(response.length > 1) {
       // support for digest authentication
@@ -131,7 +130,7 @@ public class ClientSession extends Session {
     sout.flush();
 
     // receive success flag
-    if(!ok(bi)) throw new LoginException();
+    if(!ok(sin)) throw new LoginException();
   }
 
   @Override
@@ -159,6 +158,14 @@ public class ClientSession extends Session {
     return new ClientQuery(query, this, out);
   }
 
+  /**
+   * Returns a new batch. The requests of a batch are sent to the server in one go.
+   * @return batch
+   */
+  public ClientBatch batch() {
+    return new ClientBatch(this);
+  }
+
   @Override
   public synchronized void close() throws IOException {
     if(esocket != null) esocket.close();
@@ -167,6 +174,7 @@ public class ClientSession extends Session {
 
   @Override
   protected void execute(final String command, final OutputStream output) throws IOException {
+    command(command);
     send(command);
     sout.flush();
     receive(output);
@@ -177,6 +185,12 @@ public class ClientSession extends Session {
     execute(command.toString(), output);
   }
 
+  /**
+   * Called before a database command is sent to the server.
+   * @param command command string
+   */
+  void command(final String command) { }
+
   /**
    * Watches an event.
    * @param name event name
@@ -187,13 +201,12 @@ public class ClientSession extends Session {
     sout.write(ServerCmd.WATCH.code);
     if(esocket == null) {
       sout.flush();
-      final BufferInput bi = new BufferInput(sin);
-      final int eport = Integer.parseInt(bi.readString());
+      final int eport = Integer.parseInt(sin.readString());
       // initialize event socket
       esocket = new Socket();
       esocket.connect(new InetSocketAddress(ehost, eport), 5000);
       final OutputStream so = esocket.getOutputStream();
-      so.write(bi.readBytes());
+      so.write(sin.readBytes());
       so.write(0);
       so.flush();
       final InputStream is = esocket.getInputStream();
@@ -230,7 +243,10 @@ public class ClientSession extends Session {
       public void run() {
         try {
           while(true) {
-            final EventNotifier n = notifiers.get(bi.readString());
+            // stop listening if the event socket has been closed by the server
+            final String name = bi.readString();
+            if(name.isEmpty()) break;
+            final EventNotifier n = notifiers.get(name);
             final String l = bi.readString();
             if(n != null) n.notify(l);
           }
@@ -259,12 +275,10 @@ public class ClientSession extends Session {
    * @param output output stream to send result to. If {@code null}, no result will be requested
    * @throws IOException I/O exception
    */
-  @SuppressWarnings("resource")
   private void receive(final OutputStream output) throws IOException {
-    final BufferInput bi = new BufferInput(sin);
-    if(output != null) receive(bi, output);
-    info = bi.readString();
-    if(!ok(bi)) throw new BaseXException(info);
+    if(output != null) receive(sin, output);
+    info = sin.readString();
+    if(!ok(sin)) throw new BaseXException(info);
   }
 
   /**
@@ -329,9 +343,8 @@ public class ClientSession extends Session {
     sout.write(command.code);
     send(arg);
     sout.flush();
-    final BufferInput bi = new BufferInput(sin);
-    receive(bi, o);
-    if(!ok(bi)) throw new BaseXException(bi.readString());
+    receive(sin, o);
+    if(!ok(sin)) throw new BaseXException(sin.readString());
     return o.toString();
   }
 
@@ -0,0 +1,278 @@
+package org.basex.api.client;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.regex.*;
+
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.server.*;
+import org.basex.util.*;
+
+/**
+ * Thread-safe pool of client sessions, which can be shared by multiple threads.
+ * Sessions are requested via {@link #session()}. They will be returned to the pool when
+ * they are closed:
+ *
+ * <pre>
+ * try(ClientSession session = pool.session()) {
+ *   session.execute("...");
+ * }</pre>
+ *
+ * <ul>
+ *   <li> The number of sessions is limited. If all sessions are in use, the requesting
+ *        thread will wait until a session is returned.</li>
+ *   <li> The state of a session is reset when it is returned to the pool: queries that are
+ *        still open are closed, events are unwatched, and a database that may have been
+ *        opened by a command is closed. Sessions in which options have been changed via
+ *        {@code SET} are discarded, as their original options cannot be restored.</li>
+ *   <li> Sessions that have been idle for a while are validated before they are returned.
+ *        Sessions that do not respond anymore are discarded.</li>
+ *   <li> Sessions that have been idle longer than the specified timeout are closed.</li>
+ * </ul>
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class SessionPool implements Closeable {
+  /** Idle time (ms) after which a session will be validated before it is returned. */
+  private static final long VALIDATE = 5000;
+  /** Commands that change options (string and XML syntax). */
+  private static final Pattern SET = Pattern.compile("^\\s*(<\\s*)?set\\b",
+      Pattern.CASE_INSENSITIVE);
+
+  /** Idle sessions (most recently used first). */
+  private final ArrayDeque<PooledSession> sessions = new ArrayDeque<>();
+  /** Permits for sessions in use. */
+  private final Semaphore permits;
+  /** Server name. */
+  private final String host;
+  /** Server port. */
+  private final int port;
+  /** User name. */
+  private final String username;
+  /** Password. */
+  private final String password;
+  /** Idle time (ms) after which a session will be closed. */
+  private final long timeout;
+  /** Indicates if the pool has been closed. */
+  private boolean closed;
+
+  /**
+   * Constructor.
+   * @param host server name
+   * @param port server port
+   * @param username user name
+   * @param password password (plain text)
+   * @param max maximum number of sessions
+   * @param timeout idle time (ms) after which unused sessions will be closed
+   */
+  public SessionPool(final String host, final int port, final String username,
+      final String password, final int max, final long timeout) {
+    this.host = host;
+    this.port = port;
+    this.username = username;
+    this.password = password;
+    this.timeout = timeout;
+    permits = new Semaphore(Math.max(1, max), true);
+  }
+
+  /**
+   * Returns a session. Waits until a session is available if all sessions are in use.
+   * The session must be closed after use.
+   * @return session
+   * @throws IOException I/O exception
+   */
+  public ClientSession session() throws IOException {
+    try {
+      permits.acquire();
+    } catch(final InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new BaseXException(ex);
+    }
+
+    try {
+      while(true) {
+        final PooledSession session;
+        synchronized(this) {
+          if(closed) throw new BaseXException("Session pool has been closed.");
+          evict();
+          session = sessions.pollFirst();
+        }
+        if(session == null) return new PooledSession();
+        if(session.valid()) {
+          session.active = true;
+          return session;
+        }
+      }
+    } catch(final IOException | RuntimeException ex) {
+      permits.release();
+      throw ex;
+    }
+  }
+
+  /**
+   * Returns the number of idle sessions.
+   * @return number of idle sessions
+   */
+  public synchronized int idle() {
+    return sessions.size();
+  }
+
+  @Override
+  public synchronized void close() {
+    closed = true;
+    for(final PooledSession session : sessions) session.disconnect();
+    sessions.clear();
+  }
+
+  /**
+   * Returns a session to the pool.
+   * @param session session
+   */
+  private void release(final PooledSession session) {
+    session.setOutputStream(null);
+    session.used = System.currentTimeMillis();
+    final boolean reset = session.reset();
+    synchronized(this) {
+      if(closed || !reset) {
+        session.disconnect();
+      } else {
+        sessions.addFirst(session);
+        evict();
+      }
+    }
+    permits.release();
+  }
+
+  /**
+   * Closes sessions that have been idle longer than the timeout.
+   */
+  private void evict() {
+    final long time = System.currentTimeMillis() - timeout;
+    while(!sessions.isEmpty() && sessions.peekLast().used < time) {
+      sessions.pollLast().disconnect();
+    }
+  }
+
+  /**
+   * Pooled session.
+   */
+  private final class PooledSession extends ClientSession {
+    /** Timestamp of last usage. */
+    private long used;
+    /** Indicates if the session is in use. */
+    private volatile boolean active = true;
+    /** Queries that have not been closed yet. */
+    private final ArrayList<ClientQuery> queries = new ArrayList<>();
+    /** Watched events. */
+    private final HashSet<String> events = new HashSet<>();
+    /** Indicates if database commands have been executed. */
+    private boolean executed;
+    /** Indicates if options have been changed. */
+    private boolean changed;
+
+    /**
+     * Constructor.
+     * @throws IOException I/O exception
+     */
+    private PooledSession() throws IOException {
+      super(host, port, username, password);
+    }
+
+    @Override
+    public ClientQuery query(final String query) throws IOException {
+      final ClientQuery cq = new ClientQuery(query, this, out) {
+        @Override
+        public void close() throws IOException {
+          queries.remove(this);
+          super.close();
+        }
+      };
+      queries.add(cq);
+      return cq;
+    }
+
+    @Override
+    void command(final String command) {
+      executed = true;
+      if(SET.matcher(command).find()) changed = true;
+    }
+
+    @Override
+    public void watch(final String name, final EventNotifier notifier) throws IOException {
+      super.watch(name, notifier);
+      events.add(name);
+    }
+
+    @Override
+    public void unwatch(final String name) throws IOException {
+      super.unwatch(name);
+      events.remove(name);
+    }
+
+    /**
+     * Resets the state of the session before it is returned to the pool.
+     * @return {@code true} if the session can be reused
+     */
+    private boolean reset() {
+      if(changed) {
+        disconnect();
+        return false;
+      }
+      try {
+        while(!queries.isEmpty()) queries.get(queries.size() - 1).close();
+        for(final String name : events.toArray(new String[events.size()])) unwatch(name);
+        if(executed) {
+          execute(new Close());
+          executed = false;
+        }
+        return true;
+      } catch(final IOException ex) {
+        Util.debug(ex);
+        disconnect();
+        return false;
+      }
+    }
+
+    /**
+     * Returns the session to the pool.
+     */
+    @Override
+    public void close() {
+      if(!active) return;
+      active = false;
+      release(this);
+    }
+
+    /**
+     * Checks if the session is still valid. Sessions that have been idle for a while
+     * are validated by sending a command to the server.
+     * @return result of check
+     */
+    private boolean valid() {
+      if(System.currentTimeMillis() - used < VALIDATE) return true;
+      try {
+        execute(new Close());
+        executed = false;
+        return true;
+      } catch(final IOException ex) {
+        Util.debug(ex);
+        disconnect();
+        return false;
+      }
+    }
+
+    /**
+     * Closes the connection.
+     */
+    private void disconnect() {
+      try {
+        super.close();
+      } catch(final IOException ex) {
+        Util.debug(ex);
+      }
+    }
+  }
+}
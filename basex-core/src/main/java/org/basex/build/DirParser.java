@@ -10,6 +10,7 @@ import java.util.zip.*;
 import org.basex.core.*;
 import org.basex.core.MainOptions.MainParser;
 import org.basex.core.cmd.*;
+import org.basex.data.*;
 import org.basex.io.*;
 import org.basex.io.in.*;
 import org.basex.util.*;
@@ -44,6 +45,10 @@ public final class DirParser extends Parser {
   private final boolean rawParser;
   /** Database path for storing binary files. */
   private IOFile rawPath;
+  /** Shard to which the parsed resources are assigned ({@code -1}: all resources). */
+  private int shard = -1;
+  /** Number of shards. */
+  private int shards;
 
   /** Last source. */
   private IO lastSrc;
@@ -82,6 +87,17 @@ public final class DirParser extends Parser {
     if(path != null && (addRaw || rawParser)) rawPath = new IOFile(path, IO.RAW);
   }
 
+  /**
+   * Only parses the resources that are assigned to the specified shard of a
+   * {@link Shards sharded collection}.
+   * @param sh shard
+   * @param shs number of shards
+   */
+  public void shard(final int sh, final int shs) {
+    shard = sh;
+    shards = shs;
+  }
+
   @Override
   public void parse(final Builder build) throws IOException {
     build.meta.filesize = 0;
@@ -145,10 +161,6 @@ public final class DirParser extends Parser {
   private void parseResource(final Builder b) throws IOException {
     b.checkStop();
 
-    // add file size for database meta information
-    final long l = source.length();
-    if(l != -1) b.meta.filesize += l;
-
     // use global target as path prefix
     String targ = target;
     String path = source.path();
@@ -161,6 +173,16 @@ public final class DirParser extends Parser {
       targ = (targ + path).replace("//", "/");
     }
 
+    // skip resources that are assigned to other shards
+    if(shard != -1) {
+      final String norm = MetaData.normPath(targ + name);
+      if(Shards.route(norm != null ? norm : targ + name, shards) != shard) return;
+    }
+
+    // add file size for database meta information
+    final long l = source.length();
+    if(l != -1) b.meta.filesize += l;
+
     // check if file passes the name filter pattern
     boolean exclude = false;
     if(filter != null) {
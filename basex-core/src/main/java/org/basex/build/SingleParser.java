@@ -39,4 +39,14 @@ public abstract class SingleParser extends Parser {
    * @throws IOException I/O exception
    */
   protected abstract void parse() throws IOException;
+
+  /**
+   * Parses the input of the specified parser and sends the events to the current builder.
+   * @param parser parser
+   * @throws IOException I/O exception
+   */
+  protected final void parse(final SingleParser parser) throws IOException {
+    parser.builder = builder;
+    parser.parse();
+  }
 }
@@ -0,0 +1,209 @@
+package org.basex.build.json;
+
+import static org.basex.io.parse.json.JsonConstants.*;
+import static org.basex.query.QueryError.*;
+import static org.basex.util.Token.*;
+
+import java.io.*;
+
+import org.basex.build.*;
+import org.basex.build.json.JsonOptions.JsonFormat;
+import org.basex.io.parse.json.*;
+import org.basex.query.*;
+import org.basex.query.value.item.*;
+import org.basex.util.*;
+
+/**
+ * This class converts JSON data to XML, using direct or attributes conversion.
+ * Parse events are directly passed on to the database builder.
+ * Type information is always stored in the elements, as {@link JsonOptions#MERGE}
+ * requires the full document to be known in advance.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+final class JsonBuilder extends JsonConverter {
+  /** Attributes. */
+  private final Atts atts = new Atts();
+  /** Namespaces. */
+  private final Atts nsp = new Atts();
+  /** Builder. */
+  private final Builder builder;
+  /** Attributes format. */
+  private final boolean ats;
+  /** Include string type. */
+  private final boolean strings;
+  /** Lax QName conversion. */
+  private final boolean lax;
+
+  /** Name of next element. */
+  private byte[] name = JSON;
+  /** Value of next name attribute (attributes format). */
+  private byte[] key;
+
+  /**
+   * Constructor.
+   * @param opts json options
+   * @param builder builder
+   */
+  JsonBuilder(final JsonParserOptions opts, final Builder builder) {
+    super(opts);
+    this.builder = builder;
+    ats = opts.get(JsonOptions.FORMAT) == JsonFormat.ATTRIBUTES;
+    strings = opts.get(JsonOptions.STRINGS);
+    lax = opts.get(JsonOptions.LAX);
+  }
+
+  /**
+   * Checks if the specified options can be processed by this builder.
+   * @param opts json options
+   * @return result of check
+   */
+  static boolean supports(final JsonParserOptions opts) {
+    final JsonFormat format = opts.get(JsonOptions.FORMAT);
+    return !opts.get(JsonOptions.MERGE) &&
+        (format == JsonFormat.DIRECT || format == JsonFormat.ATTRIBUTES);
+  }
+
+  @Override
+  protected void openObject() throws QueryIOException {
+    open(OBJECT);
+  }
+
+  @Override
+  protected void openPair(final byte[] nm) {
+    if(ats) {
+      name = PAIR;
+      key = nm;
+    } else {
+      name = XMLToken.encode(nm, lax);
+    }
+  }
+
+  @Override
+  protected void closePair(final boolean add) throws QueryIOException {
+    if(ats) close();
+  }
+
+  @Override
+  protected void closeObject() throws QueryIOException {
+    if(!ats) close();
+  }
+
+  @Override
+  protected void openArray() throws QueryIOException {
+    open(ARRAY);
+  }
+
+  @Override
+  protected void openItem() {
+    name = ats ? ITEM : VALUE;
+  }
+
+  @Override
+  protected void closeItem() throws QueryIOException {
+    if(ats) close();
+  }
+
+  @Override
+  protected void closeArray() throws QueryIOException {
+    if(!ats) close();
+  }
+
+  @Override
+  protected void openConstr(final byte[] nm) throws QueryIOException {
+    openObject();
+    openPair(nm);
+    openArray();
+  }
+
+  @Override
+  protected void openArg() {
+    openItem();
+  }
+
+  @Override
+  protected void closeArg() throws QueryIOException {
+    closeItem();
+  }
+
+  @Override
+  protected void closeConstr() throws QueryIOException {
+    closeArray();
+    closePair(true);
+    closeObject();
+  }
+
+  @Override
+  protected void numberLit(final byte[] value) throws QueryIOException {
+    literal(NUMBER, value);
+  }
+
+  @Override
+  protected void stringLit(final byte[] value) throws QueryIOException {
+    literal(STRING, value);
+  }
+
+  @Override
+  protected void nullLit() throws QueryIOException {
+    literal(NULL, EMPTY);
+  }
+
+  @Override
+  protected void booleanLit(final byte[] value) throws QueryIOException {
+    literal(BOOLEAN, value);
+  }
+
+  @Override
+  protected Item finish() throws QueryIOException {
+    // close root element of attributes format
+    if(ats) close();
+    return null;
+  }
+
+  /**
+   * Adds a literal.
+   * @param type JSON type
+   * @param value value
+   * @throws QueryIOException I/O exception
+   */
+  private void literal(final byte[] type, final byte[] value) throws QueryIOException {
+    open(type);
+    try {
+      builder.text(value);
+    } catch(final IOException ex) {
+      throw IOERR_X.getIO(ex);
+    }
+    if(!ats) close();
+  }
+
+  /**
+   * Opens a new element with the given type.
+   * @param type JSON type
+   * @throws QueryIOException I/O exception
+   */
+  private void open(final byte[] type) throws QueryIOException {
+    atts.reset();
+    if(key != null) atts.add(NAME, key);
+    if(strings || type != STRING) atts.add(TYPE, type);
+    try {
+      builder.openElem(name, atts, nsp);
+    } catch(final IOException ex) {
+      throw IOERR_X.getIO(ex);
+    }
+    name = null;
+    key = null;
+  }
+
+  /**
+   * Closes the current element.
+   * @throws QueryIOException I/O exception
+   */
+  private void close() throws QueryIOException {
+    try {
+      builder.closeElem();
+    } catch(final IOException ex) {
+      throw IOERR_X.getIO(ex);
+    }
+  }
+}
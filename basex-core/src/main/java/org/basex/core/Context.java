@@ -1,5 +1,7 @@
 package org.basex.core;
 
+import java.util.*;
+
 import org.basex.core.locks.*;
 import org.basex.core.users.*;
 import org.basex.data.*;
@@ -8,6 +10,7 @@ import org.basex.query.util.pkg.*;
 import org.basex.server.*;
 import org.basex.util.*;
 import org.basex.util.list.*;
+import org.basex.util.options.*;
 
 /**
  * This class serves as a central database context.
@@ -40,9 +43,22 @@ public final class Context {
   public final Databases databases;
   /** Log. */
   public final Log log;
+  /** Modification counters of databases. */
+  public final Modifications modifications;
+  /** Query jobs. */
+  public final Jobs jobs;
+  /** Server-wide metrics. */
+  public final Metrics metrics;
+  /** Memory limits of queries. */
+  public final MemoryLimits limits;
 
   /** Client listener. Set to {@code null} in standalone/server mode. */
   public ClientListener listener;
+  /** States of the databases accessed by registered processes (assigned if required). */
+  public Snapshot snapshot;
+
+  /** Query job (assigned if the context belongs to an asynchronously evaluated job). */
+  Job job;
 
   /** Current node context. Set if it does not contain all documents of the current database. */
   private DBNodes current;
@@ -93,6 +109,10 @@ public final class Context {
     users = ctx.users;
     repo = ctx.repo;
     log = ctx.log;
+    modifications = ctx.modifications;
+    jobs = ctx.jobs;
+    metrics = ctx.metrics;
+    limits = ctx.limits;
   }
 
   /**
@@ -122,6 +142,10 @@ public final class Context {
     users = new Users(soptions);
     repo = new Repo(soptions);
     log = new Log(soptions);
+    modifications = new Modifications();
+    jobs = new Jobs(soptions);
+    metrics = new Metrics(this);
+    limits = new MemoryLimits(soptions);
     user = users.get(UserText.ADMIN);
   }
 
@@ -148,8 +172,10 @@ public final class Context {
    */
   public synchronized void close() {
     while(!sessions.isEmpty()) sessions.get(0).quit();
+    jobs.close();
     datas.close();
     log.close();
+    metrics.unregister();
   }
 
   /**
@@ -246,6 +272,17 @@ public final class Context {
     return user.has(perm, db);
   }
 
+  /**
+   * Returns the priority that can be assigned by the current user.
+   * Priorities higher than the default priority can only be assigned by administrators.
+   * @param priority requested priority
+   * @return granted priority
+   */
+  public int priority(final int priority) {
+    final int max = MainOptions.PRIORITY.value();
+    return priority > max && !user.has(Perm.ADMIN) ? max : priority;
+  }
+
   /**
    * Filters databases to the ones that have the specified permission.
    * @param perm requested permission
@@ -266,17 +303,33 @@ public final class Context {
     assert !pr.registered() : "Already registered:" + pr;
     pr.registered(true);
 
-    // administrators will not be affected by the timeout
-    if(!user.has(Perm.ADMIN)) pr.startTimeout(soptions.get(StaticOptions.TIMEOUT) * 1000L);
+    // administrators will not be affected by the timeout; query jobs have their own timeout
+    if(!user.has(Perm.ADMIN)) {
+      final NumberOption timeout = job == null ? StaticOptions.TIMEOUT : StaticOptions.JOBTIMEOUT;
+      pr.startTimeout(soptions.get(timeout) * 1000L);
+    }
 
     // get touched databases
     final LockResult lr = new LockResult();
+    lr.priority = options.get(MainOptions.PRIORITY);
     pr.databases(lr);
+    pr.priority = priority(lr.priority);
     final StringList write = prepareLock(lr.write, lr.writeAll);
     final StringList read = write == null ? null : prepareLock(lr.read, lr.readAll);
+    if(snapshot != null) snapshot.add(read, write, pr.updating, modifications);
+    pr.written = write;
     locks.acquire(pr, read, write);
   }
 
+  /**
+   * Acquires the exclusive locks that have been deferred for a process that is registered
+   * by the current thread (see {@link Proc#pendingUpdates()}).
+   * Must be called before updates are applied.
+   */
+  public void upgrade() {
+    locks.upgrade();
+  }
+
   /**
    * Unlocks the process and stops the timeout.
    * @param pr process
@@ -284,10 +337,28 @@ public final class Context {
   public void unregister(final Proc pr) {
     assert pr.registered() : "Not registered:" + pr;
     pr.registered(false);
+    // updates must be recorded before the locks are released
+    if(pr.updating) modifications.update(pr.written);
     locks.release(pr);
     pr.stopTimeout();
   }
 
+  /**
+   * Returns statistics on the locked objects.
+   * @return statistics
+   */
+  public ArrayList<LockStats> lockStats() {
+    return locks.stats();
+  }
+
+  /**
+   * Returns the transactions that are currently registered.
+   * @return transactions
+   */
+  public ArrayList<Transaction> transactions() {
+    return locks.transactions();
+  }
+
   /**
    * Prepares the string list for locking.
    * @param sl string list
@@ -78,6 +78,14 @@ public final class Datas {
     return entry == null ? 0 : entry.getValue();
   }
 
+  /**
+   * Returns all opened databases.
+   * @return data references
+   */
+  public synchronized ArrayList<Data> list() {
+    return new ArrayList<>(list.keySet());
+  }
+
   /**
    * Closes all data references.
    */
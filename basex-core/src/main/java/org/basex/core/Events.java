@@ -98,16 +98,10 @@ public final class Events extends HashMap<String, Sessions> {
     // event was not found
     if(sess == null) return false;
 
-    // refresh timestamp for last interaction
+    // notifications are queued and sent asynchronously
     for(final ClientListener srv : sess) {
       // ignore active client
-      if(srv == ctx.listener) continue;
-      try {
-        srv.notify(name, msg);
-      } catch(final IOException ex) {
-        // remove client if event could not be delivered
-        sess.remove(srv);
-      }
+      if(srv != ctx.listener) srv.notify(name, msg);
     }
     return true;
   }
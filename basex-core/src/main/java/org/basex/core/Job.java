@@ -0,0 +1,196 @@
+package org.basex.core;
+
+import static org.basex.query.QueryError.*;
+
+import java.io.*;
+import java.util.*;
+
+import org.basex.core.cmd.*;
+import org.basex.core.users.*;
+import org.basex.io.*;
+import org.basex.io.out.*;
+import org.basex.util.*;
+
+/**
+ * Query job, which is evaluated asynchronously. The result is written to disk.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class Job implements Runnable {
+  /** Job states. */
+  public enum State {
+    /** Queued.   */ QUEUED,
+    /** Running.  */ RUNNING,
+    /** Finished. */ FINISHED,
+    /** Failed.   */ FAILED,
+    /** Canceled. */ CANCELED;
+
+    @Override
+    public String toString() {
+      return name().toLowerCase(Locale.ENGLISH);
+    }
+  }
+
+  /** Job id. */
+  public final String id;
+  /** Query. */
+  public final String query;
+  /** Name of the user who submitted the job. */
+  public final String user;
+  /** Priority (jobs with higher priorities are run first). */
+  public final int priority;
+  /** Time of submission. */
+  public final long submitted = System.currentTimeMillis();
+
+  /** Job manager. */
+  private final Jobs jobs;
+  /** Database context of the job. */
+  private final Context ctx;
+  /** Result file. */
+  private final IOFile file;
+  /** Command that evaluates the query. */
+  private final XQuery command;
+
+  /** State. */
+  private volatile State state = State.QUEUED;
+  /** Start time. */
+  private volatile long started;
+  /** End time. */
+  private volatile long finished;
+  /** Error message (assigned if the job failed). */
+  private volatile String error;
+  /** Cancel flag. */
+  private volatile boolean canceled;
+
+  /**
+   * Constructor.
+   * @param id job id
+   * @param query query
+   * @param priority priority
+   * @param ctx database context of the job
+   * @param file result file
+   * @param jobs job manager
+   */
+  Job(final String id, final String query, final int priority, final Context ctx,
+      final IOFile file, final Jobs jobs) {
+    this.id = id;
+    this.query = query;
+    this.priority = priority;
+    this.ctx = ctx;
+    this.file = file;
+    this.jobs = jobs;
+    user = ctx.user().name();
+    command = new XQuery(query);
+    ctx.job = this;
+  }
+
+  @Override
+  public void run() {
+    started = System.currentTimeMillis();
+    State st = State.FAILED;
+    try(final PrintOutput out = new PrintOutput(file.path())) {
+      // limit the size of the result (administrators will not be affected by the limit)
+      final long max = (long) ctx.soptions.get(StaticOptions.JOBRESULTSIZE) << 20;
+      final boolean limit = max > 0 && !ctx.user().has(Perm.ADMIN);
+      if(limit) out.setLimit(max);
+      command.execute(ctx, out);
+      if(limit && out.size() > max) {
+        error = BXJO_SIZE_X.get(null, Performance.format(max)).getMessage();
+      } else {
+        st = State.FINISHED;
+      }
+    } catch(final IOException ex) {
+      error = Util.message(ex);
+    } finally {
+      if(st != State.FINISHED) {
+        if(canceled) st = State.CANCELED;
+        file.delete();
+      }
+      finished = System.currentTimeMillis();
+      state = st;
+      jobs.finished(this);
+    }
+  }
+
+  /**
+   * Returns the current state.
+   * @return state
+   */
+  public State state() {
+    return state;
+  }
+
+  /**
+   * Returns the error message of a failed job.
+   * @return error message or {@code null}
+   */
+  public String error() {
+    return error;
+  }
+
+  /**
+   * Returns the evaluation time.
+   * @return time in milliseconds, or {@code 0} if the job has not been started yet
+   */
+  public long time() {
+    return started == 0 ? 0 : (finished == 0 ? System.currentTimeMillis() : finished) - started;
+  }
+
+  /**
+   * Checks if the job is done (i.e., if it has finished, failed, or been canceled).
+   * @return result of check
+   */
+  public boolean done() {
+    return state != State.QUEUED && state != State.RUNNING;
+  }
+
+  /**
+   * Returns the result of a finished job.
+   * @return result
+   * @throws IOException I/O exception
+   */
+  public byte[] result() throws IOException {
+    return file.read();
+  }
+
+  /**
+   * Marks the job as running.
+   */
+  void start() {
+    state = State.RUNNING;
+  }
+
+  /**
+   * Cancels the job.
+   * @return {@code true} if the job was running or queued
+   */
+  boolean cancel() {
+    canceled = true;
+    if(state == State.QUEUED) {
+      finished = System.currentTimeMillis();
+      state = State.CANCELED;
+      return true;
+    }
+    if(state == State.RUNNING) {
+      command.stop();
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Returns the time at which the job was done.
+   * @return time, or {@code 0} if the job is not done yet
+   */
+  long finished() {
+    return done() ? finished : 0;
+  }
+
+  /**
+   * Deletes the result of the job.
+   */
+  void delete() {
+    file.delete();
+  }
+}
@@ -0,0 +1,219 @@
+package org.basex.core;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.basex.core.users.*;
+import org.basex.io.*;
+import org.basex.util.*;
+
+/**
+ * Scheduler for query jobs, which are evaluated asynchronously.
+ * Jobs are queued by their priority. The number of jobs that are evaluated in parallel is
+ * limited globally and per user. Results are written to disk and retained for a
+ * specified time.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class Jobs {
+  /** Static options. */
+  private final StaticOptions sopts;
+  /** All jobs (in the order of submission). */
+  private final LinkedHashMap<String, Job> jobs = new LinkedHashMap<>();
+  /** Queued jobs (highest priority first, earliest submission second). */
+  private final PriorityQueue<Job> queue = new PriorityQueue<>(16, new Comparator<Job>() {
+    @Override
+    public int compare(final Job job1, final Job job2) {
+      final int d = job2.priority - job1.priority;
+      return d != 0 ? d : Long.compare(number(job1), number(job2));
+    }
+  });
+  /** Number of running jobs per user. */
+  private final HashMap<String, Integer> users = new HashMap<>();
+  /** Job counter. */
+  private long counter;
+  /** Number of running jobs. */
+  private int running;
+  /** Worker threads (created on demand). */
+  private ExecutorService workers;
+
+  /**
+   * Constructor.
+   * @param sopts static options
+   */
+  Jobs(final StaticOptions sopts) {
+    this.sopts = sopts;
+  }
+
+  /**
+   * Submits a query job.
+   * @param ctx database context of the submitting client
+   * @param query query
+   * @param priority priority (jobs with higher priorities are run first;
+   *   see {@link Context#priority(int)})
+   * @return job
+   */
+  public synchronized Job submit(final Context ctx, final String query, final int priority) {
+    purge();
+    final IOFile dir = dir();
+    if(workers == null) {
+      // discard results of previous server instances
+      dir.delete();
+      workers = Executors.newCachedThreadPool(new ThreadFactory() {
+        @Override
+        public Thread newThread(final Runnable r) {
+          final Thread thread = new Thread(r, Util.className(Job.class));
+          thread.setDaemon(true);
+          return thread;
+        }
+      });
+    }
+    dir.md();
+
+    final Context jc = new Context(ctx);
+    jc.user(ctx.user());
+    final int prio = ctx.priority(priority);
+    jc.options.set(MainOptions.PRIORITY, prio);
+    final String id = "job" + ++counter;
+    final Job job = new Job(id, query, prio, jc, new IOFile(dir, id), this);
+    jobs.put(id, job);
+    queue.add(job);
+    schedule();
+    return job;
+  }
+
+  /**
+   * Returns the job with the specified id.
+   * @param id job id
+   * @param ctx database context of the requesting client
+   * @return job, or {@code null} if it does not exist or is not visible to the user
+   */
+  public synchronized Job get(final String id, final Context ctx) {
+    purge();
+    final Job job = jobs.get(id);
+    return job != null && visible(job, ctx) ? job : null;
+  }
+
+  /**
+   * Returns all jobs that are visible to the user of the specified context.
+   * Administrators can see the jobs of all users.
+   * @param ctx database context of the requesting client
+   * @return jobs
+   */
+  public synchronized ArrayList<Job> list(final Context ctx) {
+    purge();
+    final ArrayList<Job> list = new ArrayList<>();
+    for(final Job job : jobs.values()) {
+      if(visible(job, ctx)) list.add(job);
+    }
+    return list;
+  }
+
+  /**
+   * Cancels a job. A job that is done will be removed, along with its result.
+   * @param job job
+   */
+  public synchronized void cancel(final Job job) {
+    if(job.cancel()) {
+      queue.remove(job);
+    } else {
+      jobs.remove(job.id);
+      job.delete();
+    }
+  }
+
+  /**
+   * Stops all jobs and deletes their results.
+   */
+  synchronized void close() {
+    queue.clear();
+    for(final Job job : jobs.values()) job.cancel();
+    jobs.clear();
+    if(workers != null) {
+      workers.shutdownNow();
+      workers = null;
+      dir().delete();
+    }
+  }
+
+  /**
+   * Called when a job is done.
+   * @param job job
+   */
+  synchronized void finished(final Job job) {
+    running--;
+    final int c = users.get(job.user) - 1;
+    if(c == 0) users.remove(job.user);
+    else users.put(job.user, c);
+    schedule();
+  }
+
+  /**
+   * Starts queued jobs, as long as the maximum number of running jobs is not exceeded.
+   * Jobs of users who have reached their limit are skipped.
+   */
+  private void schedule() {
+    final int max = Math.max(1, sopts.get(StaticOptions.JOBTHREADS));
+    final int perUser = Math.max(1, sopts.get(StaticOptions.JOBSPERUSER));
+    final ArrayList<Job> deferred = new ArrayList<>();
+    while(running < max && !queue.isEmpty()) {
+      final Job job = queue.poll();
+      final Integer c = users.get(job.user);
+      if(c != null && c >= perUser) {
+        deferred.add(job);
+      } else {
+        users.put(job.user, c == null ? 1 : c + 1);
+        running++;
+        job.start();
+        workers.execute(job);
+      }
+    }
+    queue.addAll(deferred);
+  }
+
+  /**
+   * Removes jobs that have been done before the retention time.
+   */
+  private void purge() {
+    final long min = System.currentTimeMillis() -
+        sopts.get(StaticOptions.JOBRETENTION) * 1000L;
+    final Iterator<Job> iter = jobs.values().iterator();
+    while(iter.hasNext()) {
+      final Job job = iter.next();
+      final long finished = job.finished();
+      if(finished != 0 && finished < min) {
+        iter.remove();
+        job.delete();
+      }
+    }
+  }
+
+  /**
+   * Checks if a job is visible to the user of the specified context.
+   * @param job job
+   * @param ctx database context
+   * @return result of check
+   */
+  private static boolean visible(final Job job, final Context ctx) {
+    final User user = ctx.user();
+    return user.has(Perm.ADMIN) || user.name().equals(job.user);
+  }
+
+  /**
+   * Returns the sequential number of a job.
+   * @param job job
+   * @return number
+   */
+  private static long number(final Job job) {
+    return Long.parseLong(job.id.substring(3));
+  }
+
+  /**
+   * Returns the directory of the job results.
+   * @return directory
+   */
+  private IOFile dir() {
+    return sopts.dbpath(".jobs");
+  }
+}
@@ -133,6 +133,10 @@ public final class MainOptions extends Options {
   public static final BooleanOption RUNQUERY = new BooleanOption("RUNQUERY", true);
   /** Number of query executions. */
   public static final NumberOption RUNS = new NumberOption("RUNS", 1);
+  /** Maximum number of threads used by a query to evaluate a path over several databases. */
+  public static final NumberOption PATHTHREADS = new NumberOption("PATHTHREADS", 4);
+  /** Priority of transactions (higher ones are started first; only admins can raise it). */
+  public static final NumberOption PRIORITY = new NumberOption("PRIORITY", 0);
 
   // Serialize
 
@@ -0,0 +1,71 @@
+package org.basex.core;
+
+import java.util.*;
+import java.util.Map.Entry;
+import java.util.concurrent.atomic.*;
+
+import org.basex.core.users.*;
+import org.basex.util.*;
+
+/**
+ * Memory limits of queries. The memory that may be consumed by a single query is limited by
+ * {@link StaticOptions#QUERYMEMORY}, and the memory that may be consumed by all running queries
+ * of a user is limited by {@link StaticOptions#USERMEMORY}. The consumed memory is estimated
+ * by the {@link Profile} of a query. Administrators will not be affected by the limits.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class MemoryLimits {
+  /** Memory consumed by the running queries of each user. */
+  private final HashMap<String, AtomicLong> users = new HashMap<>();
+  /** Static options. */
+  private final StaticOptions sopts;
+
+  /**
+   * Constructor.
+   * @param sopts static options
+   */
+  MemoryLimits(final StaticOptions sopts) {
+    this.sopts = sopts;
+  }
+
+  /**
+   * Assigns the memory limits to the profile of a query.
+   * @param profile profile of the query
+   * @param user user who evaluates the query
+   */
+  public void assign(final Profile profile, final User user) {
+    if(user == null || user.has(Perm.ADMIN)) return;
+
+    final long query = (long) sopts.get(StaticOptions.QUERYMEMORY) << 20;
+    final long total = (long) sopts.get(StaticOptions.USERMEMORY) << 20;
+    AtomicLong used = null;
+    if(total > 0) {
+      final String name = user.name();
+      synchronized(users) {
+        used = users.get(name);
+        if(used == null) {
+          used = new AtomicLong();
+          users.put(name, used);
+        }
+      }
+    }
+    profile.limit(query, user.name(), used, total);
+  }
+
+  /**
+   * Returns the memory that is currently consumed by the running queries of each user.
+   * Users with limited memory will be returned only.
+   * @return memory per user (bytes)
+   */
+  public TreeMap<String, Long> used() {
+    final TreeMap<String, Long> map = new TreeMap<>();
+    synchronized(users) {
+      for(final Entry<String, AtomicLong> entry : users.entrySet()) {
+        map.put(entry.getKey(), entry.getValue().get());
+      }
+    }
+    return map;
+  }
+}
@@ -0,0 +1,387 @@
+package org.basex.core;
+
+import java.lang.management.*;
+import java.util.*;
+import java.util.Map.Entry;
+import java.util.concurrent.atomic.*;
+
+import javax.management.*;
+
+import org.basex.core.locks.*;
+import org.basex.data.*;
+import org.basex.util.*;
+
+/**
+ * Server-wide metrics: number and latencies of processed requests (per request type),
+ * transferred bytes, opened databases, buffer hits, memory consumption and lock statistics.
+ * The metrics can be exported in the Prometheus text format (see {@link #prometheus()}),
+ * and they are exported via JMX if the instance has been registered (see {@link #register()}).
+ *
+ * Request types are the names of database commands and client/server protocol requests,
+ * or the HTTP services and RESTXQ paths that have been requested.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class Metrics implements MetricsMXBean {
+  /** Upper limits of the latency buckets (milliseconds). The last bucket is unbounded. */
+  public static final long[] LIMITS = { 1, 5, 10, 50, 100, 500, 1000, 5000, 10000 };
+  /** Name of the management bean. */
+  private static final String NAME = "org.basex:type=Metrics";
+  /** Counter for management beans with the same name. */
+  private static final AtomicInteger IDS = new AtomicInteger();
+
+  /** Request statistics, ordered by request type. */
+  private final TreeMap<String, Requests> requests = new TreeMap<>();
+  /** Number of received bytes. */
+  private final AtomicLong received = new AtomicLong();
+  /** Number of sent bytes. */
+  private final AtomicLong sent = new AtomicLong();
+  /** Creation time. */
+  private final long created = System.currentTimeMillis();
+  /** Database context. */
+  private final Context context;
+  /** Name of the registered management bean ({@code null}: not registered). */
+  private ObjectName name;
+
+  /**
+   * Constructor.
+   * @param context database context
+   */
+  Metrics(final Context context) {
+    this.context = context;
+  }
+
+  /**
+   * Records a processed request.
+   * @param type request type
+   * @param time processing time (nanoseconds)
+   * @param ok success flag
+   */
+  public void request(final String type, final long time, final boolean ok) {
+    Requests reqs;
+    synchronized(requests) {
+      reqs = requests.get(type);
+      if(reqs == null) {
+        reqs = new Requests();
+        requests.put(type, reqs);
+      }
+    }
+    reqs.add(time, ok);
+  }
+
+  /**
+   * Records received bytes.
+   * @param bytes number of bytes
+   */
+  public void received(final long bytes) {
+    if(bytes > 0) received.addAndGet(bytes);
+  }
+
+  /**
+   * Records sent bytes.
+   * @param bytes number of bytes
+   */
+  public void sent(final long bytes) {
+    if(bytes > 0) sent.addAndGet(bytes);
+  }
+
+  /**
+   * Registers the metrics as management bean. If a bean with the same name has already
+   * been registered by another instance, a unique id will be appended to the name.
+   */
+  public synchronized void register() {
+    if(name != null) return;
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      ObjectName on = new ObjectName(NAME);
+      if(server.isRegistered(on)) on = new ObjectName(NAME + ",id=" + IDS.incrementAndGet());
+      server.registerMBean(this, on);
+      name = on;
+    } catch(final JMException ex) {
+      Util.debug(ex);
+    }
+  }
+
+  /**
+   * Unregisters the management bean.
+   */
+  public synchronized void unregister() {
+    if(name == null) return;
+    try {
+      ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+    } catch(final JMException ex) {
+      Util.debug(ex);
+    }
+    name = null;
+  }
+
+  @Override
+  public Map<String, Long> getRequests() {
+    final TreeMap<String, Long> map = new TreeMap<>();
+    for(final Entry<String, Requests> entry : requests().entrySet()) {
+      map.put(entry.getKey(), entry.getValue().count);
+    }
+    return map;
+  }
+
+  @Override
+  public Map<String, Long> getErrors() {
+    final TreeMap<String, Long> map = new TreeMap<>();
+    for(final Entry<String, Requests> entry : requests().entrySet()) {
+      map.put(entry.getKey(), entry.getValue().errors);
+    }
+    return map;
+  }
+
+  @Override
+  public Map<String, Double> getAverageTimes() {
+    final TreeMap<String, Double> map = new TreeMap<>();
+    for(final Entry<String, Requests> entry : requests().entrySet()) {
+      final Requests reqs = entry.getValue();
+      map.put(entry.getKey(), reqs.count == 0 ? 0 : reqs.time / 1000000d / reqs.count);
+    }
+    return map;
+  }
+
+  @Override
+  public long getBytesReceived() {
+    return received.get();
+  }
+
+  @Override
+  public long getBytesSent() {
+    return sent.get();
+  }
+
+  @Override
+  public int getOpenDatabases() {
+    return context.datas.list().size();
+  }
+
+  @Override
+  public int getSessions() {
+    return context.sessions.size();
+  }
+
+  @Override
+  public long getBufferHits() {
+    return buffers()[0];
+  }
+
+  @Override
+  public long getBufferMisses() {
+    return buffers()[1];
+  }
+
+  @Override
+  public long getUsedMemory() {
+    final Runtime rt = Runtime.getRuntime();
+    return rt.totalMemory() - rt.freeMemory();
+  }
+
+  @Override
+  public long getMaxMemory() {
+    return Runtime.getRuntime().maxMemory();
+  }
+
+  @Override
+  public Map<String, Long> getQueryMemory() {
+    return context.limits.used();
+  }
+
+  @Override
+  public long getUptime() {
+    return System.currentTimeMillis() - created;
+  }
+
+  /**
+   * Returns all metrics in the Prometheus text format.
+   * @return metrics
+   */
+  public String prometheus() {
+    final StringBuilder sb = new StringBuilder();
+
+    final TreeMap<String, Requests> reqs = requests();
+    header(sb, "request_seconds", "histogram", "Processing time of requests.");
+    for(final Entry<String, Requests> entry : reqs.entrySet()) {
+      final String type = label("type", entry.getKey());
+      final Requests r = entry.getValue();
+      long count = 0;
+      final int bl = r.buckets.length;
+      for(int b = 0; b < bl; b++) {
+        count += r.buckets[b];
+        final String le = b < LIMITS.length ? Double.toString(LIMITS[b] / 1000d) : "+Inf";
+        metric(sb, "request_seconds_bucket", type + ',' + label("le", le), count);
+      }
+      metric(sb, "request_seconds_sum", type, r.time / 1e9);
+      metric(sb, "request_seconds_count", type, r.count);
+    }
+    header(sb, "request_errors_total", "counter", "Failed requests.");
+    for(final Entry<String, Requests> entry : reqs.entrySet()) {
+      metric(sb, "request_errors_total", label("type", entry.getKey()), entry.getValue().errors);
+    }
+
+    header(sb, "received_bytes_total", "counter", "Bytes received from clients.");
+    metric(sb, "received_bytes_total", null, getBytesReceived());
+    header(sb, "sent_bytes_total", "counter", "Bytes sent to clients.");
+    metric(sb, "sent_bytes_total", null, getBytesSent());
+    header(sb, "open_databases", "gauge", "Opened databases.");
+    metric(sb, "open_databases", null, getOpenDatabases());
+    header(sb, "sessions", "gauge", "Client sessions.");
+    metric(sb, "sessions", null, getSessions());
+
+    final long[] buffers = buffers();
+    header(sb, "buffer_hits", "gauge", "Buffer hits of opened databases.");
+    metric(sb, "buffer_hits", null, buffers[0]);
+    header(sb, "buffer_misses", "gauge", "Buffer misses of opened databases.");
+    metric(sb, "buffer_misses", null, buffers[1]);
+
+    header(sb, "memory_used_bytes", "gauge", "Used memory.");
+    metric(sb, "memory_used_bytes", null, getUsedMemory());
+    header(sb, "memory_max_bytes", "gauge", "Maximum memory.");
+    metric(sb, "memory_max_bytes", null, getMaxMemory());
+    header(sb, "query_memory_bytes", "gauge", "Estimated memory consumed by queries of a user.");
+    for(final Entry<String, Long> entry : getQueryMemory().entrySet()) {
+      metric(sb, "query_memory_bytes", label("user", entry.getKey()), entry.getValue());
+    }
+    header(sb, "uptime_seconds", "gauge", "Time since startup.");
+    metric(sb, "uptime_seconds", null, getUptime() / 1000d);
+
+    final ArrayList<LockStats> locks = context.lockStats();
+    header(sb, "lock_acquisitions_total", "counter", "Lock acquisitions.");
+    for(final LockStats ls : locks) {
+      metric(sb, "lock_acquisitions_total", label("object", ls.object), ls.acquisitions());
+    }
+    header(sb, "lock_waiting", "gauge", "Transactions waiting for a lock.");
+    for(final LockStats ls : locks) {
+      metric(sb, "lock_waiting", label("object", ls.object), ls.waiting());
+    }
+    header(sb, "lock_holding", "gauge", "Transactions holding a lock.");
+    for(final LockStats ls : locks) {
+      metric(sb, "lock_holding", label("object", ls.object), ls.holding());
+    }
+    header(sb, "lock_wait_seconds_total", "counter", "Time spent waiting for a lock.");
+    for(final LockStats ls : locks) {
+      metric(sb, "lock_wait_seconds_total", label("object", ls.object), ls.waitTime() / 1e9);
+    }
+    header(sb, "lock_hold_seconds_total", "counter", "Time a lock was held.");
+    for(final LockStats ls : locks) {
+      metric(sb, "lock_hold_seconds_total", label("object", ls.object), ls.holdTime() / 1e9);
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Returns a copy of the request statistics.
+   * @return request statistics
+   */
+  private TreeMap<String, Requests> requests() {
+    final TreeMap<String, Requests> map = new TreeMap<>();
+    synchronized(requests) {
+      for(final Entry<String, Requests> entry : requests.entrySet()) {
+        map.put(entry.getKey(), entry.getValue().copy());
+      }
+    }
+    return map;
+  }
+
+  /**
+   * Returns the number of buffer hits and misses of all opened databases.
+   * @return hits and misses
+   */
+  private long[] buffers() {
+    final long[] counts = new long[2];
+    for(final Data data : context.datas.list()) {
+      if(data instanceof DiskData) ((DiskData) data).buffers(counts);
+    }
+    return counts;
+  }
+
+  /**
+   * Adds the header of a metric.
+   * @param sb string builder
+   * @param metric name of the metric
+   * @param type type
+   * @param help help text
+   */
+  private static void header(final StringBuilder sb, final String metric, final String type,
+      final String help) {
+    sb.append("# HELP basex_").append(metric).append(' ').append(help).append('\n');
+    sb.append("# TYPE basex_").append(metric).append(' ').append(type).append('\n');
+  }
+
+  /**
+   * Adds a sample.
+   * @param sb string builder
+   * @param metric name of the metric
+   * @param labels labels (can be {@code null})
+   * @param value value
+   */
+  private static void metric(final StringBuilder sb, final String metric, final String labels,
+      final Object value) {
+    sb.append("basex_").append(metric);
+    if(labels != null) sb.append('{').append(labels).append('}');
+    sb.append(' ').append(value).append('\n');
+  }
+
+  /**
+   * Returns a label with an escaped value.
+   * @param name name of the label
+   * @param value value
+   * @return label
+   */
+  private static String label(final String name, final String value) {
+    final StringBuilder sb = new StringBuilder(name).append("=\"");
+    final int vl = value.length();
+    for(int v = 0; v < vl; v++) {
+      final char ch = value.charAt(v);
+      if(ch == '\\' || ch == '"') sb.append('\\').append(ch);
+      else if(ch == '\n') sb.append("\\n");
+      else sb.append(ch);
+    }
+    return sb.append('"').toString();
+  }
+
+  /**
+   * Statistics on the requests of a single type.
+   */
+  private static final class Requests {
+    /** Number of requests. */
+    private long count;
+    /** Number of failed requests. */
+    private long errors;
+    /** Total processing time (nanoseconds). */
+    private long time;
+    /** Histogram of processing times (see {@link #LIMITS}). */
+    private long[] buckets = new long[LIMITS.length + 1];
+
+    /**
+     * Records a request.
+     * @param tm processing time (nanoseconds)
+     * @param ok success flag
+     */
+    private synchronized void add(final long tm, final boolean ok) {
+      count++;
+      if(!ok) errors++;
+      time += tm;
+      final long ms = tm / 1000000;
+      int b = 0;
+      while(b < LIMITS.length && ms >= LIMITS[b]) b++;
+      buckets[b]++;
+    }
+
+    /**
+     * Returns a copy of the statistics.
+     * @return copy
+     */
+    private synchronized Requests copy() {
+      final Requests reqs = new Requests();
+      reqs.count = count;
+      reqs.errors = errors;
+      reqs.time = time;
+      reqs.buckets = buckets.clone();
+      return reqs;
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package org.basex.core;
+
+import java.util.*;
+
+/**
+ * Management interface for the server-wide metrics, which are exported via JMX.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public interface MetricsMXBean {
+  /**
+   * Returns the number of processed requests per request type.
+   * @return requests
+   */
+  Map<String, Long> getRequests();
+
+  /**
+   * Returns the number of failed requests per request type.
+   * @return errors
+   */
+  Map<String, Long> getErrors();
+
+  /**
+   * Returns the average processing time of requests per request type.
+   * @return times (milliseconds)
+   */
+  Map<String, Double> getAverageTimes();
+
+  /**
+   * Returns the number of bytes received from clients.
+   * @return number of bytes
+   */
+  long getBytesReceived();
+
+  /**
+   * Returns the number of bytes sent to clients.
+   * @return number of bytes
+   */
+  long getBytesSent();
+
+  /**
+   * Returns the number of opened databases.
+   * @return number of databases
+   */
+  int getOpenDatabases();
+
+  /**
+   * Returns the number of client sessions.
+   * @return number of sessions
+   */
+  int getSessions();
+
+  /**
+   * Returns the number of buffer hits of all opened databases.
+   * @return number of hits
+   */
+  long getBufferHits();
+
+  /**
+   * Returns the number of buffer misses of all opened databases.
+   * @return number of misses
+   */
+  long getBufferMisses();
+
+  /**
+   * Returns the amount of used memory.
+   * @return number of bytes
+   */
+  long getUsedMemory();
+
+  /**
+   * Returns the maximum amount of memory that can be used.
+   * @return number of bytes
+   */
+  long getMaxMemory();
+
+  /**
+   * Returns the estimated memory that is consumed by the running queries of each user
+   * (see {@link StaticOptions#USERMEMORY}).
+   * @return number of bytes per user
+   */
+  Map<String, Long> getQueryMemory();
+
+  /**
+   * Returns the time since the metrics have been created.
+   * @return time (milliseconds)
+   */
+  long getUptime();
+}
@@ -2,9 +2,11 @@ package org.basex.core;
 
 import static org.basex.core.Text.*;
 
-import java.util.*;
+import java.util.concurrent.*;
 
 import org.basex.core.locks.*;
+import org.basex.util.*;
+import org.basex.util.list.*;
 
 /**
  * This class is implemented by all kinds of processes.
@@ -15,6 +17,9 @@ import org.basex.core.locks.*;
  * @author Christian Gruen
  */
 public abstract class Proc {
+  /** Timer thread, which is shared by all timeouts of processes (created on demand). */
+  private static ScheduledThreadPoolExecutor timer;
+
   /** Listener, reacting on process information. */
   public InfoListener listen;
   /** This flag indicates that a command may perform updates. */
@@ -22,10 +27,14 @@ public abstract class Proc {
 
   /** Indicates if a process is currently registered. */
   boolean registered;
-  /** Stopped flag. */
-  private boolean stopped;
-  /** Timer. */
-  private Timer timer;
+  /** Databases locked for writing ({@code null}: all databases). Assigned by the context. */
+  StringList written;
+  /** Priority (see {@link MainOptions#PRIORITY}). Assigned by the context. */
+  int priority;
+  /** Stopped flag (checked while the process is evaluated, assigned by other threads). */
+  private volatile boolean stopped;
+  /** Scheduled timeout. */
+  private volatile ScheduledFuture<?> timeout;
   /** Sub process. */
   private Proc sub;
 
@@ -104,27 +113,48 @@ public abstract class Proc {
   }
 
   /**
-   * Starts a timeout thread.
+   * Starts a timeout.
    * @param ms milliseconds to wait; deactivated if set to 0
    */
   public final void startTimeout(final long ms) {
     if(ms == 0) return;
 
-    timer = new Timer(true);
-    timer.schedule(new TimerTask() {
+    timeout = timer().schedule(new Runnable() {
       @Override
       public void run() { stop(); }
-    }, ms);
+    }, ms, TimeUnit.MILLISECONDS);
   }
 
   /**
-   * Stops the timeout thread.
+   * Stops the timeout.
    */
   public final void stopTimeout() {
-    if(timer != null) {
-      timer.cancel();
-      timer = null;
+    final ScheduledFuture<?> to = timeout;
+    if(to != null) {
+      to.cancel(false);
+      timeout = null;
+    }
+  }
+
+  /**
+   * Returns the shared timer thread. Scheduled tasks must be short, as they will delay
+   * other timeouts.
+   * @return timer
+   */
+  protected static synchronized ScheduledThreadPoolExecutor timer() {
+    if(timer == null) {
+      timer = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+        @Override
+        public Thread newThread(final Runnable r) {
+          final Thread thread = new Thread(r, Util.className(Proc.class) + "Timeout");
+          thread.setDaemon(true);
+          return thread;
+        }
+      });
+      // discard canceled timeouts immediately (most processes finish in time)
+      timer.setRemoveOnCancelPolicy(true);
     }
+    return timer;
   }
 
   /**
@@ -136,6 +166,25 @@ public abstract class Proc {
     lr.writeAll = true;
   }
 
+  /**
+   * Returns the priority of the process. Processes with higher priorities will be
+   * started first if the maximum number of parallel transactions has been reached.
+   * @return priority
+   */
+  public final int priority() {
+    return priority;
+  }
+
+  /**
+   * Indicates if the process collects all updates and applies them at the end of its
+   * evaluation. If yes, exclusive locks on the updated databases will only be acquired
+   * before the updates are applied (see {@link Context#upgrade()}).
+   * @return result of check
+   */
+  public boolean pendingUpdates() {
+    return false;
+  }
+
   /**
    * Checks if the process is registered.
    * @return result of check
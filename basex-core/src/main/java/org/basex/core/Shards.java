@@ -0,0 +1,108 @@
+package org.basex.core;
+
+import java.util.*;
+
+import org.basex.util.*;
+import org.basex.util.list.*;
+
+/**
+ * This class provides access to sharded collections. A sharded collection is a logical
+ * database whose documents are distributed over several physical databases (shards).
+ *
+ * <ul>
+ *   <li> Shards are named after the collection, followed by the {@link #SEPARATOR} and a
+ *        zero-based number (e.g., {@code orders~0}, {@code orders~1}). They can be
+ *        created and dropped like any other database.</li>
+ *   <li> A collection is sharded if no database with its name exists, but at least
+ *        one shard.</li>
+ *   <li> Documents are assigned to shards by the hash value of their normalized database
+ *        path, and they are only looked up in this shard. The documents of directories and
+ *        archives are assigned one by one. Documents must thus be added to the collection,
+ *        not to single shards, and no shards must be added or dropped after documents have
+ *        been added.</li>
+ *   <li> The shards of a collection are determined once per query.</li>
+ *   <li> All shards of a collection share a single lock.</li>
+ * </ul>
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class Shards {
+  /** Separator between collection name and shard number. */
+  public static final char SEPARATOR = '~';
+
+  /** Private constructor. */
+  private Shards() { }
+
+  /**
+   * Returns the name of a shard.
+   * @param name name of the collection
+   * @param shard shard number
+   * @return name of the shard
+   */
+  public static String name(final String name, final int shard) {
+    return name + SEPARATOR + shard;
+  }
+
+  /**
+   * Returns the name of the collection a shard belongs to, or the specified name
+   * if it does not reference a shard.
+   * @param name name of a database
+   * @return name of the collection
+   */
+  public static String collection(final String name) {
+    final int i = name.lastIndexOf(SEPARATOR);
+    return i > 0 && number(name, i + 1) != -1 ? name.substring(0, i) : name;
+  }
+
+  /**
+   * Returns the names of all shards of a collection, sorted by their number.
+   * @param name name of the collection
+   * @param context database context
+   * @return names of shards (empty if the collection is not sharded)
+   */
+  public static StringList list(final String name, final Context context) {
+    final TreeMap<Integer, String> shards = new TreeMap<>();
+    if(context.soptions.dbexists(name)) return new StringList(0);
+
+    final int nl = name.length();
+    for(final String db : context.databases.listDBs()) {
+      if(db.length() > nl + 1 && db.charAt(nl) == SEPARATOR &&
+          db.regionMatches(!Prop.CASE, 0, name, 0, nl)) {
+        final int n = number(db, nl + 1);
+        if(n != -1) shards.put(n, db);
+      }
+    }
+    final StringList list = new StringList(shards.size());
+    for(final String shard : shards.values()) list.add(shard);
+    return list;
+  }
+
+  /**
+   * Returns the index of the shard to which the specified database path is assigned.
+   * @param path normalized database path
+   * @param shards number of shards
+   * @return shard index
+   */
+  public static int route(final String path, final int shards) {
+    return (path.hashCode() & Integer.MAX_VALUE) % shards;
+  }
+
+  /**
+   * Parses the shard number at the specified position of a database name.
+   * @param name name
+   * @param start start position
+   * @return number, or {@code -1} if the remaining characters are no valid number
+   */
+  private static int number(final String name, final int start) {
+    final int nl = name.length();
+    if(start == nl || nl - start > 9) return -1;
+    int n = 0;
+    for(int i = start; i < nl; i++) {
+      final char ch = name.charAt(i);
+      if(ch < '0' || ch > '9') return -1;
+      n = n * 10 + ch - '0';
+    }
+    return n;
+  }
+}
@@ -48,6 +48,10 @@ public final class StaticOptions extends Options {
   public static final NumberOption SERVERPORT = new NumberOption("SERVERPORT", 1984);
   /** Server: port, used for sending events. */
   public static final NumberOption EVENTPORT = new NumberOption("EVENTPORT", 1985);
+  /** Server: maximum number of events that are queued for a single client. */
+  public static final NumberOption EVENTQUEUE = new NumberOption("EVENTQUEUE", 10000);
+  /** Server: drop new events if the queue of a client is full (instead of unsubscribing it). */
+  public static final BooleanOption EVENTDROP = new BooleanOption("EVENTDROP", false);
   /** Default user. */
   public static final StringOption USER = new StringOption("USER", "");
   /** Default password. */
@@ -65,14 +69,44 @@ public final class StaticOptions extends Options {
 
   /** Timeout (seconds) for processing client requests; deactivated if set to 0. */
   public static final NumberOption TIMEOUT = new NumberOption("TIMEOUT", 30);
+  /** Timeout (seconds) for reading the rest of a client request; deactivated if set to 0. */
+  public static final NumberOption READTIMEOUT = new NumberOption("READTIMEOUT", 30);
+  /** Memory (megabytes) that may be consumed by a single query; deactivated if set to 0. */
+  public static final NumberOption QUERYMEMORY = new NumberOption("QUERYMEMORY", 0);
+  /** Memory (megabytes) that may be consumed by the queries of a user; deactivated if set to 0. */
+  public static final NumberOption USERMEMORY = new NumberOption("USERMEMORY", 0);
+  /** Time (seconds) after which idle query cursors will be closed; deactivated if set to 0. */
+  public static final NumberOption CURSORTIMEOUT = new NumberOption("CURSORTIMEOUT", 60);
   /** Keep alive time of clients; deactivated if set to 0. */
   public static final NumberOption KEEPALIVE = new NumberOption("KEEPALIVE", 600);
   /** Defines the number of parallel readers. */
   public static final NumberOption PARALLEL = new NumberOption("PARALLEL", 8);
+  /** Defines the number of parallel writers. */
+  public static final NumberOption PARALLELWRITERS = new NumberOption("PARALLELWRITERS", 4);
+  /** Time (ms) after which the priority of waiting transactions is raised; deactivated if 0. */
+  public static final NumberOption PRIORITYAGING = new NumberOption("PRIORITYAGING", 1000);
+  /** Maximum number of threads for processing client requests (see {@link #READTIMEOUT}). */
+  public static final NumberOption SERVERTHREADS = new NumberOption("SERVERTHREADS", 64);
+  /** Maximum number of query jobs that are evaluated in parallel. */
+  public static final NumberOption JOBTHREADS = new NumberOption("JOBTHREADS", 4);
+  /** Maximum number of query jobs of a single user that are evaluated in parallel. */
+  public static final NumberOption JOBSPERUSER = new NumberOption("JOBSPERUSER", 2);
+  /** Time (seconds) after which the results of query jobs will be discarded. */
+  public static final NumberOption JOBRETENTION = new NumberOption("JOBRETENTION", 3600);
+  /** Timeout (seconds) for evaluating query jobs; deactivated if set to 0. */
+  public static final NumberOption JOBTIMEOUT = new NumberOption("JOBTIMEOUT", 3600);
+  /** Maximum size (megabytes) of the result of a query job; deactivated if set to 0. */
+  public static final NumberOption JOBRESULTSIZE = new NumberOption("JOBRESULTSIZE", 100);
   /** Logging flag. */
   public static final BooleanOption LOG = new BooleanOption("LOG", true);
   /** Log message cut-off. */
   public static final NumberOption LOGMSGMAXLEN = new NumberOption("LOGMSGMAXLEN", 1000);
+  /** Time (milliseconds) after which queued log entries are written to disk. */
+  public static final NumberOption LOGFLUSH = new NumberOption("LOGFLUSH", 500);
+  /** Maximum number of queued log entries. */
+  public static final NumberOption LOGQUEUE = new NumberOption("LOGQUEUE", 100000);
+  /** Drop new log entries if the queue is full (instead of writing them synchronously). */
+  public static final BooleanOption LOGDROP = new BooleanOption("LOGDROP", false);
 
   /** Comment: written to options file. */
   public static final Comment C_HTTP = new Comment("HTTP Services");
@@ -84,6 +118,8 @@ public final class StaticOptions extends Options {
   public static final StringOption RESTPATH = new StringOption("RESTPATH", "");
   /** RESTXQ path (relative to web path). */
   public static final StringOption RESTXQPATH = new StringOption("RESTXQPATH", "");
+  /** Timeout (seconds) after which the RESTXQ directory will be parsed for changes. */
+  public static final NumberOption PARSERESTXQ = new NumberOption("PARSERESTXQ", 3);
   /** Local (embedded) mode. */
   public static final BooleanOption HTTPLOCAL = new BooleanOption("HTTPLOCAL", false);
   /** Port for stopping the web server. */
@@ -91,6 +127,13 @@ public final class StaticOptions extends Options {
   /** Default authorization method. */
   public static final EnumOption<AuthMethod> AUTHMETHOD =
       new EnumOption<>("AUTHMETHOD", AuthMethod.BASIC);
+  /** Minimum size (bytes) of compressed HTTP responses (compression is disabled if negative). */
+  public static final NumberOption HTTPCOMPRESS = new NumberOption("HTTPCOMPRESS", 4096);
+  /** Media types of compressed HTTP responses (XML types will always be compressed). */
+  public static final StringOption HTTPCOMPRESSTYPES = new StringOption("HTTPCOMPRESSTYPES",
+    "text/*,application/json,application/javascript");
+  /** Maximum size (bytes) of cached responses to HTTP GET requests (caching is disabled if 0). */
+  public static final NumberOption HTTPCACHE = new NumberOption("HTTPCACHE", 0);
 
   /** Authorization method. */
   public enum AuthMethod {
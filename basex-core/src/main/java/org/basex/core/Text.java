@@ -7,6 +7,7 @@ import org.basex.core.parse.Commands.CmdCreate;
 import org.basex.core.parse.Commands.CmdDrop;
 import org.basex.core.parse.Commands.CmdIndex;
 import org.basex.core.parse.Commands.CmdInfo;
+import org.basex.core.parse.Commands.CmdJobs;
 import org.basex.core.parse.Commands.CmdPerm;
 import org.basex.core.parse.Commands.CmdRepo;
 import org.basex.core.parse.Commands.CmdShow;
@@ -413,11 +414,12 @@ public interface Text {
   };
   /** Command help. */
   String[] HELPSHOW = {
-    "[" + CmdShow.BACKUPS + '|' + CmdShow.EVENTS +
+    "[" + CmdShow.BACKUPS + '|' + CmdShow.EVENTS + '|' + CmdShow.LOCKS +
     '|' + CmdShow.SESSIONS + '|' + CmdShow.USERS + ']',
     lang("c_show1"),
     lang("c_show21") + NL +
     LI + CmdShow.EVENTS + ": " + lang("c_show26") + NL +
+    LI + CmdShow.LOCKS + ": " + lang("c_show27") + NL +
     LI + CmdShow.SESSIONS + ": " + lang("c_show23") + NL +
     LI + CmdShow.USERS + " (" + ON + " [database]): " + lang("c_show24") + NL +
     LI + CmdShow.BACKUPS + ": " + lang("c_show25")
@@ -447,6 +449,18 @@ public interface Text {
     "", lang("c_inspect1"), lang("c_inspect2")
   };
   /** Command help. */
+  String[] HELPJOBS = {
+    "[" + CmdJobs.LIST + '|' + CmdJobs.RESULT + '|' + CmdJobs.CANCEL + ']',
+    lang("c_jobs1"),
+    lang("c_jobs2") + NL +
+    LI + CmdJobs.LIST + ':' + NL +
+    "  " + lang("c_jobs3") + NL +
+    LI + CmdJobs.RESULT + " [id]:" + NL +
+    "  " + lang("c_jobs4", "id") + NL +
+    LI + CmdJobs.CANCEL + " [id]:" + NL +
+    "  " + lang("c_jobs5", "id")
+  };
+  /** Command help. */
   String[] HELPSET = {
     "[option] ([value])", lang("c_set1"), lang("c_set2")
   };
@@ -678,6 +692,8 @@ public interface Text {
   String UPDATED_CC = lang("updated") + COLS;
   /** "Printed: ". */
   String PRINTED_CC = lang("printed") + COLS;
+  /** "Resources: ". */
+  String RESOURCES_CC = lang("resources") + COLS;
   /** "Results: %". */
   String RESULTS_X = lang("results_%");
   /** "Query executed in %". */
@@ -726,6 +742,10 @@ public interface Text {
   String SESSIONS_KILLED_X = lang("sessions_killed_%");
   /** User kills itself. */
   String KILL_SELF_X = lang("kill_self_%");
+  /** Job canceled. */
+  String JOB_CANCELED_X = lang("job_canceled_%");
+  /** Job not found. */
+  String JOB_UNKNOWN_X = lang("job_unknown_%");
   /** Event dropped. */
   String EVENT_DROPPED_X = lang("event_dropped_%");
   /** Event added. */
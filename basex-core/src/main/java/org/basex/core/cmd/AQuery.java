@@ -60,6 +60,8 @@ public abstract class AQuery extends Command {
     if(cause != null) {
       error = Util.message(cause);
     } else {
+      Profile profile = null;
+      boolean entered = false;
       try {
         long hits = 0;
         final boolean run = options.get(MainOptions.RUNQUERY);
@@ -69,6 +71,12 @@ public abstract class AQuery extends Command {
           // reuse existing processor instance
           if(r != 0) qp = null;
           qp(query, context);
+          if(profile == null) {
+            // record consumed resources of all runs
+            profile = info.profile;
+            context.limits.assign(profile, context.user());
+            entered = profile.enter();
+          }
           parse(p);
           if(r == 0) plan(false);
 
@@ -98,6 +106,11 @@ public abstract class AQuery extends Command {
           qp.close();
           info.serializing += p.time();
         }
+        // show consumed resources
+        if(options.get(MainOptions.XMLPLAN)) {
+          info(NL + RESOURCES + COL);
+          info(info.profile().serialize().toString());
+        }
         // dump some query info
         out.flush();
         // remove string list if global locking is used and if query is updating
@@ -110,6 +123,9 @@ public abstract class AQuery extends Command {
       } catch(final QueryException | IOException ex) {
         cause = ex;
         error = Util.message(ex);
+      } catch(final QueryLimitException ex) {
+        cause = ex.getCause();
+        error = Util.message(cause);
       } catch(final ProcException ex) {
         error = INTERRUPTED;
       } catch(final StackOverflowError ex) {
@@ -122,6 +138,7 @@ public abstract class AQuery extends Command {
       } finally {
         // close processor after exceptions
         if(qp != null) qp.close();
+        if(profile != null) profile.exit(entered);
       }
     }
     return extError(error);
@@ -295,6 +312,11 @@ public abstract class AQuery extends Command {
     return args[0] != null && updating(ctx, args[0]);
   }
 
+  @Override
+  public boolean pendingUpdates() {
+    return true;
+  }
+
   @Override
   public boolean updated(final Context ctx) {
     return qp != null && qp.updates() != 0;
@@ -0,0 +1,45 @@
+package org.basex.core.cmd;
+
+import static org.basex.core.Text.*;
+
+import org.basex.core.*;
+import org.basex.core.locks.*;
+import org.basex.core.parse.*;
+import org.basex.core.parse.Commands.Cmd;
+import org.basex.core.parse.Commands.CmdJobs;
+import org.basex.core.users.*;
+
+/**
+ * Evaluates the 'jobs cancel' command. Running and queued jobs are stopped;
+ * the results of jobs that are done will be discarded.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class JobsCancel extends Command {
+  /**
+   * Default constructor.
+   * @param id job id
+   */
+  public JobsCancel(final String id) {
+    super(Perm.NONE, id);
+  }
+
+  @Override
+  protected boolean run() {
+    final Job job = context.jobs.get(args[0], context);
+    if(job == null) return error(JOB_UNKNOWN_X, args[0]);
+    context.jobs.cancel(job);
+    return info(JOB_CANCELED_X, job.id);
+  }
+
+  @Override
+  public void databases(final LockResult lr) {
+    // No locks needed
+  }
+
+  @Override
+  public void build(final CmdBuilder cb) {
+    cb.init(Cmd.JOBS + " " + CmdJobs.CANCEL).args();
+  }
+}
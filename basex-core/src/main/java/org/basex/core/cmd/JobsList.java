@@ -0,0 +1,70 @@
+package org.basex.core.cmd;
+
+import static org.basex.util.Token.*;
+
+import java.io.*;
+
+import org.basex.core.*;
+import org.basex.core.locks.*;
+import org.basex.core.parse.*;
+import org.basex.core.parse.Commands.Cmd;
+import org.basex.core.parse.Commands.CmdJobs;
+import org.basex.core.users.*;
+import org.basex.util.*;
+import org.basex.util.list.*;
+
+/**
+ * Evaluates the 'jobs list' command.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class JobsList extends Command {
+  /** Table header: id. */
+  private static final byte[] ID = token("ID");
+  /** Table header: state. */
+  private static final byte[] STATE = token("State");
+  /** Table header: user. */
+  private static final byte[] USER = token("User");
+  /** Table header: priority. */
+  private static final byte[] PRIORITY = token("Priority");
+  /** Table header: time. */
+  private static final byte[] TIME = token("Time");
+  /** Table header: query. */
+  private static final byte[] QUERY = token("Query");
+
+  /**
+   * Default constructor.
+   */
+  public JobsList() {
+    super(Perm.NONE);
+  }
+
+  @Override
+  protected boolean run() throws IOException {
+    final Table table = new Table();
+    table.header.add(ID, STATE, USER, PRIORITY, TIME, QUERY);
+    for(final Job job : context.jobs.list(context)) {
+      final TokenList tl = new TokenList(6);
+      tl.add(job.id);
+      tl.add(job.state().toString());
+      tl.add(job.user);
+      tl.add(job.priority);
+      tl.add(Performance.getTime(job.time() * 1000000, 1));
+      tl.add(job.query);
+      table.contents.add(tl);
+    }
+    out.println(table.finish());
+    return true;
+  }
+
+  @Override
+  public void databases(final LockResult lr) {
+    // No locks needed
+  }
+
+  @Override
+  public void build(final CmdBuilder cb) {
+    cb.init(Cmd.JOBS + " " + CmdJobs.LIST);
+  }
+}
@@ -0,0 +1,50 @@
+package org.basex.core.cmd;
+
+import static org.basex.core.Text.*;
+
+import java.io.*;
+
+import org.basex.core.*;
+import org.basex.core.Job.State;
+import org.basex.core.locks.*;
+import org.basex.core.parse.*;
+import org.basex.core.parse.Commands.Cmd;
+import org.basex.core.parse.Commands.CmdJobs;
+import org.basex.core.users.*;
+
+/**
+ * Evaluates the 'jobs result' command and returns the result of a query job.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class JobsResult extends Command {
+  /**
+   * Default constructor.
+   * @param id job id
+   */
+  public JobsResult(final String id) {
+    super(Perm.NONE, id);
+  }
+
+  @Override
+  protected boolean run() throws IOException {
+    final Job job = context.jobs.get(args[0], context);
+    if(job == null) return error(JOB_UNKNOWN_X, args[0]);
+    final State state = job.state();
+    if(state == State.FAILED) return error(job.error());
+    if(state != State.FINISHED) return error(job.id + ": " + state);
+    out.print(job.result());
+    return true;
+  }
+
+  @Override
+  public void databases(final LockResult lr) {
+    // No locks needed
+  }
+
+  @Override
+  public void build(final CmdBuilder cb) {
+    cb.init(Cmd.JOBS + " " + CmdJobs.RESULT).args();
+  }
+}
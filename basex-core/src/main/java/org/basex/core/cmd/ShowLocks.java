@@ -0,0 +1,144 @@
+package org.basex.core.cmd;
+
+import static org.basex.util.Token.*;
+
+import java.io.*;
+
+import org.basex.core.*;
+import org.basex.core.locks.*;
+import org.basex.core.parse.*;
+import org.basex.core.parse.Commands.Cmd;
+import org.basex.core.parse.Commands.CmdShow;
+import org.basex.core.users.*;
+import org.basex.util.*;
+import org.basex.util.list.*;
+
+/**
+ * Evaluates the 'show locks' command and shows lock statistics and registered transactions.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class ShowLocks extends Command {
+  /** Table header: object. */
+  private static final byte[] OBJECT = token("Object");
+  /** Table header: acquisitions. */
+  private static final byte[] ACQUIRED = token("Acquired");
+  /** Table header: waiting transactions. */
+  private static final byte[] WAITING = token("Waiting");
+  /** Table header: holding transactions. */
+  private static final byte[] HOLDING = token("Holding");
+  /** Table header: total wait time. */
+  private static final byte[] WAIT = token("Wait");
+  /** Table header: maximum wait time. */
+  private static final byte[] MAX_WAIT = token("Max. Wait");
+  /** Table header: total hold time. */
+  private static final byte[] HOLD = token("Hold");
+  /** Table header: maximum hold time. */
+  private static final byte[] MAX_HOLD = token("Max. Hold");
+  /** Table header: wait time histogram. */
+  private static final byte[] WAITS = token("Waits");
+  /** Table header: hold time histogram. */
+  private static final byte[] HOLDS = token("Holds");
+  /** Table header: thread. */
+  private static final byte[] THREAD = token("Thread");
+  /** Table header: state. */
+  private static final byte[] STATE = token("State");
+  /** Table header: time. */
+  private static final byte[] TIME = token("Time");
+  /** Table header: read objects. */
+  private static final byte[] READ = token("Read");
+  /** Table header: written objects. */
+  private static final byte[] WRITE = token("Write");
+  /** Table header: process. */
+  private static final byte[] PROCESS = token("Process");
+  /** Maximum length of process strings. */
+  private static final int MAX = 64;
+
+  /**
+   * Default constructor.
+   */
+  public ShowLocks() {
+    super(Perm.ADMIN);
+  }
+
+  @Override
+  protected boolean run() throws IOException {
+    final Table locks = new Table();
+    locks.header.add(OBJECT, ACQUIRED, WAITING, HOLDING, WAIT, MAX_WAIT, HOLD, MAX_HOLD);
+    locks.header.add(WAITS).add(HOLDS);
+    locks.align.add(false);
+    for(int a = 1; a < 8; a++) locks.align.add(true);
+    for(final LockStats ls : context.lockStats()) {
+      final TokenList tl = new TokenList(10);
+      tl.add(ls.object);
+      tl.add(ls.acquisitions());
+      tl.add(ls.waiting());
+      tl.add(ls.holding());
+      tl.add(Performance.getTime(ls.waitTime(), 1));
+      tl.add(Performance.getTime(ls.maxWait(), 1));
+      tl.add(Performance.getTime(ls.holdTime(), 1));
+      tl.add(Performance.getTime(ls.maxHold(), 1));
+      tl.add(histogram(ls.waits()));
+      tl.add(histogram(ls.holds()));
+      locks.contents.add(tl);
+    }
+    out.println(locks.finish());
+
+    final Table trs = new Table();
+    trs.header.add(THREAD, STATE, TIME, WAITING, READ, WRITE, PROCESS);
+    for(final Transaction tr : context.transactions()) {
+      final String waiting = tr.waiting();
+      final TokenList tl = new TokenList(7);
+      tl.add(tr.thread);
+      tl.add(tr.state().toString());
+      tl.add(Performance.getTime(tr.time(), 1));
+      tl.add(waiting == null ? "" : waiting);
+      tl.add(objects(tr.read));
+      tl.add(objects(tr.write));
+      tl.add(chop(token(tr.proc.toString()), MAX));
+      trs.contents.add(tl);
+    }
+    out.println(trs.finish());
+    return true;
+  }
+
+  /**
+   * Returns a string representation of the specified histogram.
+   * @param histogram histogram
+   * @return string
+   */
+  private static String histogram(final long[] histogram) {
+    final StringBuilder sb = new StringBuilder();
+    for(final long count : histogram) {
+      if(sb.length() != 0) sb.append(' ');
+      sb.append(count);
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Returns a string representation of the specified objects.
+   * @param objects objects ({@code null}: all objects)
+   * @return string
+   */
+  private static String objects(final StringList objects) {
+    if(objects == null) return "*";
+    final StringBuilder sb = new StringBuilder();
+    for(final String object : objects) {
+      if(sb.length() != 0) sb.append(',');
+      sb.append(object);
+    }
+    return sb.toString();
+  }
+
+  @Override
+  public void databases(final LockResult lr) {
+    // No locks needed
+  }
+
+  @Override
+  public void build(final CmdBuilder cb) {
+    cb.init(Cmd.SHOW + " " + CmdShow.LOCKS);
+  }
+}
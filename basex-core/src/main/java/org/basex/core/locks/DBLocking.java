@@ -11,9 +11,10 @@ import org.basex.core.*;
 import org.basex.util.list.*;
 
 /**
- * Manage read and write locks on arbitrary strings. Maximum of
- * {@link StaticOptions#PARALLEL} concurrent transactions are allowed,
- * further will be queued.
+ * Manage read and write locks on arbitrary strings. Transactions are admitted by the
+ * {@link Scheduler}: the number of concurrent readers and writers is limited by
+ * {@link StaticOptions#PARALLEL} and {@link StaticOptions#PARALLELWRITERS}, further
+ * transactions will be queued by their priority.
  *
  * This class prevents locking deadlocks by sorting all all strings
  *
@@ -23,6 +24,27 @@ import org.basex.util.list.*;
  * them in parallel by the same thread (it is fine to call arbitrary locking methods by
  * different threads at the same time).
  *
+ * Write locks of processes that collect all updates and apply them at the end (see
+ * {@link Proc#pendingUpdates()}) are deferred: while the process is evaluated, other writers
+ * are excluded, but readers can still access the database. Exclusive locks are only
+ * acquired before the updates are applied (see {@link #upgrade()}). Readers will therefore
+ * not wait for the evaluation of updating queries, and they will see the database state
+ * before the updates. This only applies to the evaluation of XQuery expressions:
+ * <ul>
+ *   <li> Readers will be blocked while the updates are applied. As locks are fair, readers
+ *        that arrive while a process waits to upgrade its lock will be queued behind it.</li>
+ *   <li> Commands that write data directly (e.g. {@code ADD}, {@code CREATE DB},
+ *        {@code OPTIMIZE}) lock databases exclusively from the start, so readers will wait
+ *        for the complete import.</li>
+ * </ul>
+ *
+ * Objects of the form {@code database/path} lock single documents or directories of a
+ * database. Transactions that update different documents of the same database will be
+ * evaluated in parallel; their updates will be applied one after another.
+ *
+ * Wait and hold times are recorded per database and internal object (see {@link LockStats}),
+ * and the registered transactions can be inspected (see {@link Transaction}).
+ *
  * This locking can be deactivated by setting {@link StaticOptions#GLOBALLOCK} to
  * {@code true}.
  *
@@ -45,6 +67,10 @@ public final class DBLocking implements Locking {
   public static final String EVENT = PREFIX + "EVENT";
   /** Special lock identifier for repository commands. */
   public static final String REPO = PREFIX + "REPO";
+  /** Identifier for the statistics on global locking. */
+  public static final String GLOBAL = PREFIX + "GLOBAL";
+  /** Identifier for the statistics on the transaction queue. */
+  public static final String QUEUE = PREFIX + "QUEUE";
 
   /** Prefix for user defined locks. */
   public static final String USER_PREFIX = "+";
@@ -66,19 +92,23 @@ public final class DBLocking implements Locking {
   private final ReentrantReadWriteLock writeAll = new ReentrantReadWriteLock();
   /** Stores one lock for each object used for locking. */
   private final Map<String, ReentrantReadWriteLock> locks = new HashMap<>();
+  /**
+   * Stores one writer lock for each object used for locking. Writer locks are acquired
+   * by all writers before the object is locked, and ensure that no conflicting writer
+   * is active while a write lock is deferred.
+   */
+  private final Map<String, WriterLock> writers = new HashMap<>();
   /** Stores lock usage counters for each object used for locking. */
   private final Map<String, Integer> lockUsage = new HashMap<>();
+  /** Admission of transactions. */
+  private final Scheduler scheduler;
+  /** Registered transactions. */
+  private final ConcurrentMap<Long, Transaction> transactions = new ConcurrentHashMap<>();
   /**
-   * Currently running transactions.
-   * Used as monitor for atomizing access to {@link #queue}.
+   * Statistics on locked databases and internal objects. Statistics on user-defined locks
+   * are discarded when the locks are released, as their names are arbitrary.
    */
-  private int transactions;
-  /**
-   * Queue for transactions waiting.
-   *
-   * Used as monitor for waiting threads in queue.
-   */
-  private final Queue<Long> queue = new LinkedList<>();
+  private final ConcurrentMap<String, LockStats> stats = new ConcurrentHashMap<>();
   /**
    * Stores a list of objects each transaction has write-locked.
    * Null means lock everything, an empty array lock nothing.
@@ -89,15 +119,19 @@ public final class DBLocking implements Locking {
    * everything, an empty array lock nothing.
    */
   private final ConcurrentMap<Long, StringList> readLocked = new ConcurrentHashMap<>();
-  /** Static options. */
-  private final StaticOptions sopts;
-
+  /**
+   * Stores a list of objects each transaction has write-locked, but only holds a
+   * read lock for until the updates are applied.
+   */
+  private final ConcurrentMap<Long, StringList> deferLocked = new ConcurrentHashMap<>();
+  /** Stores a list of objects each transaction holds writer locks for. */
+  private final ConcurrentMap<Long, StringList> writerLocked = new ConcurrentHashMap<>();
   /**
    * Initialize new Locking instance.
    * @param sopts static options
    */
   public DBLocking(final StaticOptions sopts) {
-    this.sopts = sopts;
+    scheduler = new Scheduler(sopts);
   }
 
   @Override
@@ -106,23 +140,28 @@ public final class DBLocking implements Locking {
     if(writeLocked.containsKey(thread) || readLocked.containsKey(thread))
       throw new IllegalMonitorStateException("Thread already holds one or more locks.");
 
-    // Wait in queue if necessary
-    synchronized(queue) { // Guard queue and transaction, monitor for waiting in queue
-      queue.add(thread);
-      while(transactions >= Math.max(sopts.get(StaticOptions.PARALLEL), 1)
-          || queue.peek() != thread) {
-        try {
-          queue.wait();
-        } catch(final InterruptedException ex) {
-          Thread.currentThread().interrupt();
-        }
+    // Local locking objects
+    final StringList writeObjects = write != null ? writeObjects(write, read) :
+      new StringList(0);
+    final StringList writeDatabases = databases(writeObjects);
+    final StringList readObjects = new StringList();
+    if(read != null) {
+      // skip objects that will be locked for writing
+      for(final String object : collections(read).sort().unique()) {
+        if(!writeDatabases.contains(object)) readObjects.add(object);
       }
-      final int t = transactions++;
-      assert t <= Math.max(sopts.get(StaticOptions.PARALLEL), 1);
-      queue.remove(thread);
     }
+    final Transaction tr = new Transaction(pr, read != null ? readObjects : null,
+        write != null ? writeObjects : null);
+    transactions.put(thread, tr);
+
+    // Wait in queue if necessary
+    final boolean writer = writer(write);
+    scheduler.acquire(pr.priority(), writer);
+    scheduler.stats.acquired(tr.admit());
 
     // Global write lock if write StringList is not set
+    LockStats ls = lock(tr, GLOBAL);
     (write == null ? writeAll.writeLock() : writeAll.readLock()).lock();
 
     synchronized(globalLock) {
@@ -149,41 +188,220 @@ public final class DBLocking implements Locking {
         globalReaders++;
       }
     }
+    locked(tr, ls);
 
-    // Local locking
-    final StringList writeObjects;
-    if(write != null) {
-      writeObjects = write.sort().unique();
-      writeLocked.put(thread, writeObjects);
-    } else {
-      writeObjects = new StringList(0);
+    if(write != null) writeLocked.put(thread, writeObjects);
+    if(read != null) readLocked.put(thread, readObjects);
+    final StringList deferObjects = new StringList();
+    if(pr.pendingUpdates()) {
+      for(final String object : writeDatabases) {
+        if(!internal(object)) deferObjects.add(object);
+      }
     }
-    final StringList readObjects;
-    if(read != null) {
-      readObjects = read.sort().unique();
-      readLocked.put(thread, readObjects);
-    } else {
-      readObjects = new StringList(0);
+
+    // Writer locks: all writer locks are acquired before the data is locked
+    final TreeMap<String, WriterLock.Mode> writerModes = new TreeMap<>();
+    for(final String object : writeObjects) {
+      final String db = database(object);
+      if(!db.equals(object)) {
+        // document: lock database and parent directories in shared mode
+        for(int i = db.length(); i != -1; i = object.indexOf('/', i + 1)) {
+          final String dir = object.substring(0, i);
+          if(!writerModes.containsKey(dir)) writerModes.put(dir, WriterLock.Mode.DOCUMENTS);
+        }
+      }
+      writerModes.put(object, WriterLock.Mode.EXCLUSIVE);
+    }
+    // databases that are read before deferred write locks are upgraded must not be updated
+    if(!deferObjects.isEmpty()) {
+      for(final String object : readObjects) {
+        if(!internal(object)) writerModes.put(object, WriterLock.Mode.SHARED);
+      }
+    }
+    final StringList writerObjects = new StringList(writerModes.size());
+    for(final Entry<String, WriterLock.Mode> entry : writerModes.entrySet()) {
+      final String object = entry.getKey();
+      setLockUsed(object);
+      ls = lock(tr, object);
+      getOrCreateWriter(object).lock(entry.getValue());
+      locked(tr, ls);
+      writerObjects.add(object);
     }
+    writerLocked.put(thread, writerObjects);
 
     // Use pattern similar to merge sort
     int w = 0, r = 0;
-    final int rs = readObjects.size(), ws = writeObjects.size();
+    final int rs = readObjects.size(), ws = writeDatabases.size();
     while(r < rs || w < ws) {
       // Look what token comes earlier in alphabet, prefer writing against reading
-      if(w < ws && (r >= rs || writeObjects.get(w).compareTo(readObjects.get(r)) <= 0)) {
-        final String writeObject = writeObjects.get(w++);
+      if(w < ws && (r >= rs || writeDatabases.get(w).compareTo(readObjects.get(r)) <= 0)) {
+        final String writeObject = writeDatabases.get(w++);
         setLockUsed(writeObject);
-        getOrCreateLock(writeObject).writeLock().lock();
+        final ReentrantReadWriteLock lock = getOrCreateLock(writeObject);
+        ls = lock(tr, writeObject);
+        if(deferObjects.contains(writeObject)) {
+          // defer exclusive lock on database until updates are applied
+          lock.readLock().lock();
+        } else {
+          lock.writeLock().lock();
+        }
+        locked(tr, ls);
       } else
       // Read lock only if not global write locking; otherwise no lock downgrading from
       // global write lock is possible
       if(write != null) {
         final String readObject = readObjects.get(r++);
         setLockUsed(readObject);
+        ls = lock(tr, readObject);
         getOrCreateLock(readObject).readLock().lock();
+        locked(tr, ls);
+      }
+    }
+    if(!deferObjects.isEmpty()) deferLocked.put(thread, deferObjects);
+
+    // record acquisitions
+    tr.start();
+    for(final Entry<String, Long> entry : tr.waits.entrySet()) {
+      while(!stats(entry.getKey()).acquired(entry.getValue()));
+    }
+  }
+
+  @Override
+  public void upgrade() {
+    final long thread = Thread.currentThread().getId();
+    final StringList deferObjects = deferLocked.remove(thread);
+    if(deferObjects == null) return;
+
+    // release all read locks first: other writers of the same databases update different
+    // documents, and they may be waiting for the same locks
+    for(final String object : deferObjects) getOrCreateLock(object).readLock().unlock();
+    final Transaction tr = transactions.get(thread);
+    for(final String object : deferObjects) {
+      final LockStats ls = lock(tr, object);
+      getOrCreateLock(object).writeLock().lock();
+      ls.waiting(false);
+      ls.waited(tr.locked());
+    }
+  }
+
+  @Override
+  public ArrayList<LockStats> stats() {
+    final ArrayList<LockStats> list = new ArrayList<>(stats.values());
+    Collections.sort(list, new Comparator<LockStats>() {
+      @Override
+      public int compare(final LockStats ls1, final LockStats ls2) {
+        return ls1.object.compareTo(ls2.object);
       }
+    });
+    list.add(0, scheduler.stats);
+    return list;
+  }
+
+  @Override
+  public ArrayList<Transaction> transactions() {
+    return new ArrayList<>(transactions.values());
+  }
+
+  /**
+   * Called before the lock of an object is acquired.
+   * @param tr transaction
+   * @param object object
+   * @return statistics on the object
+   */
+  private LockStats lock(final Transaction tr, final String object) {
+    LockStats ls;
+    do ls = stats(database(object)); while(!ls.waiting(true));
+    tr.lock(object);
+    return ls;
+  }
+
+  /**
+   * Called after the lock of an object has been acquired.
+   * @param tr transaction
+   * @param ls statistics on the object
+   */
+  private static void locked(final Transaction tr, final LockStats ls) {
+    ls.waiting(false);
+    tr.locked();
+  }
+
+  /**
+   * Returns the statistics on the specified database or internal object.
+   * @param object database or internal object
+   * @return statistics
+   */
+  private LockStats stats(final String object) {
+    final LockStats ls = stats.get(object);
+    if(ls != null) return ls;
+    final LockStats created = new LockStats(object);
+    final LockStats old = stats.putIfAbsent(object, created);
+    return old != null ? old : created;
+  }
+
+  /**
+   * Returns the name of the database that is referenced by a lock object.
+   * Objects that address single documents consist of the database name and the path to the
+   * document, separated by a slash.
+   * @param object lock object
+   * @return database name, or the object itself if it does not reference a document
+   */
+  public static String database(final String object) {
+    final int i = internal(object) ? -1 : object.indexOf('/');
+    return i == -1 ? object : object.substring(0, i);
+  }
+
+  /**
+   * Checks if the specified object is an internal or user-defined lock.
+   * @param object lock object
+   * @return result of check
+   */
+  private static boolean internal(final String object) {
+    return object.startsWith(PREFIX) || object.startsWith(USER_PREFIX) ||
+        object.startsWith(MODULE_PREFIX);
+  }
+
+  /**
+   * Returns the sorted and distinct objects to be locked for writing. A document is replaced
+   * by its database if the database is also read by the transaction: the nodes that are read
+   * are referenced by pre values, which may be shifted by the updates of other documents.
+   * @param write objects to be write-locked
+   * @param read objects to be read-locked ({@code null} if all databases are read)
+   * @return lock objects
+   */
+  private static StringList writeObjects(final StringList write, final StringList read) {
+    final StringList dbs = read != null ? databases(collections(read)) : null;
+    final StringList list = new StringList(write.size());
+    for(final String object : collections(write)) {
+      final String db = database(object);
+      list.add(dbs == null || dbs.contains(db) ? db : object);
     }
+    return list.sort().unique();
+  }
+
+  /**
+   * Returns the sorted and distinct database names of the specified lock objects.
+   * @param objects lock objects
+   * @return database names
+   */
+  private static StringList databases(final StringList objects) {
+    final StringList dbs = new StringList(objects.size());
+    for(final String object : objects) dbs.add(database(object));
+    return dbs.sort().unique();
+  }
+
+  /**
+   * Replaces the names of shards with the names of their collections.
+   * All shards of a collection will thus be guarded by the same lock.
+   * @param objects objects to be locked (will not be modified)
+   * @return new list with the objects
+   */
+  private static StringList collections(final StringList objects) {
+    final StringList list = new StringList(objects.size());
+    for(final String object : objects) {
+      final String db = database(object);
+      list.add(Shards.collection(db) + object.substring(db.length()));
+    }
+    return list;
   }
 
   /**
@@ -203,16 +421,54 @@ public final class DBLocking implements Locking {
     return lock;
   }
 
+  /**
+   * Gets or creates writer lock on object.
+   * @param object to fetch lock for
+   * @return lock on object
+   */
+  private WriterLock getOrCreateWriter(final String object) {
+    WriterLock lock;
+    synchronized(locks) {
+      lock = writers.get(object);
+      if(lock == null) {
+        lock = new WriterLock();
+        writers.put(object, lock);
+      }
+    }
+    return lock;
+  }
+
   @Override
   public void release(final Proc pr) {
-    // Release all write locks
+    // Record hold times
     final Long thread = Thread.currentThread().getId();
+    final Transaction tr = transactions.remove(thread);
+    final long held = tr.started();
+    for(final String object : tr.waits.keySet()) {
+      final LockStats ls = stats(object);
+      ls.released(held);
+      if((object.startsWith(USER_PREFIX) || object.startsWith(MODULE_PREFIX)) && ls.discard())
+        stats.remove(object, ls);
+    }
+    scheduler.stats.released(tr.admitted());
+
+    // Release all write locks
     final StringList writeObjects = writeLocked.remove(thread);
-    if(writeObjects != null) for(final String object : writeObjects) {
+    final StringList deferObjects = deferLocked.remove(thread);
+    if(writeObjects != null) for(final String object : databases(writeObjects)) {
       final ReentrantReadWriteLock lock = getOrCreateLock(object);
-      assert lock.getWriteHoldCount() == 1 : "Unexpected write lock count: "
-          + lock.getWriteHoldCount();
-      lock.writeLock().unlock();
+      if(deferObjects != null && deferObjects.contains(object)) {
+        lock.readLock().unlock();
+      } else {
+        assert lock.getWriteHoldCount() == 1 : "Unexpected write lock count: "
+            + lock.getWriteHoldCount();
+        lock.writeLock().unlock();
+      }
+      unsetLockIfUnused(object);
+    }
+    final StringList writerObjects = writerLocked.remove(thread);
+    if(writerObjects != null) for(final String object : writerObjects) {
+      getOrCreateWriter(object).unlock();
       unsetLockIfUnused(object);
     }
 
@@ -236,10 +492,16 @@ public final class DBLocking implements Locking {
     }
 
     // Allow another transaction to run
-    synchronized(queue) {
-      transactions--;
-      queue.notifyAll();
-    }
+    scheduler.release(writer(writeObjects));
+  }
+
+  /**
+   * Checks if a transaction with the specified write locks is a writer.
+   * @param write write locks ({@code null}: all databases)
+   * @return result of check
+   */
+  private static boolean writer(final StringList write) {
+    return write == null || !write.isEmpty();
   }
 
   /**
@@ -263,7 +525,10 @@ public final class DBLocking implements Locking {
       Integer usage = lockUsage.get(object);
       assert usage != null;
       if(--usage == 0) {
-        locks.remove(object);
+        synchronized(locks) {
+          locks.remove(object);
+          writers.remove(object);
+        }
         lockUsage.remove(object);
       } else {
         lockUsage.put(object, usage);
@@ -280,8 +545,7 @@ public final class DBLocking implements Locking {
     final StringBuilder sb = new StringBuilder(NL);
     sb.append("Locking" + NL);
     final String ind = "| ";
-    sb.append(ind + "Transactions running: " + transactions + NL);
-    sb.append(ind + "Transaction queue: " + queue + NL);
+    sb.append(ind + "Transactions: " + scheduler + NL);
     sb.append(ind + "Held locks by object:" + NL);
     for(final Entry<String, ReentrantReadWriteLock> e : locks.entrySet())
       sb.append(ind + ind + e.getKey() + " -> " + e.getValue() + NL);
@@ -291,6 +555,12 @@ public final class DBLocking implements Locking {
     sb.append(ind + "Held read locks by transaction:" + NL);
     for(final Long thread : readLocked.keySet())
       sb.append(ind + ind + thread + " -> " + readLocked.get(thread) + NL);
+    sb.append(ind + "Held writer locks by transaction:" + NL);
+    for(final Long thread : writerLocked.keySet())
+      sb.append(ind + ind + thread + " -> " + writerLocked.get(thread) + NL);
+    sb.append(ind + "Deferred write locks by transaction:" + NL);
+    for(final Long thread : deferLocked.keySet())
+      sb.append(ind + ind + thread + " -> " + deferLocked.get(thread) + NL);
     return sb.toString();
   }
 
@@ -20,6 +20,8 @@ public class LockResult {
   public boolean readAll;
   /** Flag if global write lock is required. */
   public boolean writeAll;
+  /** Priority of the transaction (assigned by the context, may be changed by the process). */
+  public int priority;
 
   /**
    * Merge lock instances.
@@ -34,6 +36,7 @@ public class LockResult {
     write.add(lr.write);
     readAll |= lr.readAll;
     writeAll |= lr.writeAll;
+    priority = Math.max(priority, lr.priority);
   }
 
   @Override
@@ -0,0 +1,193 @@
+package org.basex.core.locks;
+
+import java.util.*;
+
+/**
+ * Statistics on a locked object. Objects that address documents of a database are
+ * accounted to the database.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class LockStats {
+  /** Upper limits of the histogram buckets (milliseconds). The last bucket is unbounded. */
+  public static final long[] LIMITS = { 1, 10, 100, 1000, 10000 };
+
+  /** Locked object. */
+  public final String object;
+
+  /** Number of acquisitions. */
+  private long acquisitions;
+  /** Number of transactions that are currently waiting for the lock. */
+  private int waiting;
+  /** Number of transactions that are currently holding the lock. */
+  private int holding;
+  /** Total wait time (nanoseconds). */
+  private long waitTime;
+  /** Maximum wait time (nanoseconds). */
+  private long maxWait;
+  /** Total hold time (nanoseconds). */
+  private long holdTime;
+  /** Maximum hold time (nanoseconds). */
+  private long maxHold;
+  /** Histogram of wait times. */
+  private final long[] waits = new long[LIMITS.length + 1];
+  /** Histogram of hold times. */
+  private final long[] holds = new long[LIMITS.length + 1];
+  /** Indicates if the statistics have been discarded. */
+  private boolean discarded;
+
+  /**
+   * Constructor.
+   * @param object locked object
+   */
+  LockStats(final String object) {
+    this.object = object;
+  }
+
+  /**
+   * Registers a transaction that starts or stops waiting for the lock.
+   * @param start start or stop
+   * @return {@code false} if the statistics have been discarded
+   */
+  synchronized boolean waiting(final boolean start) {
+    if(discarded) return false;
+    waiting += start ? 1 : -1;
+    return true;
+  }
+
+  /**
+   * Registers a transaction that has acquired the lock.
+   * @param time time spent waiting (nanoseconds)
+   * @return {@code false} if the statistics have been discarded
+   */
+  synchronized boolean acquired(final long time) {
+    if(discarded) return false;
+    acquisitions++;
+    holding++;
+    waited(time);
+    waits[bucket(time)]++;
+    return true;
+  }
+
+  /**
+   * Registers additional wait time of a transaction that holds the lock
+   * (e.g., if deferred write locks are upgraded).
+   * @param time time spent waiting (nanoseconds)
+   */
+  synchronized void waited(final long time) {
+    waitTime += time;
+    maxWait = Math.max(maxWait, time);
+  }
+
+  /**
+   * Registers a transaction that has released the lock.
+   * @param time time the lock was held (nanoseconds)
+   */
+  synchronized void released(final long time) {
+    holding--;
+    holdTime += time;
+    maxHold = Math.max(maxHold, time);
+    holds[bucket(time)]++;
+  }
+
+  /**
+   * Discards the statistics if the lock is neither held nor requested.
+   * Discarded statistics will not be updated anymore.
+   * @return result of check
+   */
+  synchronized boolean discard() {
+    discarded = waiting == 0 && holding == 0;
+    return discarded;
+  }
+
+  /**
+   * Returns the number of acquisitions.
+   * @return number of acquisitions
+   */
+  public synchronized long acquisitions() {
+    return acquisitions;
+  }
+
+  /**
+   * Returns the number of transactions that are currently waiting for the lock.
+   * @return number of transactions
+   */
+  public synchronized int waiting() {
+    return waiting;
+  }
+
+  /**
+   * Returns the number of transactions that are currently holding the lock.
+   * @return number of transactions
+   */
+  public synchronized int holding() {
+    return holding;
+  }
+
+  /**
+   * Returns the total wait time.
+   * @return time (nanoseconds)
+   */
+  public synchronized long waitTime() {
+    return waitTime;
+  }
+
+  /**
+   * Returns the maximum wait time.
+   * @return time (nanoseconds)
+   */
+  public synchronized long maxWait() {
+    return maxWait;
+  }
+
+  /**
+   * Returns the total hold time.
+   * @return time (nanoseconds)
+   */
+  public synchronized long holdTime() {
+    return holdTime;
+  }
+
+  /**
+   * Returns the maximum hold time.
+   * @return time (nanoseconds)
+   */
+  public synchronized long maxHold() {
+    return maxHold;
+  }
+
+  /**
+   * Returns the histogram of wait times (see {@link #LIMITS}).
+   * @return number of acquisitions per bucket
+   */
+  public synchronized long[] waits() {
+    return waits.clone();
+  }
+
+  /**
+   * Returns the histogram of hold times (see {@link #LIMITS}).
+   * @return number of releases per bucket
+   */
+  public synchronized long[] holds() {
+    return holds.clone();
+  }
+
+  /**
+   * Returns the histogram bucket for the specified time.
+   * @param time time (nanoseconds)
+   * @return bucket index
+   */
+  private static int bucket(final long time) {
+    final long ms = time / 1000000;
+    int b = 0;
+    while(b < LIMITS.length && ms >= LIMITS[b]) b++;
+    return b;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return object + ": acquired " + acquisitions + ", waiting " + waiting + ", holding " +
+      holding + ", waits " + Arrays.toString(waits) + ", holds " + Arrays.toString(holds);
+  }
+}
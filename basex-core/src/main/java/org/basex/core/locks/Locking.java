@@ -1,5 +1,7 @@
 package org.basex.core.locks;
 
+import java.util.*;
+
 import org.basex.core.*;
 import org.basex.util.list.*;
 
@@ -22,9 +24,27 @@ public interface Locking {
    */
   void acquire(final Proc pr, final StringList read, final StringList write);
 
+  /**
+   * Acquires the exclusive locks that have been deferred for the current transaction.
+   * Must be called before updates are applied.
+   */
+  void upgrade();
+
   /**
    * Unlock all string locked by a transaction.
    * @param pr process
    */
   void release(final Proc pr);
+
+  /**
+   * Returns statistics on the locked objects.
+   * @return statistics
+   */
+  ArrayList<LockStats> stats();
+
+  /**
+   * Returns the transactions that are currently registered.
+   * @return transactions
+   */
+  ArrayList<Transaction> transactions();
 }
@@ -0,0 +1,65 @@
+package org.basex.core.locks;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import org.basex.core.*;
+import org.basex.util.list.*;
+
+/**
+ * Modification counters of databases. The counters of all databases that have been
+ * locked for writing by an updating process are incremented before the locks are released.
+ * As the counters of a database will not change as long as it is locked for reading,
+ * they can be used to check if data that has been read before is still up-to-date.
+ * Documents are counted as their databases, and shards as their collections, as
+ * they are guarded by the same locks.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class Modifications {
+  /** Counters of single databases. */
+  private final ConcurrentHashMap<String, AtomicLong> counters = new ConcurrentHashMap<>();
+  /** Counter for processes that may have updated all databases. */
+  private final AtomicLong all = new AtomicLong();
+
+  /**
+   * Increments the counters of the specified databases.
+   * @param dbs names of databases or documents ({@code null}: all databases)
+   */
+  public void update(final StringList dbs) {
+    if(dbs == null) {
+      all.incrementAndGet();
+    } else {
+      for(final String object : dbs) {
+        final String db = key(object);
+        AtomicLong counter = counters.get(db);
+        if(counter == null) {
+          final AtomicLong c = counters.putIfAbsent(db, counter = new AtomicLong());
+          if(c != null) counter = c;
+        }
+        counter.incrementAndGet();
+      }
+    }
+  }
+
+  /**
+   * Returns the modification state of the specified database.
+   * The value will be increased whenever the database may have been updated.
+   * @param db name of database or document
+   * @return modification state
+   */
+  public long get(final String db) {
+    final AtomicLong counter = counters.get(key(db));
+    return all.get() + (counter != null ? counter.get() : 0);
+  }
+
+  /**
+   * Returns the key of the counter of the specified database or document.
+   * @param object name of database or document
+   * @return name of database or collection
+   */
+  static String key(final String object) {
+    return Shards.collection(DBLocking.database(object));
+  }
+}
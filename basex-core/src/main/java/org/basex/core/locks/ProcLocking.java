@@ -78,6 +78,11 @@ public final class ProcLocking implements Locking {
     }
   }
 
+  @Override
+  public void upgrade() {
+    // updating processes are always executed exclusively
+  }
+
   @Override
   public void release(final Proc pr) {
     synchronized(mutex) {
@@ -89,4 +94,15 @@ public final class ProcLocking implements Locking {
       mutex.notifyAll();
     }
   }
+
+  @Override
+  public ArrayList<LockStats> stats() {
+    // no statistics are recorded for global locking
+    return new ArrayList<>();
+  }
+
+  @Override
+  public ArrayList<Transaction> transactions() {
+    return new ArrayList<>();
+  }
 }
@@ -0,0 +1,147 @@
+package org.basex.core.locks;
+
+import java.util.*;
+
+import org.basex.core.*;
+
+/**
+ * Admission of transactions. Readers and writers are admitted separately: the number of
+ * parallel readers is limited by {@link StaticOptions#PARALLEL}, and the number of parallel
+ * writers is limited by {@link StaticOptions#PARALLELWRITERS}. Waiting readers will thus not
+ * be blocked by writers that wait for a free slot, and vice versa.
+ *
+ * Waiting transactions are admitted by their priority (see {@link MainOptions#PRIORITY}),
+ * and in the order in which they arrived if their priorities are equal. To prevent
+ * starvation, the priority of a waiting transaction is raised by one whenever the time
+ * specified by {@link StaticOptions#PRIORITYAGING} has passed: a transaction will finally be
+ * admitted before transactions with higher priorities that arrived much later.
+ * Queue lengths and wait times are recorded in the {@link #stats}.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+final class Scheduler {
+  /** Waiting readers. */
+  private final PriorityQueue<Request> readers = new PriorityQueue<>();
+  /** Waiting writers. */
+  private final PriorityQueue<Request> writers = new PriorityQueue<>();
+  /** Statistics (acquisitions are recorded by the caller). */
+  final LockStats stats = new LockStats(DBLocking.QUEUE);
+  /** Static options. */
+  private final StaticOptions sopts;
+
+  /** Number of running readers. */
+  private int reading;
+  /** Number of running writers. */
+  private int writing;
+  /** Request counter. */
+  private long counter;
+
+  /**
+   * Constructor.
+   * @param sopts static options
+   */
+  Scheduler(final StaticOptions sopts) {
+    this.sopts = sopts;
+  }
+
+  /**
+   * Waits until the transaction can be started.
+   * @param priority priority (transactions with higher priorities are admitted first)
+   * @param writer writing transaction
+   */
+  synchronized void acquire(final int priority, final boolean writer) {
+    final PriorityQueue<Request> queue = writer ? writers : readers;
+    final Request request = new Request(priority, sopts.get(StaticOptions.PRIORITYAGING),
+        counter++);
+    queue.add(request);
+    stats.waiting(true);
+
+    boolean interrupted = false;
+    while(queue.peek() != request || running(writer) >= max(writer)) {
+      try {
+        wait();
+      } catch(final InterruptedException ex) {
+        interrupted = true;
+      }
+    }
+    queue.remove();
+    if(writer) writing++;
+    else reading++;
+    stats.waiting(false);
+
+    // the next transaction of the same kind may be admitted as well
+    notifyAll();
+    if(interrupted) Thread.currentThread().interrupt();
+  }
+
+  /**
+   * Releases the slot of a transaction.
+   * @param writer writing transaction
+   */
+  synchronized void release(final boolean writer) {
+    if(writer) writing--;
+    else reading--;
+    notifyAll();
+  }
+
+  /**
+   * Returns the number of running transactions of the specified kind.
+   * @param writer writers or readers
+   * @return number of transactions
+   */
+  private int running(final boolean writer) {
+    return writer ? writing : reading;
+  }
+
+  /**
+   * Returns the maximum number of parallel transactions of the specified kind.
+   * @param writer writers or readers
+   * @return maximum number of transactions
+   */
+  private int max(final boolean writer) {
+    return Math.max(sopts.get(writer ? StaticOptions.PARALLELWRITERS :
+      StaticOptions.PARALLEL), 1);
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "Running: " + reading + " readers, " + writing + " writers; " +
+      "queued: " + readers.size() + " readers, " + writers.size() + " writers";
+  }
+
+  /**
+   * Waiting transaction.
+   */
+  private static final class Request implements Comparable<Request> {
+    /** Priority. */
+    private final int priority;
+    /**
+     * Time of arrival (milliseconds), decreased by the aging time for each priority level.
+     * As all waiting transactions age at the same rate, their order will not change while
+     * they are waiting.
+     */
+    private final long time;
+    /** Sequential number. */
+    private final long number;
+
+    /**
+     * Constructor.
+     * @param priority priority
+     * @param aging aging time (milliseconds; aging is deactivated if 0)
+     * @param number sequential number
+     */
+    private Request(final int priority, final int aging, final long number) {
+      this.priority = priority;
+      this.number = number;
+      time = aging > 0 ? System.nanoTime() / 1000000 - (long) priority * aging : 0;
+    }
+
+    @Override
+    public int compareTo(final Request request) {
+      int d = Long.compare(time, request.time);
+      if(d == 0) d = Integer.compare(request.priority, priority);
+      return d != 0 ? d : Long.compare(number, request.number);
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package org.basex.core.locks;
+
+import java.util.*;
+import java.util.Map.Entry;
+
+import org.basex.util.list.*;
+
+/**
+ * Modification states of the databases that have been accessed by the processes of a
+ * database context. The states are taken before the databases are locked. If the states
+ * are unchanged at a later time, the data has not been updated in the meantime.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class Snapshot {
+  /** Modification states of the accessed databases. */
+  private final HashMap<String, Long> states = new HashMap<>();
+  /** Indicates if the states are complete (no updates, no global locks). */
+  private boolean complete = true;
+
+  /**
+   * Adds the databases that will be locked by a process.
+   * @param read databases or documents to be read ({@code null}: all databases)
+   * @param write databases or documents to be written ({@code null}: all databases)
+   * @param updating updating flag
+   * @param mods modification counters
+   */
+  public synchronized void add(final StringList read, final StringList write,
+      final boolean updating, final Modifications mods) {
+    if(updating || read == null || write == null) {
+      complete = false;
+    } else {
+      add(read, mods);
+      add(write, mods);
+    }
+  }
+
+  /**
+   * Indicates if all accessed databases are known, and if no updates took place.
+   * @return result of check
+   */
+  public synchronized boolean complete() {
+    return complete;
+  }
+
+  /**
+   * Checks if none of the accessed databases has been modified since they were accessed.
+   * @param mods modification counters
+   * @return result of check
+   */
+  public synchronized boolean current(final Modifications mods) {
+    if(!complete) return false;
+    for(final Entry<String, Long> state : states.entrySet()) {
+      if(mods.get(state.getKey()) != state.getValue()) return false;
+    }
+    return true;
+  }
+
+  /**
+   * Adds the states of the specified databases, unless they have already been added.
+   * @param dbs databases
+   * @param mods modification counters
+   */
+  private void add(final StringList dbs, final Modifications mods) {
+    for(final String object : dbs) {
+      final String db = Modifications.key(object);
+      if(!states.containsKey(db)) states.put(db, mods.get(db));
+    }
+  }
+}
@@ -0,0 +1,162 @@
+package org.basex.core.locks;
+
+import java.util.*;
+
+import org.basex.core.*;
+import org.basex.util.list.*;
+
+/**
+ * Transaction that has been registered for locking.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class Transaction {
+  /** Transaction states. */
+  public enum State {
+    /** Waiting to be admitted. */ QUEUED,
+    /** Acquiring locks.        */ LOCKING,
+    /** Running.                */ RUNNING;
+
+    @Override
+    public String toString() {
+      return name().toLowerCase(Locale.ENGLISH);
+    }
+  }
+
+  /** Id of the thread that runs the transaction. */
+  public final long thread = Thread.currentThread().getId();
+  /** Process. */
+  public final Proc proc;
+  /** Objects to be read ({@code null}: all objects). */
+  public final StringList read;
+  /** Objects to be written ({@code null}: all objects). */
+  public final StringList write;
+
+  /** Time spent waiting for the locks of each database (only accessed by the thread). */
+  final HashMap<String, Long> waits = new HashMap<>();
+  /** Registration time. */
+  private final long registered = System.nanoTime();
+  /** Admission time ({@code 0}: not admitted yet). */
+  private volatile long admitted;
+  /** Time at which all locks were acquired ({@code 0}: not running yet). */
+  private volatile long started;
+  /** Object the transaction is currently waiting for. */
+  private volatile String waiting;
+  /** Time at which the transaction started waiting for the current object. */
+  private long since;
+
+  /**
+   * Constructor.
+   * @param proc process
+   * @param read objects to be read ({@code null}: all objects)
+   * @param write objects to be written ({@code null}: all objects)
+   */
+  Transaction(final Proc proc, final StringList read, final StringList write) {
+    this.proc = proc;
+    this.read = read;
+    this.write = write;
+  }
+
+  /**
+   * Returns the current state.
+   * @return state
+   */
+  public State state() {
+    return admitted == 0 ? State.QUEUED : waiting != null || started == 0 ? State.LOCKING :
+      State.RUNNING;
+  }
+
+  /**
+   * Returns the object the transaction is currently waiting for.
+   * @return object, or {@code null} if the transaction is not waiting for a lock
+   */
+  public String waiting() {
+    return waiting;
+  }
+
+  /**
+   * Returns the time since the transaction was registered.
+   * @return time (nanoseconds)
+   */
+  public long time() {
+    return System.nanoTime() - registered;
+  }
+
+  /**
+   * Checks if the transaction accesses the specified database or internal object.
+   * @param object database or internal object
+   * @return result of check
+   */
+  public boolean accesses(final String object) {
+    return contains(read, object) || contains(write, object);
+  }
+
+  /**
+   * Marks the transaction as admitted.
+   * @return time spent in the queue (nanoseconds)
+   */
+  long admit() {
+    admitted = System.nanoTime();
+    return admitted - registered;
+  }
+
+  /**
+   * Returns the time since the transaction was admitted.
+   * @return time (nanoseconds)
+   */
+  long admitted() {
+    return System.nanoTime() - admitted;
+  }
+
+  /**
+   * Called before the lock of an object is acquired.
+   * @param object object
+   */
+  void lock(final String object) {
+    since = System.nanoTime();
+    waiting = object;
+  }
+
+  /**
+   * Called after the lock of an object has been acquired.
+   * @return time spent waiting (nanoseconds)
+   */
+  long locked() {
+    final long time = System.nanoTime() - since;
+    final String db = DBLocking.database(waiting);
+    final Long old = waits.get(db);
+    waits.put(db, old == null ? time : old + time);
+    waiting = null;
+    return time;
+  }
+
+  /**
+   * Marks the transaction as running.
+   */
+  void start() {
+    started = System.nanoTime();
+  }
+
+  /**
+   * Returns the time since the transaction has acquired all locks.
+   * @return time (nanoseconds)
+   */
+  long started() {
+    return System.nanoTime() - started;
+  }
+
+  /**
+   * Checks if the specified list contains the database of an object.
+   * @param objects objects ({@code null}: all objects)
+   * @param object database or internal object
+   * @return result of check
+   */
+  private static boolean contains(final StringList objects, final String object) {
+    if(objects == null) return true;
+    for(final String o : objects) {
+      if(DBLocking.database(o).equals(object)) return true;
+    }
+    return false;
+  }
+}
@@ -0,0 +1,68 @@
+package org.basex.core.locks;
+
+import java.util.*;
+
+/**
+ * Lock that is acquired by transactions before they access the data of a database or
+ * document that may be updated. It can either be held by a single transaction in
+ * exclusive mode, or by several transactions in the same shared mode.
+ * Requests are granted in the order in which they arrive.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+final class WriterLock {
+  /** Lock modes. */
+  enum Mode {
+    /** Exclusive access: the database or document is updated. */
+    EXCLUSIVE,
+    /** Shared by transactions that update different documents of a database. */
+    DOCUMENTS,
+    /** Shared by transactions that read a database before applying updates elsewhere. */
+    SHARED
+  }
+
+  /** Queued requests. */
+  private final Queue<Object> queue = new LinkedList<>();
+  /** Current mode ({@code null} if the lock is not held). */
+  private Mode mode;
+  /** Number of transactions holding the lock. */
+  private int holders;
+
+  /**
+   * Acquires the lock.
+   * @param md lock mode
+   */
+  synchronized void lock(final Mode md) {
+    final Object request = new Object();
+    queue.add(request);
+    boolean interrupted = false;
+    while(queue.peek() != request || !(holders == 0 || mode == md && md != Mode.EXCLUSIVE)) {
+      try {
+        wait();
+      } catch(final InterruptedException ex) {
+        interrupted = true;
+      }
+    }
+    queue.remove();
+    mode = md;
+    holders++;
+    notifyAll();
+    if(interrupted) Thread.currentThread().interrupt();
+  }
+
+  /**
+   * Releases the lock.
+   */
+  synchronized void unlock() {
+    if(holders == 0) throw new IllegalMonitorStateException("Lock is not held.");
+    if(--holders == 0) mode = null;
+    notifyAll();
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "WriterLock[" + (mode == null ? "unlocked" : mode + " x " + holders) +
+        ", queued: " + queue.size() + ']';
+  }
+}
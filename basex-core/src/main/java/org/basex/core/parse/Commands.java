@@ -73,6 +73,12 @@ public interface Commands {
   String INFO_INDEX = "info-index";
   /** Command string: "info-storage". */
   String INFO_STORAGE = "info-storage";
+  /** Command string: "jobs-cancel". */
+  String JOBS_CANCEL = "jobs-cancel";
+  /** Command string: "jobs-list". */
+  String JOBS_LIST = "jobs-list";
+  /** Command string: "jobs-result". */
+  String JOBS_RESULT = "jobs-result";
   /** Command string: "kill". */
   String KILL = "kill";
   /** Command string: "list". */
@@ -111,6 +117,8 @@ public interface Commands {
   String SHOW_BACKUPS = "show-backups";
   /** Command string: "show-events". */
   String SHOW_EVENTS = "show-events";
+  /** Command string: "show-locks". */
+  String SHOW_LOCKS = "show-locks";
   /** Command string: "show-sessions". */
   String SHOW_SESSIONS = "show-sessions";
   /** Command string: "show-users". */
@@ -152,6 +160,8 @@ public interface Commands {
   String VALUE = "value";
   /** Command attribute: "command". */
   String COMMAND = "command";
+  /** Command attribute: "id". */
+  String ID = "id";
 
   /** Create commands. */
   enum CmdCreate { DATABASE, DB, INDEX, USER, BACKUP, EVENT }
@@ -162,7 +172,7 @@ public interface Commands {
   /** Optimize commands. */
   enum CmdOptimize { NULL, ALL }
   /** Show commands. */
-  enum CmdShow { SESSIONS, USERS, BACKUPS, EVENTS }
+  enum CmdShow { SESSIONS, USERS, BACKUPS, EVENTS, LOCKS }
   /** Permission commands. */
   enum CmdPerm { NONE, READ, WRITE, CREATE, ADMIN }
   /** Index types. */
@@ -173,14 +183,17 @@ public interface Commands {
   enum CmdAlter { DATABASE, DB, PASSWORD, USER }
   /** Repo types. */
   enum CmdRepo { INSTALL, DELETE, LIST }
+  /** Jobs types. */
+  enum CmdJobs { LIST, RESULT, CANCEL }
 
   /** Command definitions. */
   enum Cmd {
     ADD(HELPADD), ALTER(HELPALTER), CHECK(HELPCHECK), CLOSE(HELPCLOSE), COPY(HELPCOPY),
     CREATE(HELPCREATE), DELETE(HELPDELETE), DROP(HELPDROP), EXIT(HELPEXIT),
     EXPORT(HELPEXPORT), FIND(HELPFIND), FLUSH(HELPFLUSH), GET(HELPGET), GRANT(HELPGRANT),
-    HELP(HELPHELP), INFO(HELPINFO), INSPECT(HELPINSPECT), KILL(HELPKILL), LIST(HELPLIST),
-    OPEN(HELPOPEN), OPTIMIZE(HELPOPTIMIZE), PASSWORD(HELPPASSWORD), QUIT(HELPEXIT),
+    HELP(HELPHELP), INFO(HELPINFO), INSPECT(HELPINSPECT), JOBS(HELPJOBS), KILL(HELPKILL),
+    LIST(HELPLIST), OPEN(HELPOPEN), OPTIMIZE(HELPOPTIMIZE), PASSWORD(HELPPASSWORD),
+    QUIT(HELPEXIT),
     RENAME(HELPRENAME), REPLACE(HELPREPLACE), REPO(HELPREPO), RESTORE(HELPRESTORE),
     RETRIEVE(HELPRETRIEVE), RUN(HELPRUN), EXECUTE(HELPEXECUTE), SET(HELPSET),
     SHOW(HELPSHOW), STORE(HELPSTORE), TEST(HELPTEST), XQUERY(HELPXQUERY);
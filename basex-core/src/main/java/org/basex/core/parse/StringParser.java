@@ -18,6 +18,7 @@ import org.basex.core.parse.Commands.CmdIndexInfo;
 import org.basex.core.parse.Commands.CmdInfo;
 import org.basex.core.parse.Commands.CmdOptimize;
 import org.basex.core.parse.Commands.CmdPerm;
+import org.basex.core.parse.Commands.CmdJobs;
 import org.basex.core.parse.Commands.CmdRepo;
 import org.basex.core.parse.Commands.CmdShow;
 import org.basex.query.*;
@@ -195,6 +196,8 @@ final class StringParser extends CmdParser {
             return new ShowBackups();
           case EVENTS:
             return new ShowEvents();
+          case LOCKS:
+            return new ShowLocks();
         }
         break;
       case GRANT:
@@ -203,6 +206,16 @@ final class StringParser extends CmdParser {
         final String db = key(ON, null) ? glob(cmd) : null;
         key(S_TO, cmd);
         return new Grant(perm, glob(cmd), db);
+      case JOBS:
+        switch(consume(CmdJobs.class, cmd)) {
+          case LIST:
+            return new JobsList();
+          case RESULT:
+            return new JobsResult(string(cmd));
+          case CANCEL:
+            return new JobsCancel(string(cmd));
+        }
+        break;
       case REPO:
         switch(consume(CmdRepo.class, cmd)) {
           case INSTALL:
@@ -117,6 +117,12 @@ final class XMLParser extends CmdParser {
       return new InfoIndex(value(root, TYPE));
     if(e.equals(INFO_STORAGE) && check(root, '#' + QUERY + '?'))
       return new InfoStorage(value(root));
+    if(e.equals(JOBS_CANCEL) && check(root, ID))
+      return new JobsCancel(value(root, ID));
+    if(e.equals(JOBS_LIST) && check(root))
+      return new JobsList();
+    if(e.equals(JOBS_RESULT) && check(root, ID))
+      return new JobsResult(value(root, ID));
     if(e.equals(KILL) && check(root, TARGET + '?'))
       return new Kill(value(root, TARGET));
     if(e.equals(LIST) && check(root, NAME + '?', PATH + '?'))
@@ -157,6 +163,8 @@ final class XMLParser extends CmdParser {
       return new ShowBackups();
     if(e.equals(SHOW_EVENTS) && check(root))
       return new ShowEvents();
+    if(e.equals(SHOW_LOCKS) && check(root))
+      return new ShowLocks();
     if(e.equals(SHOW_SESSIONS) && check(root))
       return new ShowSessions();
     if(e.equals(SHOW_USERS) && check(root, DATABASE + '?'))
@@ -160,6 +160,18 @@ public final class DiskData extends Data {
     }
   }
 
+  /**
+   * Adds the number of buffer hits and misses of the table and the text and attribute value
+   * files to the specified counters.
+   * @param counts counters for hits and misses
+   */
+  public void buffers(final long[] counts) {
+    if(closed) return;
+    table.buffers(counts);
+    texts.buffers(counts);
+    values.buffers(counts);
+  }
+
   @Override
   public synchronized void unpin() {
     COMPRESS.remove();
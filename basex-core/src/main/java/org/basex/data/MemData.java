@@ -140,6 +140,7 @@ public final class MemData extends Data {
 
   @Override
   protected long index(final int pre, final int id, final byte[] txt, final int kind) {
+    Profile.memory(Profile.OBJECT + txt.length);
     return values(kind != ATTR).put(txt, meta.updindex ? id : pre);
   }
 
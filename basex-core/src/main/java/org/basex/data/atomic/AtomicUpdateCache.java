@@ -196,6 +196,20 @@ public final class AtomicUpdateCache {
     return struct.size() + val.size();
   }
 
+  /**
+   * Returns the number of nodes that will be inserted by the structural updates.
+   * @return number of inserted nodes
+   */
+  public long inserted() {
+    flush();
+    long nodes = 0;
+    for(final StructuralUpdate update : struct) {
+      final DataClip clip = update.getInsertionData();
+      if(clip != null) nodes += clip.size();
+    }
+    return nodes;
+  }
+
   /**
    * Checks the given sequence of two updates for violations.
    *
@@ -115,7 +115,7 @@ final class DialogJsonParser extends DialogParser {
         } else {
           json = EXAMPLE;
         }
-        final DBNode node = new DBNode(JsonParser.toXML(new IOContent(json), jopts));
+        final DBNode node = new DBNode(new JsonParser(new IOContent(json), new MainOptions(), jopts));
         example.setText(example(MainParser.JSON.name(), json, node.serialize().toString()));
       }
     } catch(final IOException ex) {
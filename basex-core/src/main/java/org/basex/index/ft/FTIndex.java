@@ -119,6 +119,7 @@ public final class FTIndex implements Index {
 
   @Override
   public synchronized IndexIterator iter(final IndexToken it) {
+    Profile.probe();
     final byte[] tok = it.get();
 
     // wildcard search
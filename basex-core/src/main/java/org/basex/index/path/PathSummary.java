@@ -3,6 +3,7 @@ package org.basex.index.path;
 import static org.basex.util.Token.*;
 
 import java.io.*;
+import java.lang.ref.*;
 import java.util.*;
 
 import org.basex.core.*;
@@ -28,6 +29,9 @@ public final class PathSummary implements Index {
   private Data data;
   /** Root node. */
   private PathNode root;
+  /** Cached numeric values of text and attribute nodes (see {@link #values(PathNode)}). */
+  private final IdentityHashMap<PathNode, SoftReference<double[]>> columns =
+      new IdentityHashMap<>();
 
   /**
    * Constructor.
@@ -80,6 +84,9 @@ public final class PathSummary implements Index {
     root = new PathNode();
     stack.clear();
     stack.add(root);
+    synchronized(columns) {
+      columns.clear();
+    }
   }
 
   @Override
@@ -233,6 +240,62 @@ public final class PathSummary implements Index {
 
   // Info =====================================================================
 
+  /**
+   * Returns the numeric values of all text or attribute nodes that are assigned to the
+   * specified path node. The values are parsed once and cached in a dense array until
+   * the summary is rebuilt, or until the memory is needed otherwise.
+   * The summary must be up-to-date.
+   * @param node text or attribute path node
+   * @return values in document order, or {@code null} if a value is no number
+   */
+  public double[] values(final PathNode node) {
+    synchronized(columns) {
+      final SoftReference<double[]> ref = columns.get(node);
+      final double[] values = ref != null ? ref.get() : null;
+      if(values != null) return values.length == 0 ? null : values;
+    }
+
+    final double[] values = column(node);
+    synchronized(columns) {
+      columns.put(node, new SoftReference<>(values != null ? values : new double[0]));
+    }
+    return values;
+  }
+
+  /**
+   * Parses the numeric values of all nodes that are assigned to the specified path node.
+   * Only subtrees of the ancestors of the path node will be traversed.
+   * @param node text or attribute path node
+   * @return values in document order, or {@code null} if a value is no number
+   */
+  private double[] column(final PathNode node) {
+    final ArrayList<PathNode> anc = new ArrayList<>();
+    for(PathNode pn = node; pn != null; pn = pn.parent) anc.add(0, pn);
+    final int last = anc.size() - 1, size = data.meta.size;
+
+    final double[] values = new double[node.stats.count];
+    int v = 0;
+    final IntList pars = new IntList();
+    for(int pre = 0; pre < size;) {
+      final int kind = data.kind(pre), par = data.parent(pre, kind);
+      while(!pars.isEmpty() && pars.peek() != par) pars.pop();
+      final int level = pars.size();
+      final PathNode pn = anc.get(level);
+      if(pn.kind != kind || (kind == Data.ELEM || kind == Data.ATTR) && pn.name != data.name(pre)) {
+        // skip subtree with a different path
+        pre += data.size(pre, kind);
+      } else if(level == last) {
+        final double d = data.textDbl(pre, kind == Data.TEXT);
+        if(Double.isNaN(d) || v == values.length) return null;
+        values[v++] = d;
+        pre++;
+      } else {
+        pars.push(pre++);
+      }
+    }
+    return v == values.length ? values : null;
+  }
+
   @Override
   public byte[] info(final MainOptions options) {
     return root != null ? chop(root.info(data, 0), 1 << 20) : EMPTY;
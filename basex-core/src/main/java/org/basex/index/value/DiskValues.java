@@ -101,6 +101,7 @@ public class DiskValues implements Index {
 
   @Override
   public IndexIterator iter(final IndexToken it) {
+    Profile.probe();
     if(it instanceof StringRange) return idRange((StringRange) it);
     if(it instanceof NumericRange) return idRange((NumericRange) it);
     final IndexEntry e = entry(it.get());
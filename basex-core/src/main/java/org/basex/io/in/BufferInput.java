@@ -116,6 +116,16 @@ public class BufferInput extends InputStream {
     return buf[bpos++] & 0xFF;
   }
 
+  /**
+   * Returns the number of bytes that can be read without blocking.
+   * @return number of bytes
+   * @throws IOException I/O exception
+   */
+  @Override
+  public int available() throws IOException {
+    return bsize - bpos + (in == null ? 0 : in.available());
+  }
+
   /**
    * Reads a string from the input stream, suffixed by a {@code 0} byte.
    * @return string
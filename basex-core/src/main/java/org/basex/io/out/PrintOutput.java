@@ -57,7 +57,7 @@ public class PrintOutput extends OutputStream {
    * Note that the limit might break unicode characters.
    * @param limit maximum
    */
-  public final void setLimit(final int limit) {
+  public final void setLimit(final long limit) {
     max = limit;
   }
 
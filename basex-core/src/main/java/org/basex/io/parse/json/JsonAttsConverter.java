@@ -26,12 +26,12 @@ public final class JsonAttsConverter extends JsonXmlConverter {
   }
 
   @Override
-  void openObject() {
+  protected void openObject() {
     addType(OBJECT);
   }
 
   @Override
-  void openPair(final byte[] name) {
+  protected void openPair(final byte[] name) {
     final FElem e = new FElem(PAIR).add(NAME, name);
     curr.add(e);
     curr = e;
@@ -39,34 +39,34 @@ public final class JsonAttsConverter extends JsonXmlConverter {
   }
 
   @Override
-  void closePair(final boolean add) {
+  protected void closePair(final boolean add) {
     curr = (FElem) curr.parent();
   }
 
   @Override
-  void closeObject() {
+  protected void closeObject() {
   }
 
   @Override
-  void openArray() {
+  protected void openArray() {
     addType(ARRAY);
     nm = null;
   }
 
   @Override
-  void openItem() {
+  protected void openItem() {
     final FElem e = new FElem(ITEM);
     curr.add(e);
     curr = e;
   }
 
   @Override
-  void closeItem() {
+  protected void closeItem() {
     curr = (FElem) curr.parent();
   }
 
   @Override
-  void closeArray() {
+  protected void closeArray() {
   }
 
   @Override
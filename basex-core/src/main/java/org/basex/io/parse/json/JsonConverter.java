@@ -25,7 +25,7 @@ public abstract class JsonConverter {
    * Constructor.
    * @param jopts json options
    */
-  JsonConverter(final JsonParserOptions jopts) {
+  protected JsonConverter(final JsonParserOptions jopts) {
     this.jopts = jopts;
   }
 
@@ -46,8 +46,18 @@ public abstract class JsonConverter {
    * @return result
    */
   public Item convert(final IO input) throws IOException {
-    final String encoding = jopts.get(JsonParserOptions.ENCODING);
-    return convert(new NewlineInput(input).encoding(encoding).content(), input.path());
+    final String encoding = jopts.get(JsonParserOptions.ENCODING), path = input.path();
+    try(final NewlineInput nli = new NewlineInput(input)) {
+      nli.encoding(encoding);
+      if(!jopts.get(JsonParserOptions.LINES)) return convert(nli.content(), path);
+
+      // line-delimited input: only keep a single line in main memory
+      final TokenBuilder tb = new TokenBuilder();
+      openArray();
+      while(nli.readLine(tb)) line(tb.toString(), path);
+      closeArray();
+    }
+    return finish();
   }
 
   /**
@@ -58,10 +68,30 @@ public abstract class JsonConverter {
    * @return result
    */
   public Item convert(final byte[] input, final String path) throws QueryIOException {
-    JsonParser.parse(Token.string(input), path, jopts, this);
+    if(jopts.get(JsonParserOptions.LINES)) {
+      openArray();
+      for(final String line : Token.string(input).split("\r\n?|\n")) line(line, path);
+      closeArray();
+    } else {
+      JsonParser.parse(Token.string(input), path, jopts, this);
+    }
     return finish();
   }
 
+  /**
+   * Parses a single line of line-delimited input and adds it as array member.
+   * Lines consisting of whitespaces will be ignored.
+   * @param line line
+   * @param path input path (can be {@code null)}
+   * @throws QueryIOException query I/O exception
+   */
+  private void line(final String line, final String path) throws QueryIOException {
+    if(line.trim().isEmpty()) return;
+    openItem();
+    JsonParser.parse(line, path, jopts, this);
+    closeItem();
+  }
+
   /**
    * Returns a JSON converter for the given configuration.
    * @param jopts options
@@ -80,104 +110,108 @@ public abstract class JsonConverter {
    * Called when a JSON object is opened.
    * @throws QueryIOException query exception
    */
-  abstract void openObject() throws QueryIOException;
+  protected abstract void openObject() throws QueryIOException;
 
   /**
    * Called when a pair of a JSON object is opened.
    * @param key the key of the entry
    * @throws QueryIOException query exception
    */
-  abstract void openPair(byte[] key) throws QueryIOException;
+  protected abstract void openPair(byte[] key) throws QueryIOException;
 
   /**
    * Called when a pair of a JSON object is closed.
    * @param add add pair
    * @throws QueryIOException query exception
    */
-  abstract void closePair(boolean add) throws QueryIOException;
+  protected abstract void closePair(boolean add) throws QueryIOException;
 
   /**
    * Called when a JSON object is closed.
+   * @throws QueryIOException query exception
    */
-  abstract void closeObject();
+  protected abstract void closeObject() throws QueryIOException;
 
   /**
    * Called when a JSON array is opened.
    * @throws QueryIOException query exception
    */
-  abstract void openArray() throws QueryIOException;
+  protected abstract void openArray() throws QueryIOException;
 
   /**
    * Called when an item of a JSON array is opened.
+   * @throws QueryIOException query exception
    */
-  abstract void openItem();
+  protected abstract void openItem() throws QueryIOException;
 
   /**
    * Called when an item of a JSON array is closed.
    * @throws QueryIOException query exception
    */
-  abstract void closeItem() throws QueryIOException;
+  protected abstract void closeItem() throws QueryIOException;
 
   /**
    * Called when a JSON array is closed.
    * @throws QueryIOException query exception
    */
-  abstract void closeArray() throws QueryIOException;
+  protected abstract void closeArray() throws QueryIOException;
 
   /**
    * Called when a constructor function is opened.
    * @param name name of the constructor
    * @throws QueryIOException query exception
    */
-  abstract void openConstr(byte[] name) throws QueryIOException;
+  protected abstract void openConstr(byte[] name) throws QueryIOException;
 
   /**
    * Called when an argument of a constructor function is opened.
+   * @throws QueryIOException query exception
    */
-  abstract void openArg();
+  protected abstract void openArg() throws QueryIOException;
 
   /**
    * Called when an argument of a constructor function is closed.
    * @throws QueryIOException query exception
    */
-  abstract void closeArg() throws QueryIOException;
+  protected abstract void closeArg() throws QueryIOException;
 
   /**
    * Called when a constructor function is closed.
    * @throws QueryIOException query exception
    */
-  abstract void closeConstr() throws QueryIOException;
+  protected abstract void closeConstr() throws QueryIOException;
 
   /**
    * Called when a number literal is encountered.
    * @param value string representation of the number literal
    * @throws QueryIOException query exception
    */
-  abstract void numberLit(byte[] value) throws QueryIOException;
+  protected abstract void numberLit(byte[] value) throws QueryIOException;
 
   /**
    * Called when a string literal is encountered.
    * @param bs the string
    * @throws QueryIOException query exception
    */
-  abstract void stringLit(byte[] bs) throws QueryIOException;
+  protected abstract void stringLit(byte[] bs) throws QueryIOException;
 
   /**
    * Called when a {@code null} literal is encountered.
    * @throws QueryIOException query exception
    */
-  abstract void nullLit() throws QueryIOException;
+  protected abstract void nullLit() throws QueryIOException;
 
   /**
    * Called when a boolean literal is encountered.
    * @param b the boolean
    * @throws QueryIOException query exception
    */
-  abstract void booleanLit(byte[] b) throws QueryIOException;
+  protected abstract void booleanLit(byte[] b) throws QueryIOException;
 
   /**
    * Returns the resulting XQuery value.
    * @return result
+   * @throws QueryIOException query exception
    */
-  abstract Item finish();
+  protected abstract Item finish() throws QueryIOException;
 }
@@ -80,39 +80,39 @@ public final class JsonDirectConverter extends JsonXmlConverter {
   }
 
   @Override
-  void openObject() {
+  protected void openObject() {
     curr = addElem(OBJECT);
   }
 
   @Override
-  void openPair(final byte[] key) {
+  protected void openPair(final byte[] key) {
     name = XMLToken.encode(key, lax);
   }
 
   @Override
-  void closePair(final boolean add) { }
+  protected void closePair(final boolean add) { }
 
   @Override
-  void closeObject() {
+  protected void closeObject() {
     final FElem par = (FElem) curr.parent();
     if(par != null) curr = par;
   }
 
   @Override
-  void openArray() {
+  protected void openArray() {
     curr = addElem(ARRAY);
   }
 
   @Override
-  void openItem() {
+  protected void openItem() {
     name = VALUE;
   }
 
   @Override
-  void closeItem() { }
+  protected void closeItem() { }
 
   @Override
-  void closeArray() {
+  protected void closeArray() {
     closeObject();
   }
 
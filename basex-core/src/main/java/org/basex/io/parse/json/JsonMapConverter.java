@@ -55,17 +55,17 @@ public final class JsonMapConverter extends JsonConverter {
   }
 
   @Override
-  void openObject() {
+  protected void openObject() {
     maps.push(Map.EMPTY);
   }
 
   @Override
-  void openPair(final byte[] key) {
+  protected void openPair(final byte[] key) {
     stack.push(Str.get(key));
   }
 
   @Override
-  void closePair(final boolean add) throws QueryIOException {
+  protected void closePair(final boolean add) throws QueryIOException {
     final Value val = stack.pop();
     final Item key = (Item) stack.pop();
     if(add) {
@@ -78,26 +78,26 @@ public final class JsonMapConverter extends JsonConverter {
   }
 
   @Override
-  void closeObject() {
+  protected void closeObject() {
     stack.push(maps.pop());
   }
 
   @Override
-  void openArray() {
+  protected void openArray() {
     arrays.push(new ValueList());
   }
 
   @Override
-  void openItem() {
+  protected void openItem() {
   }
 
   @Override
-  void closeItem() throws QueryIOException {
+  protected void closeItem() throws QueryIOException {
     arrays.peek().add(stack.pop());
   }
 
   @Override
-  void closeArray() {
+  protected void closeArray() {
     stack.push(arrays.pop().array());
   }
 
@@ -13,6 +13,10 @@ final class Buffers {
   private final Buffer[] buf = new Buffer[BUFFERS];
   /** Current buffer offset. */
   private int off;
+  /** Number of buffer hits (not synchronized, as it is only used for statistics). */
+  private long hits;
+  /** Number of buffer misses (not synchronized, as it is only used for statistics). */
+  private long misses;
 
   /**
    * Constructor.
@@ -45,9 +49,22 @@ final class Buffers {
   boolean cursor(final long p) {
     final int o = off;
     do {
-      if(buf[off].pos == p) return false;
+      if(buf[off].pos == p) {
+        hits++;
+        return false;
+      }
     } while((off = off + 1 & BUFFERS - 1) != o);
     off = o + 1 & BUFFERS - 1;
+    misses++;
     return true;
   }
+
+  /**
+   * Adds the number of buffer hits and misses to the specified counters.
+   * @param counts counters for hits and misses
+   */
+  void stats(final long[] counts) {
+    counts[0] += hits;
+    counts[1] += misses;
+  }
 }
@@ -56,6 +56,14 @@ public final class DataAccess implements Closeable {
     }
   }
 
+  /**
+   * Adds the number of buffer hits and misses to the specified counters.
+   * @param counts counters for hits and misses
+   */
+  public void buffers(final long[] counts) {
+    bm.stats(counts);
+  }
+
   @Override
   public synchronized void close() {
     flush();
@@ -222,8 +230,11 @@ public final class DataAccess implements Closeable {
       if(bf.dirty) writeBlock(bf);
       bf.pos = b;
       raf.seek(bf.pos);
-      if(bf.pos < raf.length())
-        raf.readFully(bf.data, 0, (int) Math.min(length - bf.pos, IO.BLOCKSIZE));
+      if(bf.pos < raf.length()) {
+        final int l = (int) Math.min(length - bf.pos, IO.BLOCKSIZE);
+        raf.readFully(bf.data, 0, l);
+        Profile.fault(l);
+      }
     } catch(final IOException ex) {
       Util.stack(ex);
     }
@@ -33,6 +33,13 @@ public abstract class TableAccess {
    */
   public abstract void flush(final boolean all) throws IOException;
 
+  /**
+   * Adds the number of buffer hits and misses to the specified counters.
+   * Overwritten by tables that are accessed via buffers.
+   * @param counts counters for hits and misses
+   */
+  public void buffers(final long[] counts) { }
+
   /**
    * Closes the table access.
    * @throws IOException I/O exception
@@ -125,6 +125,11 @@ public final class TableDiskAccess extends TableAccess {
     dirty = false;
   }
 
+  @Override
+  public void buffers(final long[] counts) {
+    bm.stats(counts);
+  }
+
   @Override
   public synchronized void close() throws IOException {
     flush(true);
@@ -508,6 +513,7 @@ public final class TableDiskAccess extends TableAccess {
    * @param b block to fetch
    */
   private void readBlock(final int b) {
+    Profile.block();
     if(!bm.cursor(b)) return;
 
     final Buffer bf = bm.current();
@@ -519,6 +525,7 @@ public final class TableDiskAccess extends TableAccess {
       } else {
         file.seek(bf.pos * IO.BLOCKSIZE);
         file.readFully(bf.data);
+        Profile.fault(IO.BLOCKSIZE);
       }
     } catch(final IOException ex) {
       Util.stack(ex);
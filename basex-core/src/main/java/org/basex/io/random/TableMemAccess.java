@@ -128,6 +128,8 @@ public final class TableMemAccess extends TableAccess {
     final int l = meta.size - op;
     while(l + np >= buf1.length) {
       final int s = Array.newSize(buf1.length);
+      // each node occupies two long values
+      Profile.memory((long) (s - buf1.length) << 4);
       buf1 = Arrays.copyOf(buf1, s);
       buf2 = Arrays.copyOf(buf2, s);
     }
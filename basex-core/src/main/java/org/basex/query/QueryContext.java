@@ -351,6 +351,9 @@ public final class QueryContext extends Proc implements Closeable {
         if(qcParent == null) {
           final ValueBuilder output = resources.output;
 
+          // lock databases exclusively before the updates are prepared
+          context.upgrade();
+
           // copy nodes that will be affected by an update operation
           final HashSet<Data> datas = updates.prepare(this);
           final StringList dbs = updates.databases();
@@ -435,6 +438,20 @@ public final class QueryContext extends Proc implements Closeable {
     // replace collection lock with context lock
     if(lr.read.delete(Docs.COLL)) lr.read.add(DBLocking.CONTEXT);
     if(lr.write.delete(Docs.COLL)) lr.write.add(DBLocking.CONTEXT);
+
+    // adopt priority from the query prolog (options will be assigned after locking)
+    final int os = tempOpts.size();
+    for(int o = 0; o < os; o += 2) {
+      if(tempOpts.get(o).equalsIgnoreCase(MainOptions.PRIORITY.name())) {
+        final int priority = Strings.toInt(tempOpts.get(o + 1));
+        if(priority != Integer.MIN_VALUE) lr.priority = priority;
+      }
+    }
+  }
+
+  @Override
+  public boolean pendingUpdates() {
+    return true;
   }
 
   /**
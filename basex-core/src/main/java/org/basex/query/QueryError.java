@@ -43,6 +43,10 @@ public enum QueryError {
   BASX_ANNTYPE_X_X_X(BASX, 6, "%: % expected, % found."),
   /** BASX0007. */
   BASX_TWICE_X_X(BASX, 6, "Annotation %% was declared twice."),
+  /** BASX0008. */
+  BASX_MEMORY_X(BASX, 8, "Memory limit of query exceeded (%)."),
+  /** BASX0008. */
+  BASX_USERMEMORY_X_X(BASX, 8, "Memory limit of all queries of user '%' exceeded (%)."),
 
   /** XUST0002. */
   BASEX_MOD(XUST, 2, "All transform expressions must be updating or return an empty sequence."),
@@ -127,6 +131,8 @@ public enum QueryError {
   BXDB_NOBACKUP_X(BXDB, 15, "No backup found: %."),
   /** BXDB0016. */
   BXDB_SAME_X(BXDB, 16, "Name of source and target database is equal: %."),
+  /** BXDB0017. */
+  BXDB_LIMIT_X(BXDB, 17, "Maximum number of nodes in database '%' would be exceeded."),
 
   // Fetch module
 
@@ -145,6 +151,17 @@ public enum QueryError {
   /** BXHL0001. */
   BXHL_IO_X(BXHL, 1, "%"),
 
+  // Jobs module
+
+  /** BXJO0001. */
+  BXJO_UNKNOWN_X(BXJO, 1, "Job '%' is unknown."),
+  /** BXJO0002. */
+  BXJO_RESULT_X_X(BXJO, 2, "No result available for job '%' (%)."),
+  /** BXJO0003. */
+  BXJO_FAILED_X_X(BXJO, 3, "Job '%' failed: %"),
+  /** BXJO0004. */
+  BXJO_SIZE_X(BXJO, 4, "Result exceeds maximum size of %."),
+
   // JSON module
 
   /** BXJS0001. */
@@ -1338,6 +1355,7 @@ public enum QueryError {
     /** BXFE Error type. */ BXFE(BXERR_PREFIX, BXERRORS_URI),
     /** BXFT Error type. */ BXFT(BXERR_PREFIX, BXERRORS_URI),
     /** BXHL Error type. */ BXHL(BXERR_PREFIX, BXERRORS_URI),
+    /** BXJO Error type. */ BXJO(BXERR_PREFIX, BXERRORS_URI),
     /** BXJS Error type. */ BXJS(BXERR_PREFIX, BXERRORS_URI),
     /** BXPR Error type. */ BXPR(BXERR_PREFIX, BXERRORS_URI),
     /** BXRA Error type. */ BXRA(BXERR_PREFIX, BXERRORS_URI),
@@ -10,6 +10,7 @@ import org.basex.io.*;
 import org.basex.query.func.*;
 import org.basex.query.util.*;
 import org.basex.query.value.item.*;
+import org.basex.query.value.node.*;
 import org.basex.query.var.*;
 import org.basex.util.*;
 import org.basex.util.list.*;
@@ -36,6 +37,8 @@ public final class QueryInfo {
   public long evaluating;
   /** Serialization time. */
   public long serializing;
+  /** Consumed resources. */
+  public final Profile profile = new Profile();
 
   /** Query. */
   String query;
@@ -103,6 +106,7 @@ public final class QueryInfo {
       tb.add(HITS_X_CC + hits).add(' ').add(hits == 1 ? ITEM : ITEMS).add(NL);
       tb.add(UPDATED_CC + up).add(' ').add(up == 1 ? ITEM : ITEMS).add(NL);
       tb.add(PRINTED_CC).add(Performance.format(printed)).add(NL);
+      tb.add(RESOURCES_CC).add(profile.toString()).add(NL);
       tb.add(READ_LOCKING_CC);
       if(readLocked == null) tb.add(GLOBAL);
       else if(readLocked.isEmpty()) tb.add(NONE);
@@ -119,6 +123,18 @@ public final class QueryInfo {
     return tb.toString();
   }
 
+  /**
+   * Returns the consumed resources as element.
+   * @return element
+   */
+  public FElem profile() {
+    final FElem elem = new FElem(QueryText.PROFILE);
+    elem.add("blocks", token(profile.blocks.get())).add("faults", token(profile.faults.get()));
+    elem.add("bytes", token(profile.bytes.get())).add("probes", token(profile.probes.get()));
+    elem.add("items", token(profile.items.get()));
+    return elem.add("memory", token(profile.peak.get()));
+  }
+
   /**
    * Returns detailed compilation and evaluation information.
    * @param qc query context
@@ -0,0 +1,33 @@
+package org.basex.query;
+
+/**
+ * A runtime exception, which is thrown if a query exceeds a resource limit.
+ * In contrast to the {@link QueryRTException}, it will not be caught by the query itself;
+ * instead, the wrapped {@link QueryException} will be reported to the client.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class QueryLimitException extends RuntimeException {
+  /** Serial version UID. */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Constructor.
+   * @param cause query exception to wrap
+   */
+  public QueryLimitException(final QueryException cause) {
+    super(cause);
+  }
+
+  @Override
+  public synchronized QueryException getCause() {
+    return (QueryException) super.getCause();
+  }
+
+  @Override
+  public synchronized Throwable fillInStackTrace() {
+    // do nothing for performance reasons, the stack's never used anyway
+    return this;
+  }
+}
@@ -241,6 +241,11 @@ public final class QueryProcessor extends Proc implements Closeable {
     qc.databases(lr);
   }
 
+  @Override
+  public boolean pendingUpdates() {
+    return true;
+  }
+
   /**
    * Returns the number of performed updates after query execution, or {@code 0}.
    * @return number of updates
@@ -41,6 +41,8 @@ public final class QueryResources {
   private final ArrayList<String> collNames = new ArrayList<>(1);
   /** Opened databases. */
   private final ArrayList<Data> datas = new ArrayList<>(1);
+  /** Shards of collections. */
+  private final HashMap<String, StringList> shards = new HashMap<>();
   /** Indicates if the first database in the context is globally opened. */
   private boolean globalData;
 
@@ -138,6 +140,80 @@ public final class QueryResources {
     }
   }
 
+  /**
+   * Opens the database to which the specified path is assigned. If the name references
+   * a {@link Shards sharded collection}, the shard is chosen via
+   * {@link Shards#route(String, int)}.
+   * @param name name of database or collection
+   * @param path database path
+   * @param info input info
+   * @return database instance
+   * @throws QueryException query exception
+   */
+  public Data database(final String name, final String path, final InputInfo info)
+      throws QueryException {
+    final StringList shards = shards(name);
+    final int ss = shards.size();
+    if(ss == 0) return database(name, info);
+
+    final String norm = MetaData.normPath(path);
+    return database(shards.get(Shards.route(norm != null ? norm : path, ss)), info);
+  }
+
+  /**
+   * Indicates if the specified name references a {@link Shards sharded collection}.
+   * @param name name of database or collection
+   * @return result of check
+   */
+  public boolean sharded(final String name) {
+    return !shards(name).isEmpty();
+  }
+
+  /**
+   * Opens all databases of the specified name. If the name references a
+   * {@link Shards sharded collection}, all of its shards are returned.
+   * @param name name of database or collection
+   * @param info input info
+   * @return database instances
+   * @throws QueryException query exception
+   */
+  public Data[] databases(final String name, final InputInfo info) throws QueryException {
+    return databases(name, shards(name), info);
+  }
+
+  /**
+   * Opens a database or the shards of a collection.
+   * @param name name of database or collection
+   * @param shards names of shards (empty if the name references no collection)
+   * @param info input info
+   * @return database instances
+   * @throws QueryException query exception
+   */
+  private Data[] databases(final String name, final StringList shards, final InputInfo info)
+      throws QueryException {
+    final int ss = shards.size();
+    if(ss == 0) return new Data[] { database(name, info) };
+
+    final Data[] dts = new Data[ss];
+    for(int s = 0; s < ss; s++) dts[s] = database(shards.get(s), info);
+    return dts;
+  }
+
+  /**
+   * Returns the documents of all databases of the specified name.
+   * If the name references a {@link Shards sharded collection}, the documents of all shards
+   * are returned in the order of the shards.
+   * @param name name of database or collection
+   * @param path normalized database path
+   * @param info input info
+   * @return documents
+   * @throws QueryException query exception
+   */
+  public Value docs(final String name, final String path, final InputInfo info)
+      throws QueryException {
+    return docs(databases(name, info), path);
+  }
+
   /**
    * Evaluates {@code fn:doc()}: opens an existing database document, or creates a new
    * database and node.
@@ -230,8 +306,12 @@ public final class QueryResources {
       }
     }
 
-    // open new database, or create new instance
+    // open new database, sharded collection, or create new instance
     if(dt == null) dt = open(qi);
+    if(dt == null && qi.db != null) {
+      final StringList shards = shards(qi.db);
+      if(!shards.isEmpty()) return docs(databases(qi.db, shards, info), qi.path);
+    }
     if(dt == null) dt = create(qi, false, baseIO, info);
     return DBNodeSeq.get(dt.resources.docs(qi.path), dt, true, qi.path.isEmpty());
   }
@@ -344,6 +424,45 @@ public final class QueryResources {
 
   // PRIVATE METHODS ==============================================================================
 
+  /**
+   * Returns the names of the shards of a collection.
+   * The shards of a collection are only determined once per query.
+   * @param name name of database or collection
+   * @return names of shards (empty if a database with the specified name is opened or exists)
+   */
+  private StringList shards(final String name) {
+    for(final Data data : datas) {
+      if(data.inMemory()) continue;
+      final String n = data.meta.name;
+      if(Prop.CASE ? n.equals(name) : n.equalsIgnoreCase(name)) return new StringList(0);
+    }
+    final String key = Prop.CASE ? name : name.toLowerCase(Locale.ENGLISH);
+    StringList list = shards.get(key);
+    if(list == null) {
+      list = Shards.list(name, qc.context);
+      shards.put(key, list);
+    }
+    return list;
+  }
+
+  /**
+   * Returns the documents of the specified databases.
+   * @param dts databases
+   * @param path normalized database path
+   * @return documents
+   */
+  private static Value docs(final Data[] dts, final String path) {
+    if(dts.length == 1) {
+      final Data data = dts[0];
+      return DBNodeSeq.get(data.resources.docs(path), data, true, path.isEmpty());
+    }
+    final ValueBuilder vb = new ValueBuilder();
+    for(final Data data : dts) {
+      vb.add(DBNodeSeq.get(data.resources.docs(path), data, true, path.isEmpty()));
+    }
+    return vb.value();
+  }
+
   /**
    * Tries to open the addressed database, or returns {@code null}.
    * @param input query input
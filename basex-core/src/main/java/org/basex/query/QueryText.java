@@ -550,6 +550,8 @@ public interface QueryText {
   byte[] VLDT_PREFIX = token("validate");
   /** Web token. */
   byte[] WEB_PREFIX = token("web");
+  /** Jobs token. */
+  byte[] JOBS_PREFIX = token("jobs");
   /** XQDoc token. */
   byte[] INSPECT_PREFIX = token("inspect");
   /** XQuery token. */
@@ -652,6 +654,8 @@ public interface QueryText {
   byte[] INPUT_URI = token(BXMODULES_URI + "input");
   /** Inspect module URI. */
   byte[] INSPECT_URI = token(BXMODULES_URI + "inspect");
+  /** Jobs module URI. */
+  byte[] JOBS_URI = token(BXMODULES_URI + "jobs");
   /** JSON module URI. */
   byte[] JSON_URI = token(BXMODULES_URI + "json");
   /** Output module URI. */
@@ -715,6 +719,8 @@ public interface QueryText {
   byte[] PLAN = token("QueryPlan");
   /** Query Info: compiled. */
   byte[] COMPILED = token("compiled");
+  /** Query Info: profile. */
+  byte[] PROFILE = token("QueryProfile");
   /** Query Plan. */
   byte[] OP = token("op");
   /** Query Plan. */
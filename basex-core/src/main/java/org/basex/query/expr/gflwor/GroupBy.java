@@ -92,11 +92,18 @@ public final class GroupBy extends Clause {
       private Group[] groups;
       /** Current position. */
       private int pos;
+      /** Estimated memory of the groups (bytes). */
+      private long memory;
 
       @Override
       public boolean next(final QueryContext qc) throws QueryException {
         if(groups == null) groups = init(qc);
-        if(pos == groups.length) return false;
+        if(pos == groups.length) {
+          // release the memory of the groups
+          Profile.release(memory);
+          memory = 0;
+          return false;
+        }
 
         final Group curr = groups[pos];
         // be nice to the garbage collector
@@ -162,6 +169,9 @@ public final class GroupBy extends Clause {
             for(int n = 0; n < nl; n++) ngs[n] = new ValueBuilder();
             grp = new Group(key, ngs);
             grps.add(grp);
+            final long mem = Profile.OBJECT * (nl + 2) + (long) nonOcc * Profile.ITEM;
+            Profile.memory(mem);
+            memory += mem;
 
             // insert the group into the hash table
             if(fst == null) {
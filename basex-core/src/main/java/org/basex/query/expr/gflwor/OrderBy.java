@@ -52,10 +52,17 @@ public final class OrderBy extends Clause {
       private Integer[] perm;
       /** Current position. */
       int pos;
+      /** Estimated memory of the buffered tuples (bytes). */
+      long memory;
       @Override
       public boolean next(final QueryContext qc) throws QueryException {
         if(tpls == null) sort(qc);
-        if(pos == tpls.length) return false;
+        if(pos == tpls.length) {
+          // release the memory of the buffered tuples
+          Profile.release(memory);
+          memory = 0;
+          return false;
+        }
         final int p = perm[pos++];
         final Value[] tuple = tpls[p];
         // free the space occupied by the tuple
@@ -83,6 +90,10 @@ public final class OrderBy extends Clause {
           final Value[] vals = new Value[rl];
           for(int r = 0; r < rl; r++) vals[r] = refs[r].value(qc);
           tuples.add(vals);
+          // record the memory of the buffered tuple (two arrays and a permutation entry)
+          final long mem = Profile.OBJECT * 3 + (long) (kl + rl) * Profile.ITEM;
+          Profile.memory(mem);
+          memory += mem;
         }
 
         final int len = tuples.size() >>> 1;
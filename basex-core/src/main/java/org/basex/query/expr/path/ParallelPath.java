@@ -0,0 +1,313 @@
+package org.basex.query.expr.path;
+
+import static org.basex.query.QueryError.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.basex.core.*;
+import org.basex.core.locks.*;
+import org.basex.data.*;
+import org.basex.query.*;
+import org.basex.query.expr.*;
+import org.basex.query.expr.Expr.Flag;
+import org.basex.query.func.*;
+import org.basex.query.iter.*;
+import org.basex.query.util.*;
+import org.basex.query.value.*;
+import org.basex.query.value.item.*;
+import org.basex.query.value.node.*;
+import org.basex.query.value.seq.*;
+import org.basex.query.value.type.*;
+import org.basex.query.var.*;
+import org.basex.util.*;
+import org.basex.util.hash.*;
+import org.basex.util.list.*;
+
+/**
+ * Axis path expression with a root expression that may return nodes of several databases
+ * (e.g. a sharded collection, or {@code (for $db in db:list() return db:open($db))//x}).
+ * The root is evaluated first. If its nodes belong to several databases, the steps will be
+ * evaluated in parallel for each database, and the results will be concatenated in document
+ * order, i.e., in the order of the database names (see {@link DBNode#diff(ANode)}).
+ * The number of threads used by a single query is limited by {@link MainOptions#PATHTHREADS}.
+ * If the nodes of a single database are found at runtime, the path will be evaluated
+ * sequentially. If the root nodes of a database are documents, the steps for this database
+ * will be rewritten for index access if possible.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+final class ParallelPath extends AxisPath {
+  /** Thread pool for evaluating the steps of a database. */
+  private static final ExecutorService POOL = Executors.newFixedThreadPool(
+      Math.max(2, Runtime.getRuntime().availableProcessors()), new ThreadFactory() {
+        @Override
+        public Thread newThread(final Runnable r) {
+          final Thread thread = new Thread(r, Util.className(ParallelPath.class));
+          thread.setDaemon(true);
+          return thread;
+        }
+      });
+
+  /** Indicates if the path can be iteratively evaluated if a single database is found. */
+  private final boolean iterative;
+
+  /**
+   * Constructor.
+   * @param info input info
+   * @param root root expression
+   * @param iterative iterative flag
+   * @param steps axis steps
+   */
+  ParallelPath(final InputInfo info, final Expr root, final boolean iterative,
+      final Expr... steps) {
+    super(info, root, steps);
+    this.iterative = iterative;
+  }
+
+  /**
+   * Checks if the path may yield results from several databases, and if its steps can safely
+   * be evaluated in separate threads. This is the case if the root expression accesses
+   * databases other than the context (including databases with dynamic names), and if the
+   * steps do not reference variables or functions, access databases other than the context,
+   * create nodes, or have side effects.
+   * @param root root expression (can be {@code null})
+   * @param steps axis steps
+   * @return result of check
+   */
+  static boolean parallel(final Expr root, final Expr... steps) {
+    if(root == null || root instanceof Value && root.size() < 2) return false;
+    if(root instanceof Value) {
+      // pre-evaluated root: compare databases of first and last node
+      final Value value = (Value) root;
+      final Item first = value.itemAt(0), last = value.itemAt(value.size() - 1);
+      if(!(first instanceof DBNode && last instanceof DBNode) || first.data() == last.data())
+        return false;
+    } else {
+      // root must access databases other than the context (names may be unknown)
+      final StringList names = databases(root);
+      if(names != null && (names.isEmpty() ||
+          names.size() == 1 && names.get(0).equals(DBLocking.CONTEXT))) return false;
+    }
+
+    final ASTVisitor visitor = new ASTVisitor() {
+      @Override
+      public boolean used(final VarRef ref) { return false; }
+      @Override
+      public boolean staticVar(final StaticVar var) { return false; }
+      @Override
+      public boolean inlineFunc(final Scope sub) { return false; }
+      @Override
+      public boolean staticFuncCall(final StaticFuncCall call) { return false; }
+      @Override
+      public boolean dynFuncCall(final DynFuncCall call) { return false; }
+      @Override
+      public boolean funcItem(final FuncItem func) { return false; }
+      @Override
+      public boolean lock(final String db) {
+        // relative paths in predicates access the nodes of the step
+        return DBLocking.CONTEXT.equals(db);
+      }
+    };
+    for(final Expr step : steps) {
+      if(step.has(Flag.NDT) || step.has(Flag.UPD) || step.has(Flag.CNS) ||
+          step.has(Flag.HOF) || !step.accept(visitor)) return false;
+    }
+    return true;
+  }
+
+  /**
+   * Returns a sequential version of this path if its root expression references a single
+   * database with a static name that is no sharded collection.
+   * @param qc query context
+   * @return path
+   */
+  Path optimize(final QueryContext qc) {
+    if(!(root instanceof Value)) {
+      final StringList names = databases(root);
+      if(names != null && names.size() == 1 && !names.get(0).equals(DBLocking.CONTEXT) &&
+          !qc.resources.sharded(names.get(0))) {
+        return iterative ? new IterPath(info, root, steps) : new CachedPath(info, root, steps);
+      }
+    }
+    return this;
+  }
+
+  /**
+   * Returns the distinct names of the databases that are accessed by the specified expression.
+   * The context is represented by {@link DBLocking#CONTEXT}.
+   * @param expr expression
+   * @return names, or {@code null} if the names are not statically known
+   */
+  private static StringList databases(final Expr expr) {
+    final StringList names = new StringList();
+    return expr.accept(new ASTVisitor() {
+      @Override
+      public boolean lock(final String db) {
+        if(db == null) return false;
+        names.add(db);
+        return true;
+      }
+    }) ? names.sort().unique() : null;
+  }
+
+  @Override
+  public Iter iter(final QueryContext qc) throws QueryException {
+    final Value rv = qc.value(root);
+
+    // group root nodes by databases
+    final ArrayList<Data> datas = new ArrayList<>();
+    final IdentityHashMap<Data, IntList> roots = new IdentityHashMap<>();
+    boolean docs = true;
+    for(final Item it : rv) {
+      final Data data = it instanceof DBNode ? it.data() : null;
+      if(data == null) {
+        datas.clear();
+        break;
+      }
+      IntList pres = roots.get(data);
+      if(pres == null) {
+        pres = new IntList();
+        roots.put(data, pres);
+        datas.add(data);
+      }
+      pres.add(((DBNode) it).pre);
+      docs &= it.type == NodeType.DOC;
+    }
+
+    // nodes without database reference: sequential evaluation
+    final int ds = datas.size();
+    if(ds == 0) return path(rv, qc).iter(qc);
+
+    // all nodes of a database precede the nodes of the databases that follow in document order
+    Collections.sort(datas, new Comparator<Data>() {
+      @Override
+      public int compare(final Data data1, final Data data2) {
+        return new DBNode(data1, roots.get(data1).get(0)).diff(
+            new DBNode(data2, roots.get(data2).get(0)));
+      }
+    });
+    // root nodes of each database, sorted by their pre values
+    final Value[] nodes = new Value[ds];
+    for(int d = 0; d < ds; d++) {
+      final Data data = datas.get(d);
+      nodes[d] = DBNodeSeq.get(roots.get(data).sort().distinct(), data, docs, false);
+    }
+
+    // single database, or parallel evaluation disabled: sequential evaluation
+    final int threads = qc.context.options.get(MainOptions.PATHTHREADS);
+    if(ds == 1) return path(nodes[0], qc).iter(qc);
+    if(threads < 2) {
+      final ValueBuilder vb = new ValueBuilder();
+      for(final Value value : nodes) vb.add(path(value, qc).value(qc));
+      return vb;
+    }
+
+    // parallel evaluation: at most the specified number of databases is evaluated at the
+    // same time, and the results are concatenated in the order of the databases
+    final Profile profile = Profile.current();
+    final ArrayList<QueryContext> qcs = new ArrayList<>(ds);
+    final ArrayList<Future<Value>> results = new ArrayList<>(ds);
+    final ValueBuilder vb = new ValueBuilder();
+    try {
+      for(int d = 0; d < ds; d++) {
+        for(int r = results.size(); r < ds && r < d + threads; r++) {
+          final QueryContext tqc = context(qc);
+          qcs.add(tqc);
+          results.add(submit(nodes[r], tqc, profile));
+        }
+        vb.add(result(results.get(d), qc));
+      }
+    } finally {
+      for(final QueryContext tqc : qcs) tqc.stop();
+    }
+    return vb;
+  }
+
+  /**
+   * Evaluates the steps for the nodes of a single database in a separate thread.
+   * @param nodes root nodes
+   * @param qc query context of the thread
+   * @param profile profile of the query (can be {@code null})
+   * @return result
+   */
+  private Future<Value> submit(final Value nodes, final QueryContext qc, final Profile profile) {
+    return POOL.submit(new Callable<Value>() {
+      @Override
+      public Value call() throws QueryException {
+        // resources are accounted to the profile of the query
+        final boolean entered = profile != null && profile.enter();
+        try {
+          return path(nodes, qc).value(qc);
+        } finally {
+          if(profile != null) profile.leave(entered);
+        }
+      }
+    });
+  }
+
+  /**
+   * Returns a path for evaluating the steps for the specified root nodes. If the nodes are
+   * documents of a single database, the path will be rewritten for index access if possible.
+   * @param nodes root nodes
+   * @param qc query context
+   * @return expression
+   * @throws QueryException query exception
+   */
+  private Expr path(final Value nodes, final QueryContext qc) throws QueryException {
+    final AxisPath path = iterative ? new IterPath(info, nodes, steps) :
+      new CachedPath(info, nodes, steps);
+    return nodes.type == NodeType.DOC ? path.index(qc, nodes) : path;
+  }
+
+  /**
+   * Creates a query context for evaluating steps in a separate thread.
+   * @param qc parent query context
+   * @return query context
+   */
+  private static QueryContext context(final QueryContext qc) {
+    final QueryContext tqc = new QueryContext(qc);
+    tqc.scoring = qc.scoring;
+    tqc.collations = qc.collations;
+    tqc.date = qc.date;
+    tqc.dtm = qc.dtm;
+    tqc.time = qc.time;
+    tqc.zone = qc.zone;
+    tqc.nano = qc.nano;
+    return tqc;
+  }
+
+  /**
+   * Waits for a result. Checks regularly if the parent query has been stopped.
+   * @param result result
+   * @param qc query context
+   * @return value
+   * @throws QueryException query exception
+   */
+  private Value result(final Future<Value> result, final QueryContext qc) throws QueryException {
+    while(true) {
+      qc.checkStop();
+      try {
+        return result.get(10, TimeUnit.MILLISECONDS);
+      } catch(final TimeoutException ex) {
+        // continue waiting
+      } catch(final InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new ProcException();
+      } catch(final ExecutionException ex) {
+        final Throwable th = ex.getCause();
+        if(th instanceof QueryException) throw (QueryException) th;
+        if(th instanceof RuntimeException) throw (RuntimeException) th;
+        if(th instanceof Error) throw (Error) th;
+        throw BASX_GENERIC_X.get(info, th);
+      }
+    }
+  }
+
+  @Override
+  public AxisPath copy(final QueryContext qc, final VarScope scp, final IntObjMap<Var> vs) {
+    return copyType(new ParallelPath(info, root.copy(qc, scp, vs), iterative,
+        Arr.copyAll(qc, scp, vs, steps)));
+  }
+}
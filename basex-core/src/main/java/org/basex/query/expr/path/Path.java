@@ -8,6 +8,7 @@ import java.util.*;
 import org.basex.core.locks.*;
 import org.basex.data.*;
 import org.basex.index.path.*;
+import org.basex.index.stats.*;
 import org.basex.query.*;
 import org.basex.query.expr.constr.*;
 import org.basex.query.expr.*;
@@ -107,8 +108,10 @@ public abstract class Path extends ParseExpr {
     for(final Expr step : st) axes &= step instanceof Step;
 
     // choose best implementation
-    return axes ? iterative(rt, st) ? new IterPath(info, rt, st) :
-      new CachedPath(info, rt, st) : new MixedPath(info, rt, st);
+    if(!axes) return new MixedPath(info, rt, st);
+    final boolean iterative = iterative(rt, st);
+    return ParallelPath.parallel(rt, st) ? new ParallelPath(info, rt, iterative, st) :
+      iterative ? new IterPath(info, rt, st) : new CachedPath(info, rt, st);
   }
 
   @Override
@@ -188,7 +191,8 @@ public abstract class Path extends ParseExpr {
     }
 
     // choose best path implementation and set type information
-    final Path path = get(info, root, steps);
+    Path path = get(info, root, steps);
+    if(path instanceof ParallelPath) path = ((ParallelPath) path).optimize(qc);
     path.size = path.size(qc);
     path.seqType = SeqType.get(steps[steps.length - 1].seqType().type, path.size);
     return path;
@@ -277,6 +281,50 @@ public abstract class Path extends ParseExpr {
     return nodes;
   }
 
+  /**
+   * Returns the numeric values of the nodes that will result from this path, or {@code null}
+   * if the values cannot be retrieved from the path summary. Values are only returned if the
+   * path is evaluated on all documents of a database, and if the resulting nodes are elements
+   * with a single text node, texts or attributes with numeric values. Values of several path
+   * nodes are only returned if all of them are integers.
+   * @param qc query context
+   * @return values of each path node in document order, or {@code null}
+   */
+  public final double[][] numbers(final QueryContext qc) {
+    final Value init = initial(qc);
+    if(init == null || init.type != NodeType.DOC) return null;
+    final Data data = init.data();
+    if(data == null || data.meta.ndocs != init.size()) return null;
+    final ArrayList<PathNode> nodes = pathNodes(qc);
+    if(nodes == null) return null;
+
+    final int ns = nodes.size();
+    final double[][] numbers = new double[ns][];
+    for(int n = 0; n < ns; n++) {
+      PathNode pn = nodes.get(n);
+      // retrieve text child if addressed node is an element
+      if(pn.kind == Data.ELEM) {
+        // elements must have no other children than texts and attributes. as adjacent texts
+        // are merged, each element has at most one text node, and all elements have a text
+        // node if the counts are equal (the leaf flag cannot be used, as it is only updated
+        // when the summary is written)
+        PathNode text = null;
+        for(final PathNode child : pn.children) {
+          if(child.kind == Data.TEXT) text = child;
+          else if(child.kind != Data.ATTR) return null;
+        }
+        if(text == null || text.stats.count != pn.stats.count) return null;
+        pn = text;
+      }
+      if(pn.kind != Data.TEXT && pn.kind != Data.ATTR) return null;
+      final StatsType type = pn.stats.type;
+      if(type != StatsType.INTEGER && (type != StatsType.DOUBLE || ns > 1)) return null;
+      numbers[n] = data.paths.values(pn);
+      if(numbers[n] == null) return null;
+    }
+    return numbers;
+  }
+
   /**
    * Guesses if the evaluation of this axis path is cheap. This is used to determine if it
    * can be inlined into a loop to enable index rewritings.
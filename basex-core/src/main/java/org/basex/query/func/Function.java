@@ -30,6 +30,7 @@ import org.basex.query.func.html.*;
 import org.basex.query.func.http.*;
 import org.basex.query.func.index.*;
 import org.basex.query.func.inspect.*;
+import org.basex.query.func.jobs.*;
 import org.basex.query.func.json.*;
 import org.basex.query.func.map.*;
 import org.basex.query.func.math.*;
@@ -543,6 +544,8 @@ public enum Function {
   /** XQuery function. */
   _ADMIN_SESSIONS(AdminSessions.class, "sessions()", arg(), ELM_ZM, flag(NDT), ADMIN_URI),
   /** XQuery function. */
+  _ADMIN_LOCKS(AdminLocks.class, "locks()", arg(), ELM_ZM, flag(NDT), ADMIN_URI),
+  /** XQuery function. */
   _ADMIN_LOGS(AdminLogs.class, "logs([date[,merge]])", arg(STR, BLN), ELM_ZM, flag(NDT), ADMIN_URI),
   /** XQuery function. */
   _ADMIN_WRITE_LOG(AdminWriteLog.class, "write-log(string)", arg(STR), EMP, flag(NDT), ADMIN_URI),
@@ -1047,6 +1050,18 @@ public enum Function {
   /** XQuery function. */
   _INSPECT_XQDOC(InspectXqdoc.class, "xqdoc(path)", arg(STR), ELM, INSPECT_URI),
 
+  /* Jobs Module. */
+
+  /** XQuery function. */
+  _JOBS_SUBMIT(JobsSubmit.class, "submit(query[,priority])", arg(STR, ITR), STR, flag(NDT),
+      JOBS_URI),
+  /** XQuery function. */
+  _JOBS_LIST(JobsList.class, "list()", arg(), ELM_ZM, flag(NDT), JOBS_URI),
+  /** XQuery function. */
+  _JOBS_RESULT(JobsResult.class, "result(id)", arg(STR), STR, flag(NDT), JOBS_URI),
+  /** XQuery function. */
+  _JOBS_CANCEL(JobsCancel.class, "cancel(id)", arg(STR), EMP, flag(NDT), JOBS_URI),
+
   /* JSON Module. */
 
   /** XQuery function. */
@@ -1082,6 +1097,9 @@ public enum Function {
   _PROF_TIME(ProfTime.class, "time(value[,cache[,label]])",
       arg(ITEM_ZM, BLN, STR), ITEM_ZM, flag(NDT), PROF_URI),
   /** XQuery function. */
+  _PROF_RESOURCES(ProfResources.class, "resources(value[,cache[,label]])",
+      arg(ITEM_ZM, BLN, STR), ITEM_ZM, flag(NDT), PROF_URI),
+  /** XQuery function. */
   _PROF_SLEEP(ProfSleep.class, "sleep(ms)", arg(ITR), EMP, flag(NDT), PROF_URI),
   /** XQuery function. */
   _PROF_CURRENT_MS(ProfCurrentMs.class, "current-ms()", arg(), ITR, flag(NDT), PROF_URI),
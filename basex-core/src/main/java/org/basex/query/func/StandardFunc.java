@@ -296,9 +296,19 @@ public abstract class StandardFunc extends Arr {
    * @throws QueryException query exception
    */
   protected final Data checkData(final QueryContext qc) throws QueryException {
+    return qc.resources.database(toDB(qc), info);
+  }
+
+  /**
+   * Returns the database name specified by the first argument.
+   * @param qc query context
+   * @return database name
+   * @throws QueryException query exception
+   */
+  protected final String toDB(final QueryContext qc) throws QueryException {
     final String name = string(toToken(exprs[0], qc));
     if(!Databases.validName(name)) throw INVDB_X.get(info, name);
-    return qc.resources.database(name, info);
+    return name;
   }
 
   /**
@@ -0,0 +1,104 @@
+package org.basex.query.func.admin;
+
+import static org.basex.util.Token.*;
+
+import java.util.*;
+
+import org.basex.core.locks.*;
+import org.basex.query.*;
+import org.basex.query.iter.*;
+import org.basex.query.value.node.*;
+
+/**
+ * Function implementation.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class AdminLocks extends AdminFn {
+  /** QName: lock. */
+  private static final String LOCK = "lock";
+  /** QName: name. */
+  private static final String NAME = "name";
+  /** QName: acquisitions. */
+  private static final String ACQUISITIONS = "acquisitions";
+  /** QName: waiting. */
+  private static final String WAITING = "waiting";
+  /** QName: holding. */
+  private static final String HOLDING = "holding";
+  /** QName: wait. */
+  private static final String WAIT = "wait";
+  /** QName: hold. */
+  private static final String HOLD = "hold";
+  /** QName: max. */
+  private static final String MAX = "max";
+  /** QName: bucket. */
+  private static final String BUCKET = "bucket";
+  /** QName: holder. */
+  private static final String HOLDER = "holder";
+  /** QName: waiter. */
+  private static final String WAITER = "waiter";
+  /** QName: thread. */
+  private static final String THREAD = "thread";
+
+  @Override
+  public Iter iter(final QueryContext qc) throws QueryException {
+    checkAdmin(qc);
+
+    final ArrayList<Transaction> trs = qc.context.transactions();
+    final ValueBuilder vb = new ValueBuilder();
+    for(final LockStats ls : qc.context.lockStats()) {
+      final FElem elem = new FElem(LOCK).add(NAME, ls.object);
+      elem.add(ACQUISITIONS, token(ls.acquisitions()));
+      elem.add(WAITING, token(ls.waiting())).add(HOLDING, token(ls.holding()));
+      elem.add(times(WAIT, ls.waitTime(), ls.maxWait(), ls.waits()));
+      elem.add(times(HOLD, ls.holdTime(), ls.maxHold(), ls.holds()));
+
+      // transactions that hold or wait for the lock
+      final boolean queue = ls.object.equals(DBLocking.QUEUE);
+      for(final Transaction tr : trs) {
+        final Transaction.State state = tr.state();
+        final String waiting = tr.waiting();
+        final boolean waiter = queue ? state == Transaction.State.QUEUED :
+          waiting != null && DBLocking.database(waiting).equals(ls.object);
+        final boolean holder = !waiter && (queue ? state != Transaction.State.QUEUED :
+          state != Transaction.State.QUEUED && tr.accesses(ls.object));
+        if(waiter || holder) {
+          elem.add(new FElem(waiter ? WAITER : HOLDER).add(THREAD, token(tr.thread)).
+              add(MS, ms(tr.time())).add(tr.proc.toString().trim()));
+        }
+      }
+      vb.add(elem);
+    }
+    return vb;
+  }
+
+  /**
+   * Creates an element with time measurements.
+   * @param name element name
+   * @param total total time (nanoseconds)
+   * @param max maximum time (nanoseconds)
+   * @param histogram histogram
+   * @return element
+   */
+  private static FElem times(final String name, final long total, final long max,
+      final long[] histogram) {
+    final FElem elem = new FElem(name).add(MS, ms(total)).add(MAX, ms(max));
+    final int hl = histogram.length;
+    for(int h = 0; h < hl; h++) {
+      final FElem bucket = new FElem(BUCKET);
+      if(h < LockStats.LIMITS.length) bucket.add(MS, token(LockStats.LIMITS[h]));
+      elem.add(bucket.add(token(histogram[h])));
+    }
+    return elem;
+  }
+
+  /**
+   * Converts nanoseconds to milliseconds.
+   * @param time time (nanoseconds)
+   * @return milliseconds
+   */
+  private static byte[] ms(final long time) {
+    return token(time / 10000 / 100d);
+  }
+}
@@ -70,6 +70,23 @@ abstract class DbAccess extends DbFn {
     };
   }
 
+  /**
+   * Locks a single document or directory of the database if its name and the specified path
+   * are known at compile time, or the whole database otherwise.
+   * @param visitor visitor
+   * @param p index of path argument
+   * @return result of check
+   */
+  final boolean docLock(final ASTVisitor visitor, final int p) {
+    if(exprs.length > p && exprs[0] instanceof Str && exprs[p] instanceof Str) {
+      final String path = MetaData.normPath(string(((Str) exprs[p]).string()));
+      if(path != null && !path.isEmpty()) {
+        return visitor.lock(string(((Str) exprs[0]).string()) + '/' + path);
+      }
+    }
+    return dataLock(visitor, 0);
+  }
+
   @Override
   public boolean accept(final ASTVisitor visitor) {
     return dataLock(visitor, 0) && super.accept(visitor);
@@ -3,9 +3,11 @@ package org.basex.query.func.db;
 import static org.basex.util.Token.*;
 
 import org.basex.data.*;
+import org.basex.io.*;
 import org.basex.query.*;
 import org.basex.query.up.primitives.*;
 import org.basex.query.up.primitives.db.*;
+import org.basex.query.util.*;
 import org.basex.query.value.item.*;
 import org.basex.util.*;
 import org.basex.util.options.*;
@@ -19,11 +21,51 @@ import org.basex.util.options.*;
 public final class DbAdd extends DbNew {
   @Override
   public Item item(final QueryContext qc, final InputInfo ii) throws QueryException {
-    final Data data = checkData(qc);
+    final String name = toDB(qc);
     final byte[] path = exprs.length < 3 ? EMPTY : token(path(2, qc));
     final NewInput input = checkInput(toItem(exprs[1], qc), path);
     final Options opts = toOptions(3, Q_OPTIONS, new Options(), qc);
-    qc.resources.updates().add(new DBAdd(data, input, opts, qc, info), qc);
+
+    final IO io = input.io;
+    if(io != null && (io.isDir() || io.isArchive()) && qc.resources.sharded(name)) {
+      // sharded collection: each shard parses the documents that are assigned to it
+      final Data[] shards = qc.resources.databases(name, info);
+      final int ss = shards.length;
+      for(int s = 0; s < ss; s++) {
+        final NewInput ni = new NewInput();
+        ni.io = io;
+        ni.path = input.path;
+        ni.dbname = input.dbname;
+        ni.shard = s;
+        ni.shards = ss;
+        add(shards[s], ni, opts, qc);
+      }
+    } else {
+      // path of resulting document (used for choosing the target shard)
+      final String target = io == null ? string(input.path) :
+        input.path.length == 0 ? string(input.dbname) :
+        string(input.path) + '/' + string(input.dbname);
+      add(qc.resources.database(name, target, info), input, opts, qc);
+    }
     return null;
   }
+
+  /**
+   * Adds an input to the specified database.
+   * @param data database
+   * @param input input
+   * @param opts options
+   * @param qc query context
+   * @throws QueryException query exception
+   */
+  private void add(final Data data, final NewInput input, final Options opts,
+      final QueryContext qc) throws QueryException {
+    qc.resources.updates().add(new DBAdd(data, input, opts, qc, info), qc);
+  }
+
+  @Override
+  public boolean accept(final ASTVisitor visitor) {
+    // documents will be added below the specified path
+    return docLock(visitor, 2) && visitAll(visitor, exprs);
+  }
 }
@@ -2,12 +2,16 @@ package org.basex.query.func.db;
 
 import static org.basex.query.QueryError.*;
 
+import java.util.*;
+
 import org.basex.data.*;
 import org.basex.io.*;
 import org.basex.query.*;
 import org.basex.query.up.*;
+import org.basex.query.up.primitives.*;
 import org.basex.query.up.primitives.db.*;
 import org.basex.query.up.primitives.node.*;
+import org.basex.query.util.*;
 import org.basex.query.value.item.*;
 import org.basex.util.*;
 import org.basex.util.list.*;
@@ -21,22 +25,32 @@ import org.basex.util.list.*;
 public final class DbDelete extends DbAccess {
   @Override
   public Item item(final QueryContext qc, final InputInfo ii) throws QueryException {
-    final Data data = checkData(qc);
-    final String path = path(1, qc);
-
-    // delete XML resources
-    final IntList docs = data.resources.docs(path);
-    final int is = docs.size();
+    final String name = toDB(qc), path = path(1, qc);
     final Updates updates = qc.resources.updates();
-    for(int i = 0; i < is; i++) {
-      updates.add(new DeleteNode(docs.get(i), data, info), qc);
-    }
-    // delete raw resources
-    if(!data.inMemory()) {
-      final IOFile bin = data.meta.binary(path);
-      if(bin == null) throw UPDBDELETE_X.get(info, path);
-      updates.add(new DBDelete(data, path, info), qc);
+    // the resources of a directory may be stored in all shards of a collection
+    for(final Data data : qc.resources.databases(name, info)) {
+      // delete XML resources (documents will be looked up when updates are prepared)
+      updates.add(new DocsUpdate(data, path, info) {
+        @Override
+        protected ArrayList<DataUpdate> updates(final IntList docs) {
+          final ArrayList<DataUpdate> list = new ArrayList<>();
+          final int ds = docs.size();
+          for(int d = 0; d < ds; d++) list.add(new DeleteNode(docs.get(d), data, info));
+          return list;
+        }
+      }, qc);
+      // delete raw resources
+      if(!data.inMemory()) {
+        final IOFile bin = data.meta.binary(path);
+        if(bin == null) throw UPDBDELETE_X.get(info, path);
+        updates.add(new DBDelete(data, path, info), qc);
+      }
     }
     return null;
   }
+
+  @Override
+  public boolean accept(final ASTVisitor visitor) {
+    return docLock(visitor, 1) && visitAll(visitor, exprs);
+  }
 }
@@ -1,10 +1,8 @@
 package org.basex.query.func.db;
 
-import org.basex.data.*;
 import org.basex.query.*;
 import org.basex.query.iter.*;
 import org.basex.query.value.*;
-import org.basex.query.value.seq.*;
 
 /**
  * Function implementation.
@@ -20,9 +18,8 @@ public final class DbOpen extends DbAccess {
 
   @Override
   public Value value(final QueryContext qc) throws QueryException {
-    final Data data = checkData(qc);
-    final String path = exprs.length < 2 ? "" : path(1, qc);
-    return DBNodeSeq.get(data.resources.docs(path), data, true, path.isEmpty());
+    final String name = toDB(qc), path = exprs.length < 2 ? "" : path(1, qc);
+    return qc.resources.docs(name, path, info);
   }
 
   @Override
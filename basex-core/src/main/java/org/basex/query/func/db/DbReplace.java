@@ -3,6 +3,8 @@ package org.basex.query.func.db;
 import static org.basex.query.QueryError.*;
 import static org.basex.util.Token.*;
 
+import java.util.*;
+
 import org.basex.data.*;
 import org.basex.io.*;
 import org.basex.query.*;
@@ -10,6 +12,7 @@ import org.basex.query.up.*;
 import org.basex.query.up.primitives.*;
 import org.basex.query.up.primitives.db.*;
 import org.basex.query.up.primitives.node.*;
+import org.basex.query.util.*;
 import org.basex.query.value.item.*;
 import org.basex.util.*;
 import org.basex.util.list.*;
@@ -24,34 +27,47 @@ import org.basex.util.options.*;
 public final class DbReplace extends DbNew {
   @Override
   public Item item(final QueryContext qc, final InputInfo ii) throws QueryException {
-    final Data data = checkData(qc);
-    final String path = path(1, qc);
+    final String name = toDB(qc), path = path(1, qc);
+    final Data data = qc.resources.database(name, path, info);
     final Item item = toItem(exprs[2], qc);
     final Options opts = toOptions(3, Q_OPTIONS, new Options(), qc);
 
     final Updates updates = qc.resources.updates();
-    final IntList docs = data.resources.docs(path);
-    int d = 0;
 
     // delete binary resources
     final IOFile bin = data.meta.binary(path);
     if(bin == null || bin.isDir()) throw BXDB_REPLACE_X.get(info, path);
 
+    final NewInput input;
     if(item instanceof Bin) {
       updates.add(new DBStore(data, path, item, info), qc);
+      input = null;
     } else {
       if(bin.exists()) updates.add(new DBDelete(data, path, info), qc);
-      final NewInput input = checkInput(item, token(path));
-      if(docs.isEmpty()) {
-        updates.add(new DBAdd(data, input, opts, qc, info), qc);
-      } else {
-        updates.add(new ReplaceDoc(docs.get(d++), data, input, opts, qc, info), qc);
-      }
+      input = checkInput(item, token(path));
     }
 
-    // delete old documents
-    final int ds = docs.size();
-    for(; d < ds; d++) updates.add(new DeleteNode(docs.get(d), data, info), qc);
+    // replace or delete the documents that are stored under the path when updates are prepared
+    updates.add(new DocsUpdate(data, path, info) {
+      @Override
+      protected ArrayList<DataUpdate> updates(final IntList docs) throws QueryException {
+        final ArrayList<DataUpdate> list = new ArrayList<>();
+        int d = 0;
+        if(input != null) {
+          list.add(docs.isEmpty() ? new DBAdd(data, input, opts, qc, info) :
+            new ReplaceDoc(docs.get(d++), data, input, opts, qc, info));
+        }
+        // delete old documents
+        final int ds = docs.size();
+        for(; d < ds; d++) list.add(new DeleteNode(docs.get(d), data, info));
+        return list;
+      }
+    }, qc);
     return null;
   }
+
+  @Override
+  public boolean accept(final ASTVisitor visitor) {
+    return docLock(visitor, 1) && visitAll(visitor, exprs);
+  }
 }
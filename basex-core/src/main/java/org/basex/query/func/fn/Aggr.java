@@ -5,6 +5,7 @@ import static org.basex.query.value.type.AtomType.*;
 
 import org.basex.query.*;
 import org.basex.query.expr.*;
+import org.basex.query.expr.path.*;
 import org.basex.query.func.*;
 import org.basex.query.iter.*;
 import org.basex.query.value.item.*;
@@ -42,4 +43,23 @@ abstract class Aggr extends StandardFunc {
     }
     return avg ? Calc.DIV.ev(info, rs, Int.get(c)) : rs;
   }
+
+  /**
+   * Computes the sum or average of the numeric values of a path via the path summary.
+   * @param qc query context
+   * @param avg calculate average
+   * @return summed up item, or {@code null} if values are not available
+   */
+  final Item sum(final QueryContext qc, final boolean avg) {
+    if(exprs.length != 1 || !(exprs[0] instanceof AxisPath)) return null;
+    final double[][] numbers = ((AxisPath) exprs[0]).numbers(qc);
+    if(numbers == null) return null;
+
+    double sum = 0;
+    long c = 0;
+    for(final double[] values : numbers) {
+      for(final double d : values) sum = c++ == 0 ? d : sum + d;
+    }
+    return c == 0 ? null : Dbl.get(avg ? sum / c : sum);
+  }
 }
@@ -1,8 +1,10 @@
 package org.basex.query.func.fn;
 
 import org.basex.query.*;
+import org.basex.query.expr.*;
 import org.basex.query.iter.*;
 import org.basex.query.value.item.*;
+import org.basex.query.var.*;
 import org.basex.util.*;
 
 /**
@@ -18,4 +20,11 @@ public final class FnAvg extends Aggr {
     final Item it = iter.next();
     return it == null ? null : sum(iter, it, true);
   }
+
+  @Override
+  protected Expr opt(final QueryContext qc, final VarScope scp) {
+    // pre-evaluate numeric database values
+    final Item it = sum(qc, true);
+    return it != null ? it : this;
+  }
 }
@@ -1,8 +1,10 @@
 package org.basex.query.func.fn;
 
 import org.basex.query.*;
+import org.basex.query.expr.*;
 import org.basex.query.expr.CmpV.OpV;
 import org.basex.query.value.item.*;
+import org.basex.query.var.*;
 import org.basex.util.*;
 
 /**
@@ -16,4 +18,11 @@ public final class FnMin extends Num {
   public Item item(final QueryContext qc, final InputInfo ii) throws QueryException {
     return minmax(OpV.GT, qc);
   }
+
+  @Override
+  protected Expr opt(final QueryContext qc, final VarScope scp) {
+    // pre-evaluate numeric database values
+    final Item it = minmax(true, qc);
+    return it != null ? it : this;
+  }
 }
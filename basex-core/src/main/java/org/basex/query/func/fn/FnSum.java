@@ -61,6 +61,10 @@ public final class FnSum extends Aggr {
     final Type st1 = e1.seqType().type, st2 = e2 != null ? e2.seqType().type : st1;
     if(st1.isNumberOrUntyped() && st2.isNumberOrUntyped()) seqType = Calc.type(st1, st2).seqType();
 
+    // pre-evaluate numeric database values
+    final Item it = sum(qc, false);
+    if(it != null) return it;
+
     // pre-evaluate 0 results (skip non-deterministic and variable expressions)
     final long c = e1.size();
     return c != 0 || e1.has(Flag.NDT) || e1.has(Flag.UPD) || e1 instanceof VarRef ? this :
@@ -5,6 +5,7 @@ import static org.basex.query.value.type.AtomType.*;
 
 import org.basex.query.*;
 import org.basex.query.expr.CmpV.OpV;
+import org.basex.query.expr.path.*;
 import org.basex.query.func.*;
 import org.basex.query.iter.*;
 import org.basex.query.util.collation.*;
@@ -76,6 +77,28 @@ abstract class Num extends StandardFunc {
     return curr;
   }
 
+  /**
+   * Computes the minimum or maximum of the numeric values of a path via the path summary.
+   * @param min minimum or maximum
+   * @param qc query context
+   * @return resulting item, or {@code null} if values are not available
+   */
+  final Item minmax(final boolean min, final QueryContext qc) {
+    if(exprs.length != 1 || !(exprs[0] instanceof AxisPath)) return null;
+    final double[][] numbers = ((AxisPath) exprs[0]).numbers(qc);
+    if(numbers == null) return null;
+
+    double curr = min ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+    long c = 0;
+    for(final double[] values : numbers) {
+      for(final double d : values) {
+        if(min ? d < curr : d > curr) curr = d;
+        c++;
+      }
+    }
+    return c == 0 ? null : Dbl.get(curr);
+  }
+
   /**
    * Returns the new target type, or {@code null} if conversion is not necessary.
    * @param curr old item
@@ -0,0 +1,19 @@
+package org.basex.query.func.jobs;
+
+import org.basex.query.*;
+import org.basex.query.value.item.*;
+import org.basex.util.*;
+
+/**
+ * Function implementation.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class JobsCancel extends JobsFn {
+  @Override
+  public Item item(final QueryContext qc, final InputInfo ii) throws QueryException {
+    qc.context.jobs.cancel(job(qc));
+    return null;
+  }
+}
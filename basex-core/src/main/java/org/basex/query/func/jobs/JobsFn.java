@@ -0,0 +1,29 @@
+package org.basex.query.func.jobs;
+
+import static org.basex.query.QueryError.*;
+
+import org.basex.core.*;
+import org.basex.query.*;
+import org.basex.query.func.*;
+import org.basex.util.*;
+
+/**
+ * Jobs function.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+abstract class JobsFn extends StandardFunc {
+  /**
+   * Returns the job with the id specified by the first argument.
+   * @param qc query context
+   * @return job
+   * @throws QueryException query exception
+   */
+  final Job job(final QueryContext qc) throws QueryException {
+    final String id = Token.string(toToken(exprs[0], qc));
+    final Job job = qc.context.jobs.get(id, qc.context);
+    if(job == null) throw BXJO_UNKNOWN_X.get(info, id);
+    return job;
+  }
+}
@@ -0,0 +1,45 @@
+package org.basex.query.func.jobs;
+
+import java.util.*;
+
+import org.basex.core.*;
+import org.basex.query.*;
+import org.basex.query.iter.*;
+import org.basex.query.value.node.*;
+import org.basex.util.*;
+
+/**
+ * Function implementation.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class JobsList extends JobsFn {
+  /** QName: job. */
+  private static final String JOB = "job";
+  /** QName: id. */
+  private static final String ID = "id";
+  /** QName: state. */
+  private static final String STATE = "state";
+  /** QName: user. */
+  private static final String USER = "user";
+  /** QName: priority. */
+  private static final String PRIORITY = "priority";
+  /** QName: submitted. */
+  private static final String SUBMITTED = "submitted";
+  /** QName: ms. */
+  private static final String MS = "ms";
+
+  @Override
+  public Iter iter(final QueryContext qc) throws QueryException {
+    final ValueBuilder vb = new ValueBuilder();
+    for(final Job job : qc.context.jobs.list(qc.context)) {
+      final String submitted = DateTime.format(new Date(job.submitted), DateTime.FULL);
+      final FElem elem = new FElem(JOB).add(ID, job.id).add(STATE, job.state().toString());
+      elem.add(USER, job.user).add(PRIORITY, Integer.toString(job.priority));
+      elem.add(SUBMITTED, submitted).add(MS, Long.toString(job.time()));
+      vb.add(elem.add(job.query));
+    }
+    return vb;
+  }
+}
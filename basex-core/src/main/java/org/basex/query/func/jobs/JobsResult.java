@@ -0,0 +1,32 @@
+package org.basex.query.func.jobs;
+
+import static org.basex.query.QueryError.*;
+
+import java.io.*;
+
+import org.basex.core.*;
+import org.basex.core.Job.State;
+import org.basex.query.*;
+import org.basex.query.value.item.*;
+import org.basex.util.*;
+
+/**
+ * Function implementation.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class JobsResult extends JobsFn {
+  @Override
+  public Item item(final QueryContext qc, final InputInfo ii) throws QueryException {
+    final Job job = job(qc);
+    final State state = job.state();
+    if(state == State.FAILED) throw BXJO_FAILED_X_X.get(info, job.id, job.error());
+    if(state != State.FINISHED) throw BXJO_RESULT_X_X.get(info, job.id, state);
+    try {
+      return Str.get(job.result());
+    } catch(final IOException ex) {
+      throw BXJO_RESULT_X_X.get(info, job.id, ex);
+    }
+  }
+}
@@ -0,0 +1,20 @@
+package org.basex.query.func.jobs;
+
+import org.basex.query.*;
+import org.basex.query.value.item.*;
+import org.basex.util.*;
+
+/**
+ * Function implementation.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class JobsSubmit extends JobsFn {
+  @Override
+  public Item item(final QueryContext qc, final InputInfo ii) throws QueryException {
+    final String query = Token.string(toToken(exprs[0], qc));
+    final int priority = exprs.length > 1 ? (int) toLong(exprs[1], qc) : 0;
+    return Str.get(qc.context.jobs.submit(qc.context, query, priority).id);
+  }
+}
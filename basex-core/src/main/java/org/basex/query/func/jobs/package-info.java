@@ -0,0 +1,2 @@
+/** Jobs functions. */
+package org.basex.query.func.jobs;
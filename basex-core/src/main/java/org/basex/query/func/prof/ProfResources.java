@@ -0,0 +1,53 @@
+package org.basex.query.func.prof;
+
+import static org.basex.util.Token.*;
+
+import org.basex.query.*;
+import org.basex.query.func.*;
+import org.basex.query.func.fn.*;
+import org.basex.query.iter.*;
+import org.basex.query.value.*;
+import org.basex.query.value.item.*;
+import org.basex.util.*;
+
+/**
+ * Function implementation.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class ProfResources extends StandardFunc {
+  @Override
+  public Iter iter(final QueryContext qc) throws QueryException {
+    // optional message
+    final byte[] msg = exprs.length > 2 ? toToken(exprs[2], qc) : null;
+
+    // check caching flag; results will also be cached if no profile has been assigned
+    final boolean cache = exprs.length > 1 && toBoolean(exprs[1], qc);
+    final Profile current = Profile.current();
+    if(cache || current == null) {
+      final Profile profile = current != null ? current : new Profile();
+      final Profile old = profile.copy();
+      final boolean entered = profile.enter();
+      final Value v;
+      try {
+        v = qc.value(exprs[0]).cache().value();
+      } finally {
+        profile.exit(entered);
+      }
+      FnTrace.dump(token(profile.since(old).toString()), msg, qc);
+      return v.iter();
+    }
+
+    final Profile old = current.copy();
+    return new Iter() {
+      final Iter ir = exprs[0].iter(qc);
+      @Override
+      public Item next() throws QueryException {
+        final Item it = ir.next();
+        if(it == null) FnTrace.dump(token(current.since(old).toString()), msg, qc);
+        return it;
+      }
+    };
+  }
+}
@@ -68,10 +68,13 @@ public abstract class Iter {
 
   /**
    * Doubles the size of an item array.
+   * The additional memory is recorded in the profile of the current query.
    * @param it item array
    * @return resulting array
    */
   static Item[] extend(final Item[] it) {
-    return Array.copy(it, new Item[Array.newSize(it.length)]);
+    final int s = Array.newSize(it.length);
+    Profile.memory((long) (s - it.length) * Profile.ITEM);
+    return Array.copy(it, new Item[s]);
   }
 }
@@ -27,6 +27,8 @@ public final class NodeSeqBuilder extends AxisIter {
   private boolean sort;
   /** Check incoming nodes for potential duplicates and unsorted entries. */
   private boolean check;
+  /** Estimated memory of the extended node container (bytes). */
+  private long memory;
 
   /**
    * Constructor.
@@ -76,7 +78,13 @@ public final class NodeSeqBuilder extends AxisIter {
    * @param n node to be added
    */
   public void add(final ANode n) {
-    if(size == nodes.length) nodes = Array.copy(nodes, new ANode[Array.newSize(size)]);
+    if(size == nodes.length) {
+      final int s = Array.newSize(size);
+      final long mem = (long) (s - size) * Profile.ITEM;
+      Profile.memory(mem);
+      memory += mem;
+      nodes = Array.copy(nodes, new ANode[s]);
+    }
     if(check && !sort && size != 0) sort = nodes[size - 1].diff(n) > 0;
     nodes[size++] = n;
   }
@@ -84,7 +92,11 @@ public final class NodeSeqBuilder extends AxisIter {
   @Override
   public ANode next() {
     if(check) sort(sort);
-    return ++pos < size ? nodes[pos] : null;
+    if(++pos < size) return nodes[pos];
+    // all nodes have been returned: release the memory of the container
+    Profile.release(memory);
+    memory = 0;
+    return null;
   }
 
   @Override
@@ -110,6 +122,8 @@ public final class NodeSeqBuilder extends AxisIter {
   @Override
   public Value value() {
     if(check) sort(sort);
+    // the container is referenced by the value: its memory will not be released
+    memory = 0;
     return Seq.get(nodes, size, NodeType.NOD);
   }
 
@@ -26,6 +26,10 @@ public final class ValueBuilder extends ValueIter implements Result {
   private int size;
   /** Current iterator position. */
   private int pos = -1;
+  /** Indicates if the materialized items have been recorded in the {@link Profile}. */
+  private boolean profiled;
+  /** Estimated memory of the extended item container (bytes). */
+  private long memory;
 
   /**
    * Constructor.
@@ -62,7 +66,7 @@ public final class ValueBuilder extends ValueIter implements Result {
 
     final int s = size;
     Item[] tmp = items;
-    for(final long sz = value.size(); tmp.length - s < sz;) tmp = extend(tmp);
+    for(final long sz = value.size(); tmp.length - s < sz;) tmp = grow(tmp);
     size = s + value.writeTo(tmp, s);
     items = tmp;
     return this;
@@ -76,7 +80,7 @@ public final class ValueBuilder extends ValueIter implements Result {
   public ValueBuilder add(final Item item) {
     final int s = size;
     Item[] tmp = items;
-    if(s == tmp.length) tmp = extend(tmp);
+    if(s == tmp.length) tmp = grow(tmp);
     tmp[s] = item;
     size = s + 1;
     items = tmp;
@@ -108,9 +112,25 @@ public final class ValueBuilder extends ValueIter implements Result {
     ser.serialize(items[n]);
   }
 
+  /**
+   * Extends the item container.
+   * @param tmp item container
+   * @return new container
+   */
+  private Item[] grow(final Item[] tmp) {
+    final Item[] it = extend(tmp);
+    memory += (long) (it.length - tmp.length) * Profile.ITEM;
+    return it;
+  }
+
   @Override
   public Item next() {
-    return ++pos < size ? items[pos] : null;
+    if(pos == -1) profile();
+    if(++pos < size) return items[pos];
+    // all items have been returned: release the memory of the container
+    Profile.release(memory);
+    memory = 0;
+    return null;
   }
 
   /**
@@ -154,9 +174,22 @@ public final class ValueBuilder extends ValueIter implements Result {
    */
   @Override
   public Value value() {
+    profile();
+    // the container is referenced by the value: its memory will not be released
+    memory = 0;
     return Seq.get(items, size);
   }
 
+  /**
+   * Records the materialized items in the profile of the current query.
+   */
+  private void profile() {
+    if(!profiled) {
+      Profile.items(size);
+      profiled = true;
+    }
+  }
+
   @Override
   public String serialize() throws IOException {
     final ArrayOutput ao = new ArrayOutput();
@@ -26,6 +26,8 @@ public abstract class ContextModifier {
   private final Map<String, NameUpdates> nameUpdates = new HashMap<>();
   /** Update primitives, aggregated separately for each user name. */
   private final Map<String, UserUpdates> userUpdates = new HashMap<>();
+  /** Updates on documents, which will be resolved when the updates are prepared. */
+  private final List<DocsUpdate> docsUpdates = new ArrayList<>();
   /** Temporary data reference, containing all XML fragments to be inserted. */
   private MemData tmp;
 
@@ -70,6 +72,16 @@ public abstract class ContextModifier {
     }
   }
 
+  /**
+   * Adds an update operation on documents to this context modifier.
+   * @param update update operation
+   * @param qc query context
+   * @throws QueryException query exception
+   */
+  void add(final DocsUpdate update, final QueryContext qc) throws QueryException {
+    docsUpdates.add(update);
+  }
+
   /**
    * Adds the names of all databases to be updated to the specified list.
    * @param db databases
@@ -90,6 +102,10 @@ public abstract class ContextModifier {
    * @throws QueryException query exception
    */
   final void prepare(final HashSet<Data> datas, final QueryContext qc) throws QueryException {
+    for(final DocsUpdate up : docsUpdates) {
+      for(final DataUpdate dataUp : up.resolve()) add(dataUp, qc);
+    }
+    docsUpdates.clear();
     for(final DataUpdates up : dbUpdates.values()) {
       // create temporary mem data instance if not available yet
       if(tmp == null) tmp = new MemData(qc.context.options);
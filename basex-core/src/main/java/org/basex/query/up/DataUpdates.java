@@ -50,6 +50,8 @@ final class DataUpdates {
   private final boolean writeback;
   /** Number of updates. */
   private int size;
+  /** Input info of the first update (used for reporting errors). */
+  private InputInfo info;
 
   /**
    * Constructor.
@@ -68,6 +70,7 @@ final class DataUpdates {
    * @throws QueryException query exception
    */
   void add(final DataUpdate up, final MemData tmp) throws QueryException {
+    if(info == null) info = up.info();
     if(up instanceof NodeUpdate) {
       for(final NodeUpdate nodeUp : ((NodeUpdate) up).substitute(tmp)) {
         final int pre = nodeUp.pre;
@@ -147,6 +150,13 @@ final class DataUpdates {
 
     // build atomic update cache
     auc = createAtomicUpdates(preparePrimitives());
+
+    // check if all inserted and added nodes fit into the node range of the database
+    long inserted = auc.inserted();
+    for(final DBUpdate d : dbUpdates) {
+      if(d instanceof DBAdd) inserted += ((DBAdd) d).inserted();
+    }
+    DataUpdate.checkRange(data, inserted, info);
   }
 
   /**
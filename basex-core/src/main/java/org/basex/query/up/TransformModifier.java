@@ -45,4 +45,10 @@ public final class TransformModifier extends ContextModifier {
     final NodeUpdate nodeUp = (NodeUpdate) up;
     if(!refs.contains(nodeUp.data())) throw UPNOTCOPIED_X.get(nodeUp.info(), nodeUp.node());
   }
+
+  @Override
+  void add(final DocsUpdate up, final QueryContext qc) throws QueryException {
+    // Disallow side-effecting updates within transform expressions.
+    throw BASX_DBTRANSFORM.get(up.info());
+  }
 }
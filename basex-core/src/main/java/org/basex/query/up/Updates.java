@@ -77,6 +77,17 @@ public final class Updates {
     mod.add(up, qc);
   }
 
+  /**
+   * Adds an update operation on documents to the current context modifier.
+   * @param up update operation
+   * @param qc query context
+   * @throws QueryException query exception
+   */
+  public void add(final DocsUpdate up, final QueryContext qc) throws QueryException {
+    if(mod == null) mod = new DatabaseModifier();
+    mod.add(up, qc);
+  }
+
   /**
    * Determines the data reference and pre value for an update primitive
    * which has a fragment as a target node. If an ancestor of the given target
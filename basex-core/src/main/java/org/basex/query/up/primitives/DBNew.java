@@ -100,8 +100,9 @@ public final class DBNew {
     // add input
     final IOFile dbpath = ctx.soptions.dbpath(string(ni.dbname));
     try {
-      final Parser parser = new DirParser(ni.io, options, dbpath).target(string(ni.path));
-      return new MemBuilder(dbname, parser).dataClip();
+      final DirParser parser = new DirParser(ni.io, options, dbpath);
+      if(ni.shard != -1) parser.shard(ni.shard, ni.shards);
+      return new MemBuilder(dbname, parser.target(string(ni.path))).dataClip();
     } catch(final IOException ex) {
       throw IOERR_X.get(info, ex);
     }
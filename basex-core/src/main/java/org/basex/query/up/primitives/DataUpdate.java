@@ -1,6 +1,9 @@
 package org.basex.query.up.primitives;
 
+import static org.basex.query.QueryError.*;
+
 import org.basex.data.*;
+import org.basex.query.*;
 import org.basex.util.*;
 
 /**
@@ -31,4 +34,19 @@ public abstract class DataUpdate extends Update {
   public final Data data() {
     return data;
   }
+
+  /**
+   * Checks if the specified number of nodes can be added to the target database.
+   * Pre values and node ids are stored as integers, and ids of deleted nodes are not reused.
+   * @param data target data reference
+   * @param nodes number of nodes to be added
+   * @param info input info
+   * @throws QueryException query exception
+   */
+  public static void checkRange(final Data data, final long nodes, final InputInfo info)
+      throws QueryException {
+    final MetaData meta = data.meta;
+    if(Math.max(meta.size, meta.lastid + 1L) + nodes > Integer.MAX_VALUE)
+      throw BXDB_LIMIT_X.get(info, meta.name);
+  }
 }
@@ -0,0 +1,62 @@
+package org.basex.query.up.primitives;
+
+import java.util.*;
+
+import org.basex.data.*;
+import org.basex.query.*;
+import org.basex.util.*;
+import org.basex.util.list.*;
+
+/**
+ * Update operation on the documents that are stored under a database path.
+ * The documents are looked up when the updates are prepared: if only single documents of the
+ * database are locked, other transactions may have changed the pre values in the meantime.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public abstract class DocsUpdate {
+  /** Target data reference. */
+  protected final Data data;
+  /** Database path. */
+  protected final String path;
+  /** Input info. */
+  protected final InputInfo info;
+
+  /**
+   * Constructor.
+   * @param data target data reference
+   * @param path database path
+   * @param info input info
+   */
+  protected DocsUpdate(final Data data, final String path, final InputInfo info) {
+    this.data = data;
+    this.path = path;
+    this.info = info;
+  }
+
+  /**
+   * Returns the update primitives for the documents that are currently stored under the path.
+   * @return update primitives
+   * @throws QueryException query exception
+   */
+  public final ArrayList<DataUpdate> resolve() throws QueryException {
+    return updates(data.resources.docs(path));
+  }
+
+  /**
+   * Returns the update primitives for the specified documents.
+   * @param docs pre values of documents
+   * @return update primitives
+   * @throws QueryException query exception
+   */
+  protected abstract ArrayList<DataUpdate> updates(IntList docs) throws QueryException;
+
+  /**
+   * Input info.
+   * @return input info
+   */
+  public final InputInfo info() {
+    return info;
+  }
+}
@@ -19,4 +19,8 @@ public final class NewInput {
   public byte[] path;
   /** Target database. */
   public byte[] dbname;
+  /** Shard to which the parsed documents are assigned ({@code -1}: all documents). */
+  public int shard = -1;
+  /** Number of shards. */
+  public int shards;
 }
@@ -55,9 +55,19 @@ public final class DBAdd extends DBUpdate {
     add.addDocs(tmp, data.meta.name, options);
   }
 
+  /**
+   * Returns the number of nodes that will be added. Must be called after
+   * {@link #prepare(MemData)}.
+   * @return number of nodes
+   */
+  public long inserted() {
+    return add.data != null ? add.data.meta.size : 0;
+  }
+
   @Override
   public void apply() {
-    data.insert(data.meta.size, -1, new DataClip(add.data));
+    // skip insertion if no documents were parsed (e.g.: no files passed the filter)
+    if(inserted() != 0) data.insert(data.meta.size, -1, new DataClip(add.data));
   }
 
   @Override
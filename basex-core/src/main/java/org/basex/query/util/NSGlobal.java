@@ -63,6 +63,7 @@ public final class NSGlobal {
     NS.add(INDEX_PREFIX, INDEX_URI);
     NS.add(INPUT_PREFIX, INPUT_URI);
     NS.add(INSPECT_PREFIX, INSPECT_URI);
+    NS.add(JOBS_PREFIX, JOBS_URI);
     NS.add(JSON_PREFIX, JSON_URI);
     NS.add(OUT_PREFIX, OUT_URI);
     NS.add(PROC_PREFIX, PROC_URI);
@@ -85,6 +85,7 @@ public final class ANodeList extends ElementList implements Iterable<ANode> {
    * @param s new size
    */
   private void copyOf(final int s) {
+    Profile.memory((long) (s - list.length) * Profile.ITEM);
     final ANode[] tmp = new ANode[s];
     System.arraycopy(list, 0, tmp, 0, size);
     list = tmp;
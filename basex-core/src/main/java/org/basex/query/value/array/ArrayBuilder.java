@@ -4,6 +4,7 @@ import java.util.*;
 
 import org.basex.query.util.fingertree.*;
 import org.basex.query.value.*;
+import org.basex.util.*;
 
 /**
  * A builder for creating an {@link Array} by prepending and appending elements.
@@ -35,6 +36,7 @@ public final class ArrayBuilder {
    * @return self reference for convenience
    */
   public ArrayBuilder prepend(final Value elem) {
+    Profile.memory(Profile.ITEM);
     if(inLeft < Array.MAX_DIGIT) {
       // just insert the element
       vals[(mid - inLeft + CAP - 1) % CAP] = elem;
@@ -72,6 +74,7 @@ public final class ArrayBuilder {
    * @return self reference for convenience
    */
   public ArrayBuilder append(final Value elem) {
+    Profile.memory(Profile.ITEM);
     if(inRight < Array.MAX_DIGIT) {
       // just insert the element
       vals[(mid + inRight) % CAP] = elem;
@@ -4,6 +4,7 @@ import java.util.*;
 
 import org.basex.query.util.fingertree.*;
 import org.basex.query.value.*;
+import org.basex.util.*;
 
 /**
  * An array containing more elements than fit into a {@link SmallArray}.
@@ -69,6 +70,7 @@ final class BigArray extends Array {
 
   @Override
   public Array cons(final Value elem) {
+    Profile.memory(Profile.ITEM);
     if(left.length < MAX_DIGIT) {
       final Value[] newLeft = slice(left, -1, left.length);
       newLeft[0] = elem;
@@ -84,6 +86,7 @@ final class BigArray extends Array {
 
   @Override
   public Array snoc(final Value elem) {
+    Profile.memory(Profile.ITEM);
     if(right.length < MAX_DIGIT) {
       final Value[] newRight = slice(right, 0, right.length + 1);
       newRight[right.length] = elem;
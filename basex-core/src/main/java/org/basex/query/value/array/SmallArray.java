@@ -3,6 +3,7 @@ package org.basex.query.value.array;
 import java.util.*;
 
 import org.basex.query.value.*;
+import org.basex.util.*;
 
 /**
  * A small array that is represented in a single Java array.
@@ -25,6 +26,7 @@ final class SmallArray extends Array {
 
   @Override
   public Array cons(final Value head) {
+    Profile.memory(Profile.ITEM);
     if(elems.length < MAX_SMALL) {
       final Value[] newElems = slice(elems, -1, elems.length);
       newElems[0] = head;
@@ -39,6 +41,7 @@ final class SmallArray extends Array {
 
   @Override
   public Array snoc(final Value last) {
+    Profile.memory(Profile.ITEM);
     if(elems.length < MAX_SMALL) {
       final Value[] newElems = slice(elems, 0, elems.length + 1);
       newElems[newElems.length - 1] = last;
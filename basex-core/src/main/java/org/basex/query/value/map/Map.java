@@ -165,6 +165,8 @@ public final class Map extends FItem {
    */
   public Map put(final Item key, final Value value, final InputInfo ii) throws QueryException {
     final TrieNode ins = root.put(key.hash(ii), key, value, 0, ii);
+    // record the memory of new entries (leaf node with key and value)
+    if(ins.size > root.size) Profile.memory(Profile.OBJECT + 2 * Profile.ITEM);
     return ins == root ? this :
       new Map(ins, dt + (key instanceof ADate ? ((ADate) key).tzDefined() ? 1 : -1 : 0));
   }
@@ -212,6 +212,9 @@ public class DBNode extends ANode {
       final int p = ((DBNode) node).pre;
       return pre > p ? 1 : pre < p ? -1 : 0;
     }
+    // different databases: order by names, which is stable across evaluations
+    final int d = data.meta.name.compareTo(node.data().meta.name);
+    if(d != 0) return d > 0 ? 1 : -1;
     // check order via lowest common ancestor
     return diff(this, node);
   }
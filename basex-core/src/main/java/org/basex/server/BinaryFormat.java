@@ -0,0 +1,140 @@
+package org.basex.server;
+
+import java.io.*;
+import java.math.*;
+
+import org.basex.io.in.*;
+import org.basex.query.*;
+import org.basex.query.value.item.*;
+import org.basex.query.value.type.*;
+import org.basex.util.*;
+
+/**
+ * Compact binary format for transferring result items between server and client.
+ * Each item is introduced by its type id. Integers, doubles, floats and booleans are sent
+ * in their binary representation, all other items are serialized and prefixed by their
+ * length. As no bytes need to be escaped, the format is terminated by a single {@code 0}.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class BinaryFormat {
+  /** Private constructor. */
+  private BinaryFormat() { }
+
+  /**
+   * Writes an atomic value in its binary representation.
+   * @param item item
+   * @param out output stream
+   * @return {@code true} if the item was written, {@code false} if it needs to be serialized
+   * @throws IOException I/O exception
+   * @throws QueryException query exception
+   */
+  static boolean write(final Item item, final OutputStream out)
+      throws IOException, QueryException {
+
+    final Type type = item.type;
+    if(integer(type)) {
+      out.write(type.id().asByte());
+      write(item.itr(null), 8, out);
+    } else if(type == AtomType.DBL) {
+      out.write(type.id().asByte());
+      write(Double.doubleToRawLongBits(item.dbl(null)), 8, out);
+    } else if(type == AtomType.FLT) {
+      out.write(type.id().asByte());
+      write(Float.floatToRawIntBits(item.flt(null)), 4, out);
+    } else if(type == AtomType.BLN) {
+      out.write(type.id().asByte());
+      out.write(item.bool(null) ? 1 : 0);
+    } else {
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Writes a serialized item.
+   * @param type type of the item
+   * @param bytes serialized item
+   * @param size number of bytes
+   * @param out output stream
+   * @throws IOException I/O exception
+   */
+  static void write(final Type type, final byte[] bytes, final int size, final OutputStream out)
+      throws IOException {
+    out.write(type.id().asByte());
+    write(size, 4, out);
+    out.write(bytes, 0, size);
+  }
+
+  /**
+   * Reads the next item and returns it as Java object.
+   * Integers are returned as {@link Long} (values of type {@code xs:unsignedLong}:
+   * {@link BigInteger}), decimals as {@link BigDecimal}, doubles as {@link Double},
+   * floats as {@link Float}, booleans as {@link Boolean}, and all other items as strings.
+   * @param input input stream
+   * @return object, or {@code null} if the end marker has been reached
+   * @throws IOException I/O exception
+   */
+  public static Object read(final BufferInput input) throws IOException {
+    final int id = input.read();
+    if(id <= 0) return null;
+
+    final Type type = Type.ID.getType((byte) id);
+    if(type == null) throw new IOException("Unknown type id: " + id);
+    if(integer(type)) return read(8, input);
+    if(type == AtomType.DBL) return Double.longBitsToDouble(read(8, input));
+    if(type == AtomType.FLT) return Float.intBitsToFloat((int) read(4, input));
+    if(type == AtomType.BLN) return input.read() == 1;
+
+    final int size = (int) read(4, input);
+    final byte[] bytes = new byte[size];
+    for(int b = 0; b < size; b++) {
+      final int i = input.read();
+      if(i == -1) throw new EOFException();
+      bytes[b] = (byte) i;
+    }
+    final String string = Token.string(bytes);
+    if(type == AtomType.ULN) return new BigInteger(string);
+    if(type.instanceOf(AtomType.DEC)) return new BigDecimal(string);
+    return string;
+  }
+
+  /**
+   * Checks if values of the specified type are sent as 64-bit integers.
+   * @param type type
+   * @return result of check
+   */
+  private static boolean integer(final Type type) {
+    return type.instanceOf(AtomType.ITR) && type != AtomType.ULN;
+  }
+
+  /**
+   * Writes a number in big-endian order.
+   * @param value value
+   * @param bytes number of bytes
+   * @param out output stream
+   * @throws IOException I/O exception
+   */
+  private static void write(final long value, final int bytes, final OutputStream out)
+      throws IOException {
+    for(int b = bytes - 1; b >= 0; b--) out.write((int) (value >>> (b << 3)));
+  }
+
+  /**
+   * Reads a number in big-endian order.
+   * @param bytes number of bytes
+   * @param input input stream
+   * @return value
+   * @throws IOException I/O exception
+   */
+  private static long read(final int bytes, final BufferInput input) throws IOException {
+    long value = 0;
+    for(int b = 0; b < bytes; b++) {
+      final int i = input.read();
+      if(i == -1) throw new EOFException();
+      value = value << 8 | i;
+    }
+    return value;
+  }
+}
@@ -4,7 +4,10 @@ import static org.basex.core.Text.*;
 
 import java.io.*;
 import java.net.*;
+import java.nio.channels.*;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
 
 import org.basex.*;
 import org.basex.core.*;
@@ -20,12 +23,17 @@ import org.basex.util.list.*;
 
 /**
  * Server-side client session in the client-server architecture.
+ * Requests are processed by the worker threads of the {@link ClientSelector}.
  *
  * @author BaseX Team 2005-15, BSD License
  * @author Andreas Weiler
  * @author Christian Gruen
  */
-public final class ClientListener extends Thread {
+public final class ClientListener implements Runnable {
+  /** Session id counter. */
+  private static final AtomicLong SESSIONS = new AtomicLong();
+  /** Threads for sending events (created on demand). */
+  private static ExecutorService senders;
   /** Timer for authentication time out. */
   public final Timer auth = new Timer();
   /** Timestamp of last interaction. */
@@ -41,6 +49,10 @@ public final class ClientListener extends Thread {
   private final BaseXServer server;
   /** Socket reference. */
   private final Socket socket;
+  /** Selector, waiting for new requests. */
+  private final ClientSelector selector;
+  /** Session id. */
+  private final long session = SESSIONS.incrementAndGet();
 
   /** Socket for events. */
   private Socket esocket;
@@ -48,6 +60,10 @@ public final class ClientListener extends Thread {
   private PrintOutput eout;
   /** Flag for active events. */
   private boolean events;
+  /** Events that have not been sent yet (name and message). */
+  private final ArrayDeque<byte[][]> queued = new ArrayDeque<>();
+  /** Indicates if queued events are currently being sent. Guarded by {@link #queued}. */
+  private boolean sending;
   /** Input stream. */
   private BufferInput in;
   /** Output stream. */
@@ -56,26 +72,82 @@ public final class ClientListener extends Thread {
   private Command command;
   /** Query id counter. */
   private int id;
-  /** Indicates if the server thread is running. */
-  private boolean running;
+  /** Nonce of the authentication request. */
+  private String nonce;
+  /** Indicates if the session is running. */
+  private volatile boolean running;
+  /** Type of the current request ({@code null} if it has already been recorded). */
+  private String request;
+  /** Start time of the current request. */
+  private long started;
 
   /**
    * Constructor.
    * @param socket socket
    * @param context database context
    * @param server server reference
+   * @param selector selector
    */
-  public ClientListener(final Socket socket, final Context context, final BaseXServer server) {
+  public ClientListener(final Socket socket, final Context context, final BaseXServer server,
+      final ClientSelector selector) {
     this.context = new Context(context, this);
     this.socket = socket;
     this.server = server;
+    this.selector = selector;
     last = System.currentTimeMillis();
-    setDaemon(true);
+  }
+
+  /**
+   * Starts the session: sends an authentication request to the client and waits for
+   * the response.
+   */
+  public void start() {
+    try {
+      nonce = Long.toString(System.nanoTime());
+      // clients that stop sending in the middle of a request must not block a worker thread
+      socket.setSoTimeout(context.soptions.get(StaticOptions.READTIMEOUT) * 1000);
+      // send {REALM:TIMESTAMP}0
+      final Metrics metrics = context.metrics;
+      out = PrintOutput.get(new FilterOutputStream(socket.getOutputStream()) {
+        @Override
+        public void write(final int b) throws IOException {
+          out.write(b);
+          metrics.sent(1);
+        }
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+          out.write(b, off, len);
+          metrics.sent(len);
+        }
+      });
+      out.print(Prop.NAME + ':' + nonce);
+      send(true);
+      in = new BufferInput(new FilterInputStream(socket.getInputStream()) {
+        @Override
+        public int read() throws IOException {
+          final int b = in.read();
+          if(b != -1) metrics.received(1);
+          return b;
+        }
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+          final int r = in.read(b, off, len);
+          metrics.received(r);
+          return r;
+        }
+      });
+      selector.register(this);
+    } catch(final IOException ex) {
+      log(LogType.ERROR, Util.message(ex));
+      server.remove(this);
+    }
   }
 
   @Override
   public void run() {
-    if(!authenticate()) return;
+    // sessions are dispatched by the selector if input or the end of the stream is pending
+    boolean pending = running;
+    if(!running && !authenticate()) return;
 
     try {
       while(running) {
@@ -83,6 +155,14 @@ public final class ClientListener extends Thread {
         String cmd;
         final ServerCmd sc;
         try {
+          // no pending input: release thread and wait for the next request.
+          // the end of the stream is not reported by available(), so the first byte
+          // of a dispatched session must always be read
+          if(!pending && in.available() == 0) {
+            selector.register(this);
+            return;
+          }
+          pending = false;
           final int b = in.read();
           if(b == -1) {
             // end of stream: exit session
@@ -92,7 +172,9 @@ public final class ClientListener extends Thread {
 
           last = System.currentTimeMillis();
           perf.time();
+          started = System.nanoTime();
           sc = ServerCmd.get(b);
+          request = sc.toString();
           cmd = null;
           if(sc == ServerCmd.CREATE) {
             create();
@@ -122,6 +204,7 @@ public final class ClientListener extends Thread {
         // parse input and create command instance
         try {
           command = new CommandParser(cmd, context).parseSingle();
+          request = Util.className(command).toUpperCase(Locale.ENGLISH);
           log(LogType.REQUEST, command.toString(true));
         } catch(final QueryException ex) {
           // log invalid command
@@ -176,17 +259,9 @@ public final class ClientListener extends Thread {
    */
   private boolean authenticate() {
     try {
-      final String nonce = Long.toString(System.nanoTime());
       final byte[] address = socket.getInetAddress().getAddress();
 
-      // send {REALM:TIMESTAMP}0
-      out = PrintOutput.get(socket.getOutputStream());
-      out.print(Prop.NAME + ':' + nonce);
-      send(true);
-
-      // evaluate login data
-      in = new BufferInput(socket.getInputStream());
-      // receive {USER}0{DIGEST-HASH}0
+      // evaluate login data: receive {USER}0{DIGEST-HASH}0
       final String us = in.readString(), hash = in.readString();
       final User user = context.users.get(us);
       running = user != null &&
@@ -211,6 +286,8 @@ public final class ClientListener extends Thread {
         log(LogType.ERROR, Util.message(ex));
         running = false;
       }
+      // login data could not be read (e.g. after a read timeout): close session
+      quitAuth();
     }
 
     server.remove(this);
@@ -245,6 +322,8 @@ public final class ClientListener extends Thread {
     context.sessions.remove(this);
 
     try {
+      // close open cursors
+      for(final ServerQuery qp : queries.values()) qp.close();
       new Close().run(context);
       socket.close();
       if(events) {
@@ -258,6 +337,33 @@ public final class ClientListener extends Thread {
     }
   }
 
+  /**
+   * Indicates if the session has open cursors, which may hold locks.
+   * @return result of check
+   */
+  boolean cursors() {
+    for(final ServerQuery qp : queries.values()) {
+      if(qp.cursor()) return true;
+    }
+    return false;
+  }
+
+  /**
+   * Returns the socket channel of this session.
+   * @return channel
+   */
+  SocketChannel channel() {
+    return socket.getChannel();
+  }
+
+  /**
+   * Returns the id of this session.
+   * @return id
+   */
+  public long getId() {
+    return session;
+  }
+
   /**
    * Returns the context of this session.
    * @return user reference
@@ -279,18 +385,101 @@ public final class ClientListener extends Thread {
   }
 
   /**
-   * Sends a notification to the client.
+   * Queues a notification for the client. Queued notifications are sent by a separate
+   * thread, so a slow client will not block the sender or other clients.
+   * If the queue of the client is full, the client is unsubscribed from all events.
    * @param name event name
    * @param msg event message
-   * @throws IOException I/O exception
    */
-  public synchronized void notify(final byte[] name, final byte[] msg) throws IOException {
+  public void notify(final byte[] name, final byte[] msg) {
     last = System.currentTimeMillis();
-    eout.print(name);
-    eout.write(0);
-    eout.print(msg);
-    eout.write(0);
-    eout.flush();
+    final StaticOptions sopts = context.soptions;
+    synchronized(queued) {
+      if(queued.size() >= Math.max(1, sopts.get(StaticOptions.EVENTQUEUE))) {
+        if(sopts.get(StaticOptions.EVENTDROP)) return;
+        log(LogType.ERROR, "Event queue is full; client is unsubscribed.");
+        unsubscribe();
+        return;
+      }
+      queued.add(new byte[][] { name, msg });
+      if(sending) return;
+      sending = true;
+    }
+    senders().execute(new Runnable() {
+      @Override
+      public void run() {
+        send();
+      }
+    });
+  }
+
+  /**
+   * Sends all queued notifications to the client.
+   * Notifications that have been queued in the meantime are sent in a single batch.
+   */
+  private void send() {
+    try {
+      while(true) {
+        final ArrayList<byte[][]> batch;
+        synchronized(queued) {
+          if(queued.isEmpty()) {
+            sending = false;
+            return;
+          }
+          batch = new ArrayList<>(queued);
+          queued.clear();
+        }
+        synchronized(this) {
+          for(final byte[][] event : batch) {
+            eout.print(event[0]);
+            eout.write(0);
+            eout.print(event[1]);
+            eout.write(0);
+          }
+          eout.flush();
+        }
+      }
+    } catch(final IOException ex) {
+      // remove client if events could not be delivered
+      Util.debug(ex);
+      unsubscribe();
+    }
+  }
+
+  /**
+   * Removes the client from all events, discards all queued notifications and closes the
+   * event socket. A running sender will stop after having found the empty queue.
+   */
+  private void unsubscribe() {
+    synchronized(context.events) {
+      for(final Sessions s : context.events.values()) s.remove(this);
+    }
+    synchronized(queued) {
+      queued.clear();
+    }
+    try {
+      esocket.close();
+    } catch(final IOException ex) {
+      Util.debug(ex);
+    }
+  }
+
+  /**
+   * Returns the threads for sending events.
+   * @return executor service
+   */
+  private static synchronized ExecutorService senders() {
+    if(senders == null) {
+      senders = Executors.newCachedThreadPool(new ThreadFactory() {
+        @Override
+        public Thread newThread(final Runnable r) {
+          final Thread thread = new Thread(r, Util.className(ClientListener.class) + "Events");
+          thread.setDaemon(true);
+          return thread;
+        }
+      });
+    }
+    return senders;
   }
 
   /**
@@ -494,6 +683,13 @@ public final class ClientListener extends Thread {
           qp.execute(false, out, true, false);
         } else if(sc == ServerCmd.FULL) {
           qp.execute(true, out, true, true);
+        } else if(sc == ServerCmd.CURSOR) {
+          qp.open();
+        } else if(sc == ServerCmd.FETCH || sc == ServerCmd.BINARY) {
+          final int max = Strings.toInt(in.readString());
+          final long size = Strings.toLong(in.readString());
+          qp.fetch(out, max, size, sc == ServerCmd.BINARY);
+          info.append(max).append(" items, ").append(size).append(" bytes");
         } else if(sc == ServerCmd.INFO) {
           out.print(qp.info());
         } else if(sc == ServerCmd.OPTIONS) {
@@ -501,6 +697,7 @@ public final class ClientListener extends Thread {
         } else if(sc == ServerCmd.UPDATING) {
           out.print(Boolean.toString(qp.updating()));
         } else if(sc == ServerCmd.CLOSE) {
+          qp.close();
           queries.remove(arg);
         } else if(sc == ServerCmd.NEXT) {
           throw new Exception("Protocol for query iteration is out-of-date.");
@@ -518,7 +715,8 @@ public final class ClientListener extends Thread {
       error = Util.message(ex);
       log(LogType.REQUEST, sc + "[" + arg + ']');
       log(LogType.ERROR, error);
-      queries.remove(arg);
+      final ServerQuery qp = queries.remove(arg);
+      if(qp != null) qp.close();
     }
     if(error != null) {
       // send 0 as end marker, 1 as error flag, and {MSG}0
@@ -546,6 +744,11 @@ public final class ClientListener extends Thread {
    * @param info message info
    */
   private void log(final LogType type, final String info) {
+    // record the first result of a request
+    if(request != null && (type == LogType.OK || type == LogType.ERROR)) {
+      context.metrics.request(request, System.nanoTime() - started, type == LogType.OK);
+      request = null;
+    }
     context.log.write(address(), context.user(), type, info, perf);
   }
 }
@@ -0,0 +1,136 @@
+package org.basex.server;
+
+import java.io.*;
+import java.nio.channels.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.basex.core.*;
+import org.basex.util.*;
+
+/**
+ * Watches the sockets of idle client sessions and dispatches sessions with pending input
+ * to a bounded pool of worker threads. A session will only occupy a thread while a request
+ * is being processed; as soon as no more input is available, it will be passed on to
+ * this class again. The socket of a waiting session is switched to non-blocking mode;
+ * it is switched back before a request is processed, so that the blocking client/server
+ * protocol remains unchanged.
+ *
+ * The number of requests that are processed in parallel is limited by
+ * {@link StaticOptions#SERVERTHREADS}. A request that is only partially sent occupies its
+ * thread until the remaining input arrives. Reads will time out after
+ * {@link StaticOptions#READTIMEOUT} seconds, and the session will be closed; if the timeout
+ * is deactivated, slow clients can exhaust all threads.
+ *
+ * Sessions with open cursors keep the locks of their queries between two requests. If all
+ * worker threads were occupied by requests that wait for these locks, the cursors could
+ * not be fetched or closed anymore. Requests of such sessions are thus processed by
+ * additional threads, which are not limited in number.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class ClientSelector extends Thread {
+  /** Sessions waiting to be registered. */
+  private final Queue<ClientListener> pending = new ConcurrentLinkedQueue<>();
+  /** Worker threads. */
+  private final ExecutorService workers;
+  /** Threads for sessions with open cursors (created on demand). */
+  private final ExecutorService cursors;
+  /** Selector. */
+  private final Selector selector;
+  /** Indicates if the selector is running. */
+  private volatile boolean running = true;
+
+  /**
+   * Constructor.
+   * @param threads maximum number of worker threads
+   * @throws IOException I/O exception
+   */
+  public ClientSelector(final int threads) throws IOException {
+    super(Util.className(ClientSelector.class));
+    selector = Selector.open();
+    final ThreadFactory factory = new ThreadFactory() {
+      @Override
+      public Thread newThread(final Runnable r) {
+        final Thread thread = new Thread(r, Util.className(ClientListener.class));
+        thread.setDaemon(true);
+        return thread;
+      }
+    };
+    workers = Executors.newFixedThreadPool(Math.max(1, threads), factory);
+    cursors = Executors.newCachedThreadPool(factory);
+    setDaemon(true);
+  }
+
+  /**
+   * Waits for the next request of the specified session.
+   * @param client client session
+   */
+  public void register(final ClientListener client) {
+    pending.add(client);
+    selector.wakeup();
+  }
+
+  @Override
+  public void run() {
+    final ArrayList<ClientListener> ready = new ArrayList<>();
+    while(running) {
+      try {
+        selector.select();
+
+        // register waiting sessions
+        for(ClientListener client; (client = pending.poll()) != null;) {
+          try {
+            final SocketChannel channel = client.channel();
+            channel.configureBlocking(false);
+            channel.register(selector, SelectionKey.OP_READ, client);
+          } catch(final IOException ex) {
+            client.quit();
+          }
+        }
+
+        // cancel keys of sessions with pending input (end of stream included)
+        final Set<SelectionKey> keys = selector.selectedKeys();
+        for(final SelectionKey key : keys) {
+          key.cancel();
+          ready.add((ClientListener) key.attachment());
+        }
+        keys.clear();
+        if(ready.isEmpty()) continue;
+
+        // deregister cancelled keys, switch to blocking mode and process requests
+        selector.selectNow();
+        for(final ClientListener client : ready) {
+          try {
+            client.channel().configureBlocking(true);
+            (client.cursors() ? cursors : workers).execute(client);
+          } catch(final IOException | RejectedExecutionException ex) {
+            // rejected: workers have been shut down
+            client.quit();
+          }
+        }
+        ready.clear();
+      } catch(final ClosedSelectorException ex) {
+        break;
+      } catch(final IOException ex) {
+        Util.errln(ex);
+        break;
+      }
+    }
+  }
+
+  /**
+   * Stops the selector and the worker threads.
+   */
+  public void close() {
+    running = false;
+    workers.shutdownNow();
+    cursors.shutdownNow();
+    try {
+      selector.close();
+    } catch(final IOException ex) {
+      Util.debug(ex);
+    }
+  }
+}
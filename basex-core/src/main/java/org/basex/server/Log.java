@@ -5,6 +5,9 @@ import static org.basex.util.Token.*;
 import java.io.*;
 import java.math.*;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.*;
 
 import org.basex.core.*;
 import org.basex.core.users.*;
@@ -23,6 +26,9 @@ import org.basex.util.*;
  *   <li><b>Performance</b>: Measured time in milliseconds</li>
  * </ul>
  *
+ * Entries are queued without blocking the calling threads, and they are written in batches
+ * by a single background thread.
+ *
  * @author BaseX Team 2005-15, BSD License
  * @author Christian Gruen
  */
@@ -39,12 +45,23 @@ public final class Log {
     /** OK.      */ OK
   }
 
+  /** Number of queued entries after which the writer is woken up. */
+  private static final int BATCH = 1 << 10;
+
   /** Static options. */
   private final StaticOptions sopts;
-  /** Start date of log. */
+  /** Queued entries. */
+  private final ConcurrentLinkedQueue<Entry> queue = new ConcurrentLinkedQueue<>();
+  /** Number of queued entries. */
+  private final AtomicInteger queued = new AtomicInteger();
+  /** Number of entries that have been dropped since the last write. */
+  private final AtomicLong dropped = new AtomicLong();
+  /** Writer thread (created on demand). */
+  private volatile Writer writer;
+  /** Start date of log (only accessed while entries are written). */
   private String start;
-  /** Output stream. */
-  private FileOutputStream fos;
+  /** Output stream (only accessed while entries are written). */
+  private OutputStream out;
 
   /**
    * Constructor.
@@ -59,7 +76,7 @@ public final class Log {
    * @param type log type
    * @param info info string (can be {@code null})
    */
-  public synchronized void writeServer(final LogType type, final String info) {
+  public void writeServer(final LogType type, final String info) {
     write(SERVER, null, type, info, null);
   }
 
@@ -71,7 +88,7 @@ public final class Log {
    * @param info info string (can be {@code null})
    * @param perf performance string
    */
-  public synchronized void write(final String address, final User user, final int type,
+  public void write(final String address, final User user, final int type,
       final String info, final Performance perf) {
     write(address, user, Integer.toString(type), info, perf);
   }
@@ -84,91 +101,156 @@ public final class Log {
    * @param info info string (can be {@code null})
    * @param perf performance string
    */
-  public synchronized void write(final String address, final User user, final LogType type,
+  public void write(final String address, final User user, final LogType type,
       final String info, final Performance perf) {
     write(address, user, type.toString(), info, perf);
   }
 
   /**
-   * Writes an entry to the log file.
+   * Queues an entry. Entries are written to disk by a separate thread, which is woken up
+   * after the time specified by {@link StaticOptions#LOGFLUSH}, or if a larger number of
+   * entries has been queued. If the maximum number of queued entries is reached, new entries
+   * are either dropped, or they are written by the calling thread
+   * (see {@link StaticOptions#LOGQUEUE} and {@link StaticOptions#LOGDROP}).
    * @param address address string
    * @param user user ({@code admin} if null)
    * @param type type (ERROR, OK, REQUEST, INFO, HTTP status code)
    * @param info info string (can be {@code null})
    * @param perf performance string
    */
-  private synchronized void write(final String address, final User user, final String type,
+  private void write(final String address, final User user, final String type,
       final String info, final Performance perf) {
 
-    if(!sopts.get(StaticOptions.LOG)) {
-      close();
-      return;
+    if(!sopts.get(StaticOptions.LOG)) return;
+
+    final int max = Math.max(1, sopts.get(StaticOptions.LOGQUEUE));
+    if(queued.get() >= max) {
+      if(sopts.get(StaticOptions.LOGDROP)) {
+        dropped.incrementAndGet();
+        return;
+      }
+      // write queued entries in the calling thread
+      flush();
     }
 
-    // initializes the output stream and returns the current date
-    final Date date = new Date();
+    queue.add(new Entry(address, user == null ? UserText.ADMIN : user.name(), type, info,
+        perf == null ? null : perf.toString()));
+    final Writer wrt = writer();
+    if(queued.incrementAndGet() % BATCH == 0) LockSupport.unpark(wrt);
+  }
+
+  /**
+   * Writes all queued entries to disk.
+   */
+  public synchronized void flush() {
+    final long drop = dropped.getAndSet(0);
+    if(drop > 0) {
+      queue.add(new Entry(SERVER, UserText.ADMIN, LogType.ERROR.toString(),
+          drop + " log entries have been dropped.", null));
+      queued.incrementAndGet();
+    }
+    if(queue.isEmpty()) return;
+
+    final int ml = sopts.get(StaticOptions.LOGMSGMAXLEN);
     try {
-      // check if day has changed
-      final String nstart = name(date);
-      if(fos != null && !start.equals(nstart)) close();
-
-      // create new log file
-      if(fos == null) {
-        final IOFile dir = dir();
-        dir.md();
-        fos = new FileOutputStream(new IOFile(dir, nstart + IO.LOGSUFFIX).file(), true);
-        start = nstart;
-      }
+      for(Entry entry; (entry = queue.poll()) != null;) {
+        queued.decrementAndGet();
+        final Date date = new Date(entry.time);
+        // check if day has changed
+        final String nstart = name(date);
+        if(out != null && !start.equals(nstart)) close(false);
+
+        // create new log file
+        if(out == null) {
+          final IOFile dir = sopts.dbpath(IO.LOGSUFFIX + 's');
+          dir.md();
+          out = new BufferedOutputStream(new FileOutputStream(
+              new IOFile(dir, nstart + IO.LOGSUFFIX).file(), true));
+          start = nstart;
+        }
 
-      // construct log text
-      final int ml = sopts.get(StaticOptions.LOGMSGMAXLEN);
-      final TokenBuilder tb = new TokenBuilder();
-      tb.add(DateTime.format(date, DateTime.TIME));
-      tb.add('\t').add(address);
-      tb.add('\t').add(user == null ? UserText.ADMIN : user.name());
-      tb.add('\t').add(type);
-      tb.add('\t').add(info == null ? EMPTY : chop(normalize(token(info)), ml));
-      if(perf != null) tb.add('\t').add(perf.toString());
-      tb.add(Prop.NL);
-
-      // write and flush text
-      fos.write(tb.finish());
-      fos.flush();
+        // construct log text
+        final TokenBuilder tb = new TokenBuilder();
+        tb.add(DateTime.format(date, DateTime.TIME));
+        tb.add('\t').add(entry.address);
+        tb.add('\t').add(entry.user);
+        tb.add('\t').add(entry.type);
+        tb.add('\t').add(entry.info == null ? EMPTY : chop(normalize(token(entry.info)), ml));
+        if(entry.perf != null) tb.add('\t').add(entry.perf);
+        tb.add(Prop.NL);
+        out.write(tb.finish());
+      }
+      if(out != null) out.flush();
     } catch(final IOException ex) {
       Util.stack(ex);
     }
   }
 
   /**
-   * Closes the log file.
+   * Writes all queued entries and closes the log file.
    */
   public synchronized void close() {
-    if(fos == null) return;
-    try {
-      fos.close();
-      fos = null;
-    } catch(final IOException ex) {
-      Util.stack(ex);
+    final Writer wrt = writer;
+    if(wrt != null) {
+      writer = null;
+      wrt.stopped = true;
+      LockSupport.unpark(wrt);
     }
+    flush();
+    close(true);
   }
 
   /**
-   * Returns a reference to the log directory.
+   * Returns a reference to the log directory. Queued entries are written before.
    * @return log directory
    */
-  public synchronized IOFile dir() {
+  public IOFile dir() {
+    flush();
     // log suffix, plural
     return sopts.dbpath(IO.LOGSUFFIX + 's');
   }
 
   /**
-   * Returns all log files.
+   * Returns all log files. Queued entries are written before.
    * @return log directory
    */
-  public synchronized IOFile[] files() {
+  public IOFile[] files() {
     return dir().children(".*\\" + IO.LOGSUFFIX);
   }
 
+  /**
+   * Closes the log file.
+   * @param report report errors
+   */
+  private void close(final boolean report) {
+    if(out == null) return;
+    try {
+      out.close();
+    } catch(final IOException ex) {
+      if(report) Util.stack(ex);
+    }
+    out = null;
+  }
+
+  /**
+   * Returns the writer thread.
+   * @return writer
+   */
+  private Writer writer() {
+    Writer wrt = writer;
+    if(wrt == null) {
+      synchronized(queue) {
+        wrt = writer;
+        if(wrt == null) {
+          wrt = new Writer();
+          wrt.start();
+          writer = wrt;
+        }
+      }
+    }
+    return wrt;
+  }
+
   /**
    * Returns the name of a log file (excluding the suffix) for the specified date.
    * @param date date
@@ -178,6 +260,65 @@ public final class Log {
     return DateTime.format(date, DateTime.DATE);
   }
 
+  /**
+   * Thread that writes queued entries to disk.
+   */
+  private final class Writer extends Thread {
+    /** Indicates if the thread is to be stopped. */
+    private volatile boolean stopped;
+
+    /**
+     * Constructor.
+     */
+    private Writer() {
+      super(Util.className(Log.class));
+      setDaemon(true);
+    }
+
+    @Override
+    public void run() {
+      while(!stopped) {
+        LockSupport.parkNanos(Math.max(1, sopts.get(StaticOptions.LOGFLUSH)) * 1000000L);
+        flush();
+      }
+    }
+  }
+
+  /**
+   * Queued entry.
+   */
+  private static final class Entry {
+    /** Time of creation. */
+    private final long time = System.currentTimeMillis();
+    /** Address. */
+    private final String address;
+    /** User. */
+    private final String user;
+    /** Type. */
+    private final String type;
+    /** Info (can be {@code null}). */
+    private final String info;
+    /** Performance (can be {@code null}). */
+    private final String perf;
+
+    /**
+     * Constructor.
+     * @param address address
+     * @param user user
+     * @param type type
+     * @param info info (can be {@code null})
+     * @param perf performance (can be {@code null})
+     */
+    private Entry(final String address, final String user, final String type,
+        final String info, final String perf) {
+      this.address = address;
+      this.user = user;
+      this.type = type;
+      this.info = info;
+      this.perf = perf;
+    }
+  }
+
   /**
    * Log entry.
    */
@@ -37,6 +37,12 @@ public enum ServerCmd {
   STORE(13),
   /** Code for binding a context value: {id}0{val}0{type}0. */
   CONTEXT(14),
+  /** Code for opening a cursor for iterating results: {id}0. */
+  CURSOR(15),
+  /** Code for fetching the next results of a cursor: {id}0{items}0{bytes}0. */
+  FETCH(16),
+  /** Code for fetching the next results of a cursor in a binary format: {id}0{items}0{bytes}0. */
+  BINARY(17),
   /** Code for returning the update flag: {id}0. */
   UPDATING(30),
   /** Code for executing a query and returning all information relevant for XQJ: {id}0. */
@@ -4,6 +4,7 @@ import static org.basex.core.Text.*;
 import static org.basex.query.QueryError.*;
 
 import java.io.*;
+import java.util.concurrent.*;
 
 import org.basex.api.client.*;
 import org.basex.core.*;
@@ -37,6 +38,17 @@ public final class ServerQuery extends Proc {
   /** Query info. */
   private String info = "";
 
+  /** Thread of an open cursor ({@code null} if no cursor is open). */
+  private ExecutorService cursor;
+  /** Idle timeout of the cursor (scheduled by the shared timer of all processes). */
+  private ScheduledFuture<?> idle;
+  /** Result iterator of the cursor. */
+  private Iter iter;
+  /** Number of items returned by the cursor. */
+  private int items;
+  /** Number of bytes returned by the cursor. */
+  private long bytes;
+
   /**
    * Constructor.
    * @param query query string
@@ -55,6 +67,7 @@ public final class ServerQuery extends Proc {
    * @throws IOException query exception
    */
   public void bind(final String name, final Object value, final String type) throws IOException {
+    close();
     try {
       init().bind(name, value, type);
     } catch(final QueryException ex) {
@@ -70,6 +83,7 @@ public final class ServerQuery extends Proc {
    * @throws IOException query exception
    */
   public void context(final Object value, final String type) throws IOException {
+    close();
     try {
       init().context(value, type);
     } catch(final QueryException ex) {
@@ -115,9 +129,15 @@ public final class ServerQuery extends Proc {
   public void execute(final boolean iter, final OutputStream out, final boolean encode,
       final boolean full) throws IOException {
 
+    close();
+    Profile profile = null;
+    boolean entered = false;
     try {
       // parses the query and registers the process
       ctx.register(parse());
+      profile = qp.qc.info.profile;
+      ctx.limits.assign(profile, ctx.user());
+      entered = profile.enter();
 
       // create serializer
       qp.compile();
@@ -151,21 +171,244 @@ public final class ServerQuery extends Proc {
 
     } catch(final QueryException ex) {
       throw new BaseXException(ex);
+    } catch(final QueryLimitException ex) {
+      throw new BaseXException(ex.getCause());
     } catch(final StackOverflowError ex) {
       Util.debug(ex);
       throw new BaseXException(BASX_STACKOVERFLOW.desc);
     } catch(final ProcException ex) {
       throw new BaseXException(TIMEOUT_EXCEEDED);
     } finally {
-      // close processor and unregisters the process
-      if(qp != null) {
-        qp.close();
-        if(parsed) {
-          ctx.unregister(qp);
-          parsed = false;
+      if(profile != null) profile.exit(entered);
+      finish();
+    }
+  }
+
+  /**
+   * Opens a cursor for fetching the results of the query in batches.
+   * The query will be evaluated by a separate thread, which keeps the process registered
+   * until the cursor is exhausted or closed. The process will also be unregistered if no
+   * results are fetched within the time specified by {@link StaticOptions#CURSORTIMEOUT}.
+   * @throws IOException I/O Exception
+   */
+  public void open() throws IOException {
+    close();
+    cursor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+      @Override
+      public Thread newThread(final Runnable r) {
+        final Thread thread = new Thread(r, Util.className(ServerQuery.class) + "Cursor");
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+    items = 0;
+    bytes = 0;
+    cursor(new Callable<Boolean>() {
+      @Override
+      public Boolean call() throws Exception {
+        // parses the query and registers the process
+        ctx.register(parse());
+        // the profile will be removed when the cursor is closed
+        final Profile profile = qp.qc.info.profile;
+        ctx.limits.assign(profile, ctx.user());
+        profile.enter();
+        qp.compile();
+        final QueryInfo qi = qp.qc.info;
+        qi.compiling = perf.time();
+        iter = qp.iter();
+        qi.evaluating = perf.time();
+        parameters();
+        return true;
+      }
+    });
+    idle();
+  }
+
+  /**
+   * Indicates if a cursor has been opened and not been closed yet.
+   * @return result of check
+   */
+  public boolean cursor() {
+    return cursor != null;
+  }
+
+  /**
+   * Fetches the next results of the cursor. Items will be returned until the maximum
+   * number of items or bytes is reached. At least one item will be returned if the cursor
+   * is not exhausted. The cursor will be closed as soon as no more items are found.
+   * @param out output stream
+   * @param max maximum number of items
+   * @param size maximum number of bytes
+   * @param binary return items in the {@link BinaryFormat}
+   * @throws IOException I/O Exception
+   */
+  public void fetch(final OutputStream out, final int max, final long size,
+      final boolean binary) throws IOException {
+    // no cursor: return empty result
+    if(cursor == null) return;
+
+    if(idle != null) idle.cancel(false);
+    final boolean more = cursor(new Callable<Boolean>() {
+      @Override
+      public Boolean call() throws Exception {
+        // cursor has been closed after the idle timeout
+        if(iter == null) throw new BaseXException(TIMEOUT_EXCEEDED);
+
+        final PrintOutput so = PrintOutput.get(out);
+        final long start = so.size();
+        // binary format: serialized items will be cached and prefixed with their length
+        final ArrayOutput ao = binary ? new ArrayOutput() : null;
+        final PrintOutput po = PrintOutput.get(binary ? ao : new EncodingOutput(so));
+        try(final Serializer ser = Serializer.get(po, parameters)) {
+          for(int c = 0; c < Math.max(1, max) && so.size() - start < size; c++) {
+            final Item it = iter.next();
+            if(it == null) {
+              // generate query info
+              final QueryInfo qi = qp.qc.info;
+              qi.serializing = perf.time();
+              info = qi.toString(qp, bytes, items, ctx.options.get(MainOptions.QUERYINFO));
+              return false;
+            }
+            if(binary) {
+              if(!BinaryFormat.write(it, so)) {
+                ser.reset();
+                ser.serialize(it);
+                po.flush();
+                BinaryFormat.write(it.type, ao.buffer(), (int) ao.size(), so);
+                ao.reset();
+              }
+            } else {
+              po.write(it.typeId().bytes());
+              ser.reset();
+              ser.serialize(it);
+              po.flush();
+              so.write(0);
+            }
+            items++;
+          }
+        } finally {
+          bytes += so.size() - start;
         }
-        qp = null;
+        return true;
+      }
+    });
+    if(more) idle();
+    else close();
+  }
+
+  /**
+   * Closes an open cursor.
+   */
+  public void close() {
+    final ExecutorService cs = cursor;
+    if(cs == null) return;
+    cursor = null;
+    if(idle != null) idle.cancel(false);
+
+    release(cs);
+    cs.shutdown();
+    try {
+      while(!cs.awaitTermination(1, TimeUnit.SECONDS));
+    } catch(final InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Starts the idle timeout of the cursor. If the timeout expires, the process will be
+   * unregistered and the thread of the cursor will be stopped.
+   */
+  private void idle() {
+    final ExecutorService cs = cursor;
+    final long ms = ctx.soptions.get(StaticOptions.CURSORTIMEOUT) * 1000L;
+    idle = null;
+    if(cs == null || ms == 0) return;
+
+    idle = timer().schedule(new Runnable() {
+      @Override
+      public void run() {
+        release(cs);
+        cs.shutdown();
+      }
+    }, ms, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Unregisters the process in the thread of the specified cursor.
+   * @param cs thread of the cursor
+   */
+  private void release(final ExecutorService cs) {
+    try {
+      cs.execute(new Runnable() {
+        @Override
+        public void run() {
+          release();
+        }
+      });
+    } catch(final RejectedExecutionException ex) {
+      // the cursor has already been released after the idle timeout
+      Util.debug(ex);
+    }
+  }
+
+  /**
+   * Removes the profile of the cursor and finishes the query.
+   * Must be called by the thread of the cursor.
+   */
+  private void release() {
+    if(qp != null) qp.qc.info.profile.exit(true);
+    finish();
+  }
+
+  /**
+   * Runs a task in the thread of the cursor and waits for the result.
+   * The cursor will be closed if an error is raised.
+   * @param task task
+   * @return result of the task
+   * @throws IOException I/O Exception
+   */
+  private boolean cursor(final Callable<Boolean> task) throws IOException {
+    try {
+      return cursor.submit(task).get();
+    } catch(final RejectedExecutionException ex) {
+      // the cursor has been stopped after the idle timeout
+      close();
+      throw new BaseXException(TIMEOUT_EXCEEDED);
+    } catch(final InterruptedException ex) {
+      close();
+      Thread.currentThread().interrupt();
+      throw new BaseXException(TIMEOUT_EXCEEDED);
+    } catch(final ExecutionException ex) {
+      close();
+      final Throwable th = ex.getCause();
+      if(th instanceof QueryException) throw new BaseXException((QueryException) th);
+      if(th instanceof QueryLimitException) {
+        throw new BaseXException(((QueryLimitException) th).getCause());
+      }
+      if(th instanceof ProcException) throw new BaseXException(TIMEOUT_EXCEEDED);
+      if(th instanceof StackOverflowError) {
+        Util.debug(th);
+        throw new BaseXException(BASX_STACKOVERFLOW.desc);
+      }
+      if(th instanceof IOException) throw (IOException) th;
+      if(th instanceof RuntimeException) throw (RuntimeException) th;
+      if(th instanceof Error) throw (Error) th;
+      throw new BaseXException((Exception) th);
+    }
+  }
+
+  /**
+   * Closes the query processor and unregisters the process.
+   */
+  private void finish() {
+    iter = null;
+    if(qp != null) {
+      qp.close();
+      if(parsed) {
+        ctx.unregister(qp);
+        parsed = false;
       }
+      qp = null;
     }
   }
 
@@ -0,0 +1,241 @@
+package org.basex.util;
+
+import static org.basex.query.QueryError.*;
+
+import java.util.concurrent.atomic.*;
+
+import org.basex.query.*;
+
+/**
+ * Resources that have been consumed by a query: accessed table blocks, blocks that had to be
+ * read from disk, index probes, materialized items and the estimated size of materialized
+ * data. The counters are atomic, as parts of a query may be evaluated in parallel.
+ *
+ * A profile is assigned to the current thread via {@link #enter()}. If a profile has already
+ * been assigned (e.g., by a query that evaluates another query), it will be kept, and the
+ * resources of the nested query will be accounted to the outer query. Threads that evaluate
+ * parts of a query enter the profile of the query and {@link #leave(boolean)} it afterwards.
+ *
+ * Memory is accounted whenever large structures grow (item arrays, main-memory tables,
+ * buffered tuples, maps and arrays), and it is {@link #release(long) released} when buffers
+ * are no longer needed (e.g., after the tuples of an order or group clause or the items of a
+ * builder have been iterated). The estimate is approximate: structures that are returned as
+ * values will remain accounted until the query is finished. The limits apply to the memory
+ * that is currently accounted. The memory accounted to the user will be released when the
+ * query is finished. If a limit is exceeded, a {@link QueryLimitException} is thrown.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class Profile {
+  /** Estimated size of an object without fields (bytes). */
+  public static final int OBJECT = 16;
+  /** Estimated size of an item, including the reference to it (bytes). */
+  public static final int ITEM = 32;
+
+  /** Profile of the current thread. */
+  private static final ThreadLocal<Profile> CURRENT = new ThreadLocal<>();
+
+  /** Number of accessed table blocks. */
+  public final AtomicLong blocks = new AtomicLong();
+  /** Number of blocks that have been read from disk (buffer misses). */
+  public final AtomicLong faults = new AtomicLong();
+  /** Number of bytes that have been read from disk. */
+  public final AtomicLong bytes = new AtomicLong();
+  /** Number of index probes. */
+  public final AtomicLong probes = new AtomicLong();
+  /** Number of materialized items. */
+  public final AtomicLong items = new AtomicLong();
+  /** Estimated size of materialized data that is currently in use (bytes). */
+  public final AtomicLong memory = new AtomicLong();
+  /** Highest estimated size of materialized data (bytes). */
+  public final AtomicLong peak = new AtomicLong();
+
+  /** Memory limit of the query (bytes; 0: no limit). */
+  private long limit;
+  /** Name of the user (only assigned if the memory of all queries of the user is limited). */
+  private String user;
+  /** Memory consumed by all running queries of the user ({@code null} after the release). */
+  private volatile AtomicLong used;
+  /** Memory limit of all queries of the user (bytes). */
+  private long userLimit;
+
+  /**
+   * Assigns memory limits. Must be called before the profile is assigned to a thread.
+   * @param lim memory limit of the query (bytes; 0: no limit)
+   * @param name name of the user
+   * @param usd memory consumed by all running queries of the user ({@code null}: no limit)
+   * @param usdLimit memory limit of all queries of the user (bytes)
+   */
+  public void limit(final long lim, final String name, final AtomicLong usd,
+      final long usdLimit) {
+    limit = lim;
+    user = name;
+    used = usd;
+    userLimit = usdLimit;
+  }
+
+  /**
+   * Returns the profile of the current thread.
+   * @return profile or {@code null}
+   */
+  public static Profile current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Assigns this profile to the current thread if no other profile has been assigned yet.
+   * @return {@code true} if the profile was assigned
+   */
+  public boolean enter() {
+    if(CURRENT.get() != null) return false;
+    CURRENT.set(this);
+    return true;
+  }
+
+  /**
+   * Removes this profile from the current thread.
+   * @param entered result of {@link #enter()}
+   */
+  public void exit(final boolean entered) {
+    if(entered) {
+      CURRENT.remove();
+      // release the memory that has been accounted to the user
+      final AtomicLong usd = used;
+      if(usd != null) {
+        used = null;
+        usd.addAndGet(-memory.get());
+      }
+    }
+  }
+
+  /**
+   * Removes this profile from a thread that has evaluated a part of the query.
+   * In contrast to {@link #exit(boolean)}, the consumed memory will not be released.
+   * @param entered result of {@link #enter()}
+   */
+  public void leave(final boolean entered) {
+    if(entered) CURRENT.remove();
+  }
+
+  /**
+   * Records an accessed table block.
+   */
+  public static void block() {
+    final Profile p = CURRENT.get();
+    if(p != null) p.blocks.incrementAndGet();
+  }
+
+  /**
+   * Records a block that has been read from disk.
+   * @param length number of read bytes
+   */
+  public static void fault(final long length) {
+    final Profile p = CURRENT.get();
+    if(p != null) {
+      p.faults.incrementAndGet();
+      p.bytes.addAndGet(length);
+    }
+  }
+
+  /**
+   * Records an index probe.
+   */
+  public static void probe() {
+    final Profile p = CURRENT.get();
+    if(p != null) p.probes.incrementAndGet();
+  }
+
+  /**
+   * Records materialized items.
+   * @param count number of items
+   */
+  public static void items(final long count) {
+    final Profile p = CURRENT.get();
+    if(p != null) p.items.addAndGet(count);
+  }
+
+  /**
+   * Records the estimated size of materialized data.
+   * @param size size (bytes)
+   * @throws QueryLimitException memory limit exceeded
+   */
+  public static void memory(final long size) {
+    final Profile p = CURRENT.get();
+    if(p != null) p.allocate(size);
+  }
+
+  /**
+   * Records the estimated size of materialized data that is no longer needed.
+   * @param size size (bytes)
+   */
+  public static void release(final long size) {
+    final Profile p = CURRENT.get();
+    if(p != null && size != 0) p.free(size);
+  }
+
+  /**
+   * Adds the estimated size of materialized data and checks the memory limits.
+   * @param size size (bytes)
+   * @throws QueryLimitException memory limit exceeded
+   */
+  private void allocate(final long size) {
+    final long mem = memory.addAndGet(size);
+    long pk = peak.get();
+    while(mem > pk && !peak.compareAndSet(pk, mem)) pk = peak.get();
+    final AtomicLong usd = used;
+    final long total = usd != null ? usd.addAndGet(size) : 0;
+    if(limit != 0 && mem > limit) {
+      throw new QueryLimitException(BASX_MEMORY_X.get(null, Performance.format(limit)));
+    }
+    if(usd != null && total > userLimit) {
+      throw new QueryLimitException(
+          BASX_USERMEMORY_X_X.get(null, user, Performance.format(userLimit)));
+    }
+  }
+
+  /**
+   * Subtracts the estimated size of released data.
+   * @param size size (bytes)
+   */
+  private void free(final long size) {
+    memory.addAndGet(-size);
+    final AtomicLong usd = used;
+    if(usd != null) usd.addAndGet(-size);
+  }
+
+  /**
+   * Returns a new profile with the resources that have been consumed since the specified
+   * profile was copied. If no new peak has been reached since then, the peak memory will be
+   * the memory that has been added in the meantime.
+   * @param old old profile
+   * @return profile
+   */
+  public Profile since(final Profile old) {
+    final Profile p = new Profile();
+    p.blocks.set(blocks.get() - old.blocks.get());
+    p.faults.set(faults.get() - old.faults.get());
+    p.bytes.set(bytes.get() - old.bytes.get());
+    p.probes.set(probes.get() - old.probes.get());
+    p.items.set(items.get() - old.items.get());
+    final long mem = memory.get() - old.memory.get();
+    p.memory.set(mem);
+    p.peak.set(peak.get() > old.peak.get() ? peak.get() - old.memory.get() : Math.max(0, mem));
+    return p;
+  }
+
+  /**
+   * Returns a copy of this profile.
+   * @return copy
+   */
+  public Profile copy() {
+    return since(new Profile());
+  }
+
+  @Override
+  public String toString() {
+    return blocks + " blocks, " + faults + " faults (" + Performance.format(bytes.get()) +
+      "), " + probes + " index probes, " + items + " items, " +
+      Performance.format(peak.get()) + " memory";
+  }
+}
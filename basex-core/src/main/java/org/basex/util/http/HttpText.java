@@ -22,6 +22,23 @@ public interface HttpText {
   String CONTENT_TYPE = "Content-Type";
   /** HTTP header: Accept. */
   String ACCEPT = "Accept";
+  /** HTTP header: Accept-Encoding. */
+  String ACCEPT_ENCODING = "Accept-Encoding";
+  /** HTTP header: Content-Encoding. */
+  String CONTENT_ENCODING = "Content-Encoding";
+  /** HTTP header: Vary. */
+  String VARY = "Vary";
+  /** HTTP header: ETag. */
+  String ETAG = "ETag";
+  /** HTTP header: If-None-Match. */
+  String IF_NONE_MATCH = "If-None-Match";
+  /** HTTP header: Cookie. */
+  String COOKIE = "Cookie";
+
+  /** Content encoding: gzip. */
+  String GZIP = "gzip";
+  /** Content encoding: deflate. */
+  String DEFLATE = "deflate";
 
   /** HTTP basic authentication. */
   String BASIC = "Basic";
@@ -0,0 +1,83 @@
+package org.basex.api.client;
+
+import static org.junit.Assert.*;
+
+import java.io.*;
+
+import org.basex.*;
+import org.basex.core.*;
+import org.basex.core.users.*;
+import org.junit.*;
+
+/**
+ * This class tests the pool of client sessions.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class SessionPoolTest extends SandboxTest {
+  /** Server reference. */
+  private static BaseXServer server;
+  /** Session pool. */
+  private static SessionPool pool;
+
+  /**
+   * Starts the server and creates the pool.
+   * @throws IOException I/O exception
+   */
+  @BeforeClass
+  public static void start() throws IOException {
+    server = createServer();
+    pool = new SessionPool(Text.S_LOCALHOST, DB_PORT, UserText.ADMIN, UserText.ADMIN, 1, 60000);
+  }
+
+  /**
+   * Closes the pool and stops the server.
+   * @throws IOException I/O exception
+   */
+  @AfterClass
+  public static void stop() throws IOException {
+    pool.close();
+    stopServer(server);
+  }
+
+  /**
+   * Resets the state of sessions that are returned to the pool.
+   * @throws IOException I/O exception
+   */
+  @Test
+  public void reset() throws IOException {
+    try(final ClientSession cs = pool.session()) {
+      cs.execute("create db " + NAME + " <a/>");
+      // query is left open
+      cs.query("1").execute();
+    }
+    assertEquals(1, pool.idle());
+    try(final ClientSession cs = pool.session()) {
+      // database has been closed
+      try {
+        cs.execute("info db");
+        fail("Database is still opened.");
+      } catch(final BaseXException ex) {
+        assertEquals(Text.NO_DB_OPENED, ex.getMessage());
+      }
+      cs.execute("drop db " + NAME);
+    }
+  }
+
+  /**
+   * Discards sessions in which options have been changed.
+   * @throws IOException I/O exception
+   */
+  @Test
+  public void discard() throws IOException {
+    try(final ClientSession cs = pool.session()) {
+      cs.execute("set queryinfo true");
+    }
+    assertEquals(0, pool.idle());
+    try(final ClientSession cs = pool.session()) {
+      assertEquals("false", cs.execute("get queryinfo").replaceAll(".*: ", "").trim());
+    }
+    assertEquals(1, pool.idle());
+  }
+}
@@ -8,7 +8,6 @@ import java.util.*;
 import org.basex.*;
 import org.basex.core.*;
 import org.basex.core.users.*;
-import org.basex.io.in.*;
 import org.basex.io.out.*;
 import org.basex.server.*;
 import org.basex.util.*;
@@ -110,15 +109,17 @@ public final class XdmInfoTest extends SandboxTest {
      * @return string
      * @throws IOException I/O exception
      */
-    @SuppressWarnings("resource")
     byte[] exec(final ServerCmd cmd, final String arg) throws IOException {
       final ArrayOutput ao = new ArrayOutput();
       sout.write(cmd.code);
       send(arg);
       sout.flush();
-      final BufferInput bi = new BufferInput(sin);
-      ClientSession.receive(bi, ao);
-      if(!ClientSession.ok(bi)) throw new BaseXException(bi.readString());
+      // receive {TYPE}{ITEM}0
+      ClientSession.receive(sin, ao);
+      // end marker: an error flag is sent instead if the evaluation failed
+      if(!ClientSession.ok(sin)) throw new BaseXException(sin.readString());
+      // success flag
+      if(!ClientSession.ok(sin)) throw new BaseXException(sin.readString());
       return ao.toArray();
     }
   }
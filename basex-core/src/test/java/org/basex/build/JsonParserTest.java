@@ -0,0 +1,128 @@
+package org.basex.build;
+
+import static org.basex.util.Token.*;
+import static org.junit.Assert.*;
+
+import java.io.*;
+
+import org.basex.*;
+import org.basex.build.json.*;
+import org.basex.build.json.JsonOptions.*;
+import org.basex.core.*;
+import org.basex.core.MainOptions.MainParser;
+import org.basex.core.cmd.*;
+import org.basex.io.*;
+import org.basex.util.*;
+import org.junit.*;
+import org.junit.Test;
+
+/**
+ * JSON Parser Test.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class JsonParserTest extends SandboxTest {
+  /** JSON options. */
+  private JsonParserOptions jopts;
+
+  /** Temporary JSON file. */
+  private static final String TEMP = Prop.TMP + NAME + IO.JSONSUFFIX;
+
+  /**
+   * Creates the initial database.
+   * @throws BaseXException exception
+   */
+  @BeforeClass
+  public static void before() throws BaseXException {
+    new Set(MainOptions.PARSER, MainParser.JSON).execute(context);
+  }
+
+  /**
+   * Removes the temporary JSON file.
+   */
+  @AfterClass
+  public static void after() {
+    new IOFile(TEMP).delete();
+  }
+
+  /**
+   * Sets initial options.
+   */
+  @Before
+  public void init() {
+    jopts = new JsonParserOptions();
+    context.options.set(MainOptions.JSONPARSER, jopts);
+  }
+
+  /**
+   * Drops the database.
+   * @throws BaseXException exception
+   */
+  @After
+  public void finish() throws BaseXException {
+    new DropDB(NAME).execute(context);
+  }
+
+  /**
+   * Tests the direct format.
+   * @throws Exception exception
+   */
+  @Test
+  public void direct() throws Exception {
+    parse("{ \"a\": 1, \"b\": [ true, null, \"x\" ] }",
+        "<json type=\"object\"><a type=\"number\">1</a><b type=\"array\">"
+        + "<_ type=\"boolean\">true</_><_ type=\"null\"/><_>x</_></b></json>");
+    parse("\"s\"", "<json>s</json>");
+
+    jopts.set(JsonOptions.STRINGS, true);
+    parse("{ \"a\": \"\" }", "<json type=\"object\"><a type=\"string\"/></json>");
+  }
+
+  /**
+   * Tests the attributes format.
+   * @throws Exception exception
+   */
+  @Test
+  public void attributes() throws Exception {
+    jopts.set(JsonOptions.FORMAT, JsonFormat.ATTRIBUTES);
+    parse("{ \"a\": 1, \"b\": [ {} ] }",
+        "<json type=\"object\"><pair name=\"a\" type=\"number\">1</pair>"
+        + "<pair name=\"b\" type=\"array\"><item type=\"object\"/></pair></json>");
+  }
+
+  /**
+   * Tests the merge option, which requires a conversion to XML.
+   * @throws Exception exception
+   */
+  @Test
+  public void merge() throws Exception {
+    jopts.set(JsonOptions.MERGE, true);
+    parse("{ \"a\": 1 }", "<json objects=\"json\" numbers=\"a\"><a>1</a></json>");
+  }
+
+  /**
+   * Tests line-delimited input.
+   * @throws Exception exception
+   */
+  @Test
+  public void lines() throws Exception {
+    jopts.set(JsonParserOptions.LINES, true);
+    parse("", "<json type=\"array\"/>");
+    parse("{ \"a\": 1 }\n\n[ 2 ]\r\n3",
+        "<json type=\"array\"><_ type=\"object\"><a type=\"number\">1</a></_>"
+        + "<_ type=\"array\"><_ type=\"number\">2</_></_><_ type=\"number\">3</_></json>");
+  }
+
+  /**
+   * Creates a database from the specified input and compares the result.
+   * @param json JSON input
+   * @param expected expected result
+   * @throws IOException I/O exception
+   */
+  private static void parse(final String json, final String expected) throws IOException {
+    new IOFile(TEMP).write(token(json));
+    new CreateDB(NAME, TEMP).execute(context);
+    assertEquals(expected, new XQuery("serialize(.)").execute(context));
+  }
+}
@@ -37,6 +37,8 @@ public final class CommandLockingTest extends SandboxTest {
   private static final StringList NAME_LIST = new StringList(NAME);
   /** StringList containing context. */
   private static final StringList CTX_LIST = new StringList(DBLocking.CONTEXT);
+  /** StringList containing a document of the database. */
+  private static final StringList FILE_LIST = new StringList(NAME + '/' + FILE);
   /** StringList containing name and context. */
   private static final StringList NAME_CTX = new StringList(NAME, DBLocking.CONTEXT);
   /** StringList containing ADMIN lock string. */
@@ -108,6 +110,7 @@ public final class CommandLockingTest extends SandboxTest {
     ckDBs(new Set(NAME, NAME), false, NONE);
     ckDBs(new ShowBackups(), false, BACKUP_LIST);
     ckDBs(new ShowEvents(), false, EVENT_LIST);
+    ckDBs(new ShowLocks(), false, NONE);
     ckDBs(new ShowSessions(), false, NONE);
     ckDBs(new ShowUsers(), false, ADMIN_LIST);
     ckDBs(new ShowUsers(NAME), false, ADMIN_LIST);
@@ -229,13 +232,15 @@ public final class CommandLockingTest extends SandboxTest {
     ckDBs(new XQuery(_DB_CREATE.args(NAME, FILE, FILE)), true, NAME_LIST);
     ckDBs(new XQuery(_DB_DROP.args(NAME)), true, NAME_LIST);
     ckDBs(new XQuery(_DB_ADD.args(NAME, FILE)), true, NAME_LIST);
-    ckDBs(new XQuery(_DB_ADD.args(NAME, "<foo/>", FILE)), true, NAME_LIST);
-    ckDBs(new XQuery(_DB_ADD.args(NAME, FILE, FILE)), true, NAME_LIST);
-    ckDBs(new XQuery(_DB_DELETE.args(NAME, FILE)), true, NAME_LIST);
+    ckDBs(new XQuery(_DB_ADD.args(NAME, "<foo/>", FILE)), true, FILE_LIST);
+    ckDBs(new XQuery(_DB_ADD.args(NAME, FILE, FILE)), true, FILE_LIST);
+    ckDBs(new XQuery(_DB_DELETE.args(NAME, FILE)), true, FILE_LIST);
+    ckDBs(new XQuery(_DB_DELETE.args(NAME, "")), true, NAME_LIST);
+    ckDBs(new XQuery(_DB_DELETE.args(NAME, " '' || '" + FILE + "'")), true, NAME_LIST);
     ckDBs(new XQuery(_DB_OPTIMIZE.args(NAME)), true, NAME_LIST);
     ckDBs(new XQuery(_DB_OPTIMIZE.args(NAME, "true()")), true, NAME_LIST);
     ckDBs(new XQuery(_DB_RENAME.args(NAME, FILE, FILE + '2')), true, NAME_LIST);
-    ckDBs(new XQuery(_DB_REPLACE.args(NAME, FILE, FILE + '2')), true, NAME_LIST);
+    ckDBs(new XQuery(_DB_REPLACE.args(NAME, FILE, FILE + '2')), true, FILE_LIST);
     ckDBs(new XQuery(_DB_STORE.args(NAME, FILE, "foo")), true, NAME_LIST);
     ckDBs(new XQuery(_DB_OUTPUT.args("foo")), true, NONE);
     ckDBs(new XQuery(_DB_FLUSH.args(NAME)), true, NAME_LIST);
@@ -498,6 +498,263 @@ public final class LockingTest extends SandboxTest {
     else th2.release();
   }
 
+  /**
+   * Deferred write lock, then read lock.
+   * @throws InterruptedException Got interrupted.
+   */
+  @Test
+  public void deferredWriteReadTest() throws InterruptedException {
+    final CountDownLatch sync = new CountDownLatch(1), test = new CountDownLatch(1),
+        upgraded = new CountDownLatch(1);
+    final LockTester th1 = new LockTester(null, NONE, objects, sync).pending(upgraded);
+    final LockTester th2 = new LockTester(sync, objects, NONE, test);
+
+    th1.start();
+    th2.start();
+    assertTrue("Thread 2 should be able to acquire lock.",
+        test.await(WAIT, TimeUnit.MILLISECONDS));
+    th1.upgrade();
+    assertFalse("Thread 1 shouldn't be able to upgrade lock yet.",
+        upgraded.await(WAIT, TimeUnit.MILLISECONDS));
+    th2.release();
+    assertTrue("Thread 1 should be able to upgrade lock now.",
+        upgraded.await(WAIT, TimeUnit.MILLISECONDS));
+    th1.release();
+  }
+
+  /**
+   * Deferred write lock, then write lock.
+   * @throws InterruptedException Got interrupted.
+   */
+  @Test
+  public void deferredWriteWriteTest() throws InterruptedException {
+    final CountDownLatch sync = new CountDownLatch(1), test = new CountDownLatch(1),
+        upgraded = new CountDownLatch(1);
+    final LockTester th1 = new LockTester(null, NONE, objects, sync).pending(upgraded);
+    final LockTester th2 = new LockTester(sync, NONE, objects, test);
+
+    th1.start();
+    th2.start();
+    assertFalse("Thread 2 shouldn't be able to acquire lock yet.",
+        test.await(WAIT, TimeUnit.MILLISECONDS));
+    th1.upgrade();
+    assertTrue("Thread 1 should be able to upgrade lock.",
+        upgraded.await(WAIT, TimeUnit.MILLISECONDS));
+    th1.release();
+    assertTrue("Thread 2 should be able to acquire lock now.",
+        test.await(WAIT, TimeUnit.MILLISECONDS));
+    th2.release();
+  }
+
+  /**
+   * Deferred write locks on databases that are read by the other transaction.
+   * @throws InterruptedException Got interrupted.
+   */
+  @Test
+  public void deferredWriteCrossTest() throws InterruptedException {
+    final CountDownLatch sync = new CountDownLatch(1), test = new CountDownLatch(1),
+        upgraded = new CountDownLatch(1);
+    final String[] o1 = { objects[0] }, o2 = { objects[1] };
+    final LockTester th1 = new LockTester(null, o2, o1, sync).pending(upgraded);
+    final LockTester th2 = new LockTester(sync, o1, o2, test).pending(new CountDownLatch(1));
+
+    th1.start();
+    th2.start();
+    assertFalse("Thread 2 shouldn't be able to acquire lock yet.",
+        test.await(WAIT, TimeUnit.MILLISECONDS));
+    th1.upgrade();
+    assertTrue("Thread 1 should be able to upgrade lock.",
+        upgraded.await(WAIT, TimeUnit.MILLISECONDS));
+    th1.release();
+    assertTrue("Thread 2 should be able to acquire lock now.",
+        test.await(WAIT, TimeUnit.MILLISECONDS));
+    th2.release();
+  }
+
+  /**
+   * Write locks on different documents of the same database.
+   * @throws InterruptedException Got interrupted.
+   */
+  @Test
+  public void documentWriteTest() throws InterruptedException {
+    final CountDownLatch sync = new CountDownLatch(1), test = new CountDownLatch(1),
+        upgraded1 = new CountDownLatch(1), upgraded2 = new CountDownLatch(1);
+    final String[] o1 = { objects[0] + "/a.xml" }, o2 = { objects[0] + "/b.xml" };
+    final LockTester th1 = new LockTester(null, NONE, o1, sync).pending(upgraded1);
+    final LockTester th2 = new LockTester(sync, NONE, o2, test).pending(upgraded2);
+
+    th1.start();
+    th2.start();
+    assertTrue("Thread 2 should be able to acquire lock.",
+        test.await(WAIT, TimeUnit.MILLISECONDS));
+    th1.upgrade();
+    assertFalse("Thread 1 shouldn't be able to upgrade lock yet.",
+        upgraded1.await(WAIT, TimeUnit.MILLISECONDS));
+    th2.upgrade();
+    assertTrue("Thread 1 should be able to upgrade lock now.",
+        upgraded1.await(WAIT, TimeUnit.MILLISECONDS));
+    assertFalse("Thread 2 shouldn't be able to upgrade lock yet.",
+        upgraded2.await(WAIT, TimeUnit.MILLISECONDS));
+    th1.release();
+    assertTrue("Thread 2 should be able to upgrade lock now.",
+        upgraded2.await(WAIT, TimeUnit.MILLISECONDS));
+    th2.release();
+  }
+
+  /**
+   * Write locks on a document and on its database or directory.
+   * @throws InterruptedException Got interrupted.
+   */
+  @Test
+  public void documentDatabaseTest() throws InterruptedException {
+    for(final String object : new String[] { objects[0], objects[0] + "/dir" }) {
+      final CountDownLatch sync = new CountDownLatch(1), test = new CountDownLatch(1);
+      final String[] o1 = { objects[0] + "/dir/a.xml" }, o2 = { object };
+      final LockTester th1 = new LockTester(null, NONE, o1, sync).pending(new CountDownLatch(1));
+      final LockTester th2 = new LockTester(sync, NONE, o2, test);
+
+      th1.start();
+      th2.start();
+      assertFalse("Thread 2 shouldn't be able to acquire lock yet.",
+          test.await(WAIT, TimeUnit.MILLISECONDS));
+      th1.release();
+      assertTrue("Thread 2 should be able to acquire lock now.",
+          test.await(WAIT, TimeUnit.MILLISECONDS));
+      th2.release();
+    }
+  }
+
+  /**
+   * Write locks on different documents of the same database, one of them being read by the
+   * second transaction (e.g.: {@code db:replace('A', 'b.xml', db:open('A', 'c.xml'))}).
+   * @throws InterruptedException Got interrupted.
+   */
+  @Test
+  public void documentReadTest() throws InterruptedException {
+    final CountDownLatch sync = new CountDownLatch(1), test = new CountDownLatch(1);
+    final String[] o1 = { objects[0] + "/a.xml" }, o2 = { objects[0] + "/b.xml" };
+    final String[] r2 = { objects[0] };
+    final LockTester th1 = new LockTester(null, NONE, o1, sync).pending(new CountDownLatch(1));
+    final LockTester th2 = new LockTester(sync, r2, o2, test).pending(new CountDownLatch(1));
+
+    th1.start();
+    th2.start();
+    assertFalse("Thread 2 shouldn't be able to acquire lock yet.",
+        test.await(WAIT, TimeUnit.MILLISECONDS));
+    th1.release();
+    assertTrue("Thread 2 should be able to acquire lock now.",
+        test.await(WAIT, TimeUnit.MILLISECONDS));
+    th2.release();
+  }
+
+  /**
+   * Waiting transactions with higher priorities are started first.
+   * @throws InterruptedException Got interrupted.
+   */
+  @Test
+  public void priorityTest() throws InterruptedException {
+    final LockTester[] running = readers();
+
+    final CountDownLatch low = new CountDownLatch(1), high = new CountDownLatch(1);
+    final LockTester th1 = new LockTester(null, objects, NONE, low).priority(-1);
+    th1.start();
+    assertFalse("Thread 1 shouldn't be able to start yet.",
+        low.await(WAIT, TimeUnit.MILLISECONDS));
+    final LockTester th2 = new LockTester(null, objects, NONE, high).priority(1);
+    th2.start();
+    assertFalse("Thread 2 shouldn't be able to start yet.",
+        high.await(WAIT, TimeUnit.MILLISECONDS));
+
+    running[0].release();
+    assertTrue("Thread 2 should be able to start now.",
+        high.await(WAIT, TimeUnit.MILLISECONDS));
+    assertFalse("Thread 1 shouldn't be able to start yet.",
+        low.await(WAIT, TimeUnit.MILLISECONDS));
+    th2.release();
+    assertTrue("Thread 1 should be able to start now.",
+        low.await(WAIT, TimeUnit.MILLISECONDS));
+    th1.release();
+    for(int r = 1; r < running.length; r++) running[r].release();
+  }
+
+  /**
+   * The priorities of waiting transactions are raised over time.
+   * @throws InterruptedException Got interrupted.
+   */
+  @Test
+  public void agingTest() throws InterruptedException {
+    final StaticOptions sopts = context.soptions;
+    sopts.set(StaticOptions.PRIORITYAGING, 10);
+    try {
+      final LockTester[] running = readers();
+
+      final CountDownLatch low = new CountDownLatch(1), high = new CountDownLatch(1);
+      final LockTester th1 = new LockTester(null, objects, NONE, low).priority(-1);
+      th1.start();
+      assertFalse("Thread 1 shouldn't be able to start yet.",
+          low.await(WAIT, TimeUnit.MILLISECONDS));
+      final LockTester th2 = new LockTester(null, objects, NONE, high).priority(1);
+      th2.start();
+      assertFalse("Thread 2 shouldn't be able to start yet.",
+          high.await(WAIT, TimeUnit.MILLISECONDS));
+
+      running[0].release();
+      assertTrue("Thread 1 should be able to start now.",
+          low.await(WAIT, TimeUnit.MILLISECONDS));
+      assertFalse("Thread 2 shouldn't be able to start yet.",
+          high.await(WAIT, TimeUnit.MILLISECONDS));
+      th1.release();
+      assertTrue("Thread 2 should be able to start now.",
+          high.await(WAIT, TimeUnit.MILLISECONDS));
+      th2.release();
+      for(int r = 1; r < running.length; r++) running[r].release();
+    } finally {
+      sopts.set(StaticOptions.PRIORITYAGING, StaticOptions.PRIORITYAGING.value());
+    }
+  }
+
+  /**
+   * Writers are started if the maximum number of parallel readers has been reached.
+   * @throws InterruptedException Got interrupted.
+   */
+  @Test
+  public void readerWriterSlotsTest() throws InterruptedException {
+    final LockTester[] running = readers();
+
+    final CountDownLatch reader = new CountDownLatch(1), writer = new CountDownLatch(1);
+    final LockTester th1 = new LockTester(null, objects, NONE, reader);
+    th1.start();
+    final LockTester th2 = new LockTester(null, NONE, new String[] { "writer" }, writer);
+    th2.start();
+    assertTrue("Writer should be able to start.", writer.await(WAIT, TimeUnit.MILLISECONDS));
+    assertFalse("Reader shouldn't be able to start yet.",
+        reader.await(WAIT, TimeUnit.MILLISECONDS));
+    th2.release();
+    running[0].release();
+    assertTrue("Reader should be able to start now.",
+        reader.await(WAIT, TimeUnit.MILLISECONDS));
+    th1.release();
+    for(int r = 1; r < running.length; r++) running[r].release();
+  }
+
+  /**
+   * Starts the maximum number of parallel readers.
+   * @return running readers
+   * @throws InterruptedException Got interrupted.
+   */
+  private LockTester[] readers() throws InterruptedException {
+    final int max = Math.max(context.soptions.get(StaticOptions.PARALLEL), 1);
+    final CountDownLatch latch = new CountDownLatch(max);
+    final LockTester[] testers = new LockTester[max];
+    for(int t = 0; t < max; t++) {
+      testers[t] = new LockTester(null, objects, NONE, latch);
+      testers[t].start();
+    }
+    assertTrue("Couldn't start maximum allowed number of parallel transactions!",
+        latch.await(WAIT, TimeUnit.MILLISECONDS));
+    return testers;
+  }
+
   /**
    * Fuzzing test, watch for deadlocks. Uses multiple threads in parallel which all fetch
    * random locks, hold them for a while, release them and fetch the next one.
@@ -562,6 +819,12 @@ public final class LockingTest extends SandboxTest {
     private final String[] writeObjects;
     /** Flag indicating to release locks after being notified. */
     private volatile boolean requestRelease;
+    /** Flag indicating to upgrade deferred locks after being notified. */
+    private volatile boolean requestUpgrade;
+    /** Latch to count down after upgrading locks (assigned if write locks are deferred). */
+    private CountDownLatch upgraded;
+    /** Priority. */
+    private int priority;
 
     /**
      * Setup locking thread. Call {@code start} to lock, notify the thread to unlock.
@@ -590,7 +853,8 @@ public final class LockingTest extends SandboxTest {
       }
 
       // Fetch lock if objects are set
-      final Command cmd = new Cmd(writing);
+      final Command cmd = new Cmd(writing, upgraded != null);
+      cmd.priority = priority;
       locks.acquire(cmd,
         readObjects != null ? new StringList().add(readObjects) : null,
         writeObjects != null ? new StringList().add(writeObjects) : null);
@@ -601,14 +865,53 @@ public final class LockingTest extends SandboxTest {
       // Wait until we're asked to release the lock
       synchronized(this) {
         try {
-          while(!requestRelease) wait();
+          while(!requestRelease && !requestUpgrade) wait();
         } catch(final InterruptedException e) {
           throw new RuntimeException("Unexpectedly interrupted.");
         }
       }
+      if(requestUpgrade) {
+        locks.upgrade();
+        upgraded.countDown();
+        synchronized(this) {
+          try {
+            while(!requestRelease) wait();
+          } catch(final InterruptedException e) {
+            throw new RuntimeException("Unexpectedly interrupted.");
+          }
+        }
+      }
       locks.release(cmd);
     }
 
+    /**
+     * Defers write locks until {@link #upgrade()} is called.
+     * @param u latch to count down after upgrading locks
+     * @return self reference
+     */
+    LockTester pending(final CountDownLatch u) {
+      upgraded = u;
+      return this;
+    }
+
+    /**
+     * Assigns a priority.
+     * @param p priority
+     * @return self reference
+     */
+    LockTester priority(final int p) {
+      priority = p;
+      return this;
+    }
+
+    /**
+     * Upgrades deferred write locks. See {@link #release()} for details.
+     */
+    public synchronized void upgrade() {
+      requestUpgrade = true;
+      notifyAll();
+    }
+
     /**
      * Release all locks tester owns. {@code release} gets called by other threads, so it
      * cannot release locks directly (the thread holding the lock must do this). Set flag
@@ -622,13 +925,23 @@ public final class LockingTest extends SandboxTest {
 
   /** Dummy command. */
   private static class Cmd extends Command {
+    /** Pending updates flag. */
+    private final boolean pending;
+
     /**
      * Constructor.
      * @param w write flag
+     * @param p pending updates flag
      */
-    Cmd(final boolean w) {
+    Cmd(final boolean w, final boolean p) {
       super(Perm.NONE);
       updating = w;
+      pending = p;
+    }
+
+    @Override
+    public boolean pendingUpdates() {
+      return pending;
     }
 
     @Override
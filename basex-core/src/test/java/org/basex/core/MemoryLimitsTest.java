@@ -0,0 +1,218 @@
+package org.basex.core;
+
+import static org.junit.Assert.*;
+
+import org.basex.*;
+import org.basex.api.client.*;
+import org.basex.core.cmd.*;
+import org.basex.query.*;
+import org.basex.query.func.*;
+import org.junit.*;
+import org.junit.Test;
+
+/**
+ * This class tests the memory limits of queries.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class MemoryLimitsTest extends SandboxTest {
+  /** Number of items (computed at runtime to prevent pre-evaluation). */
+  private static final String N = "(100000 + random:integer(1))";
+  /** Query that buffers many tuples. */
+  private static final String ORDER = "count(for $i in 1 to " + N + " order by -$i return $i)";
+  /** Query that groups many tuples. */
+  private static final String GROUP = "count(for $i in 1 to " + N + " group by $g := $i return $g)";
+  /** Query that builds a large map. */
+  private static final String MAP = "map:size(map:merge((1 to " + N + ") ! map:entry(., .)))";
+  /** Query that builds a large array. */
+  private static final String ARRAY = "array:size(array { 1 to " + N + " })";
+  /** Query that materializes a large sequence. */
+  private static final String SEQUENCE = "count(reverse((1 to " + N + ") ! string()))";
+  /** Query that builds a large document. */
+  private static final String DOCUMENT = "count(document { (1 to " + N + ") ! <a/> }//a)";
+  /** All queries. */
+  private static final String[] QUERIES = { ORDER, GROUP, MAP, ARRAY, SEQUENCE, DOCUMENT };
+
+  /** Server reference. */
+  private static BaseXServer server;
+  /** Admin session. */
+  private static ClientSession admin;
+  /** Session of a user without admin permissions. */
+  private static ClientSession session;
+
+  /**
+   * Starts the server and creates a user.
+   * @throws Exception exception
+   */
+  @BeforeClass
+  public static void start() throws Exception {
+    server = createServer();
+    admin = createClient();
+    admin.execute(new CreateUser(NAME, NAME));
+    admin.execute(new Grant("read", NAME));
+    session = createClient(NAME, NAME);
+  }
+
+  /**
+   * Stops the server.
+   * @throws Exception exception
+   */
+  @AfterClass
+  public static void stop() throws Exception {
+    session.close();
+    admin.close();
+    stopServer(server);
+  }
+
+  /**
+   * Resets the limits.
+   */
+  @After
+  public void reset() {
+    final StaticOptions sopts = server.context.soptions;
+    sopts.set(StaticOptions.QUERYMEMORY, 0);
+    sopts.set(StaticOptions.USERMEMORY, 0);
+  }
+
+  /**
+   * Limits the memory of single queries.
+   * @throws Exception exception
+   */
+  @Test
+  public void query() throws Exception {
+    for(final String query : QUERIES) {
+      assertEquals("100000", session.execute(new XQuery(query)));
+    }
+    server.context.soptions.set(StaticOptions.QUERYMEMORY, 1);
+    for(final String query : QUERIES) {
+      error(new XQuery(query));
+      // administrators are not affected by the limit
+      assertEquals("100000", admin.execute(new XQuery(query)));
+    }
+    // small queries can still be evaluated
+    assertEquals("10", session.execute(new XQuery(ORDER.replace(N, "10"))));
+  }
+
+  /**
+   * Releases the memory of buffers that are no longer needed.
+   * @throws Exception exception
+   */
+  @Test
+  public void release() throws Exception {
+    server.context.soptions.set(StaticOptions.QUERYMEMORY, 1);
+    // a single order clause is small enough
+    final String small = ORDER.replace(N, "(5000 + random:integer(1))");
+    assertEquals("5000", session.execute(new XQuery(small)));
+    // the tuples of each order clause are released after they have been returned
+    assertEquals("500000", session.execute(new XQuery("sum(for $i in 1 to 100 return " +
+        small + ')')));
+  }
+
+  /**
+   * Accounts the resources of paths that are evaluated in parallel to the query.
+   * @throws Exception exception
+   */
+  @Test
+  public void parallel() throws Exception {
+    final StringBuilder sb = new StringBuilder("<a>");
+    for(int i = 0; i < 100000; i++) sb.append("<b/>");
+    final String doc = sb.append("</a>").toString();
+    for(int s = 0; s < 2; s++) admin.execute(new CreateDB(Shards.name(NAME, s), doc));
+    session.execute(new Set(MainOptions.QUERYINFO, true));
+    try {
+      final String query = "count(" + Function._DB_OPEN.args(NAME) + "//b)";
+      assertEquals("200000", session.execute(new XQuery(query)));
+      // the table blocks of both databases have been accessed by the parallel threads
+      final String info = session.info();
+      final int i = info.indexOf(Text.RESOURCES_CC) + Text.RESOURCES_CC.length();
+      final long blocks = Long.parseLong(info.substring(i, info.indexOf(" blocks", i)).trim());
+      assertTrue(info, blocks > 100);
+
+      server.context.soptions.set(StaticOptions.QUERYMEMORY, 1);
+      error(new XQuery(query));
+    } finally {
+      session.execute(new Set(MainOptions.QUERYINFO, false));
+      for(int s = 0; s < 2; s++) admin.execute(new DropDB(Shards.name(NAME, s)));
+    }
+  }
+
+  /**
+   * Limits the memory of queries that are evaluated via the client API.
+   * @throws Exception exception
+   */
+  @Test
+  public void clientQuery() throws Exception {
+    server.context.soptions.set(StaticOptions.QUERYMEMORY, 1);
+    try(final ClientQuery cq = session.query(ORDER)) {
+      cq.execute();
+      fail("Memory limit expected.");
+    } catch(final BaseXException ex) {
+      assertTrue(ex.getMessage(), ex.getMessage().contains(QueryError.BASX_MEMORY_X.code));
+    }
+    try(final ClientQuery cq = session.query(ORDER)) {
+      cq.more();
+      fail("Memory limit expected.");
+    } catch(final BaseXException ex) {
+      assertTrue(ex.getMessage(), ex.getMessage().contains(QueryError.BASX_MEMORY_X.code));
+    }
+  }
+
+  /**
+   * Exceeded limits cannot be caught by the query.
+   * @throws Exception exception
+   */
+  @Test
+  public void uncatchable() throws Exception {
+    server.context.soptions.set(StaticOptions.QUERYMEMORY, 1);
+    error(new XQuery("try { " + ORDER + " } catch * { 'caught' }"));
+  }
+
+  /**
+   * Limits the memory of all queries of a user.
+   * @throws Exception exception
+   */
+  @Test
+  public void user() throws Exception {
+    server.context.soptions.set(StaticOptions.USERMEMORY, 1);
+    try {
+      session.execute(new XQuery(ORDER));
+      fail("Memory limit expected.");
+    } catch(final BaseXException ex) {
+      assertTrue(ex.getMessage(), ex.getMessage().contains(NAME));
+    }
+    // memory is released after the evaluation
+    assertEquals(Long.valueOf(0), server.context.limits.used().get(NAME));
+    assertTrue(server.context.metrics.prometheus().contains(
+        "basex_query_memory_bytes{user=\"" + NAME + "\"} 0\n"));
+  }
+
+  /**
+   * Reports the estimated memory in the query info.
+   * @throws Exception exception
+   */
+  @Test
+  public void info() throws Exception {
+    session.execute(new Set(MainOptions.QUERYINFO, true));
+    try {
+      session.execute(new XQuery(ORDER));
+      assertTrue(session.info(), session.info().contains(" memory"));
+    } finally {
+      session.execute(new Set(MainOptions.QUERYINFO, false));
+    }
+  }
+
+  /**
+   * Runs a command that is expected to exceed the memory limit of a query.
+   * @param cmd command
+   * @throws Exception exception
+   */
+  private static void error(final Command cmd) throws Exception {
+    try {
+      session.execute(cmd);
+      fail("Memory limit expected.");
+    } catch(final BaseXException ex) {
+      assertTrue(ex.getMessage(), ex.getMessage().contains(QueryError.BASX_MEMORY_X.code));
+    }
+  }
+}
@@ -0,0 +1,98 @@
+package org.basex.core;
+
+import static org.junit.Assert.*;
+
+import java.lang.management.*;
+import java.util.*;
+
+import javax.management.*;
+
+import org.basex.*;
+import org.basex.api.client.*;
+import org.basex.core.cmd.*;
+import org.junit.*;
+import org.junit.Test;
+
+/**
+ * This class tests the server-wide metrics.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class MetricsTest extends SandboxTest {
+  /** Server reference. */
+  private static BaseXServer server;
+
+  /**
+   * Starts the server.
+   * @throws Exception exception
+   */
+  @BeforeClass
+  public static void start() throws Exception {
+    server = createServer();
+  }
+
+  /**
+   * Stops the server.
+   * @throws Exception exception
+   */
+  @AfterClass
+  public static void stop() throws Exception {
+    stopServer(server);
+  }
+
+  /**
+   * Records client requests.
+   * @throws Exception exception
+   */
+  @Test
+  public void requests() throws Exception {
+    final Metrics metrics = server.context.metrics;
+    final long sent = metrics.getBytesSent(), received = metrics.getBytesReceived();
+    try(final ClientSession cs = createClient()) {
+      cs.execute(new CreateDB(NAME, "<a/>"));
+      cs.execute(new XQuery("count(/a)"));
+      try {
+        cs.execute(new XQuery("error()"));
+        fail("Error expected.");
+      } catch(final BaseXException ex) {
+        // expected
+      }
+      cs.query("1").execute();
+      assertEquals(1, metrics.getSessions());
+      assertEquals(1, metrics.getOpenDatabases());
+      cs.execute(new DropDB(NAME));
+    }
+
+    final Map<String, Long> requests = metrics.getRequests(), errors = metrics.getErrors();
+    assertEquals(Long.valueOf(2), requests.get("XQUERY"));
+    assertEquals(Long.valueOf(1), errors.get("XQUERY"));
+    assertEquals(Long.valueOf(1), requests.get("CREATEDB"));
+    assertEquals(Long.valueOf(1), requests.get("QUERY"));
+    assertEquals(Long.valueOf(1), requests.get("EXEC"));
+    assertTrue(metrics.getBytesSent() > sent);
+    assertTrue(metrics.getBytesReceived() > received);
+
+    final String text = metrics.prometheus();
+    assertTrue(text, text.contains("basex_request_seconds_count{type=\"XQUERY\"} 2\n"));
+    assertTrue(text, text.contains("basex_request_seconds_bucket{type=\"XQUERY\",le=\"+Inf\"} 2\n"));
+    assertTrue(text, text.contains("basex_request_errors_total{type=\"XQUERY\"} 1\n"));
+    assertTrue(text, text.contains("# TYPE basex_sent_bytes_total counter\n"));
+  }
+
+  /**
+   * Exports the metrics via JMX.
+   * @throws Exception exception
+   */
+  @Test
+  public void jmx() throws Exception {
+    final MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+    final ObjectName query = new ObjectName("org.basex:type=Metrics,*");
+    int beans = 0;
+    for(final ObjectName name : mbs.queryNames(query, null)) {
+      assertTrue((Long) mbs.getAttribute(name, "MaxMemory") > 0);
+      beans++;
+    }
+    assertTrue(beans > 0);
+  }
+}
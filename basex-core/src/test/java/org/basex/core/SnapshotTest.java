@@ -0,0 +1,131 @@
+package org.basex.core;
+
+import static org.junit.Assert.*;
+
+import org.basex.*;
+import org.basex.core.cmd.*;
+import org.basex.core.locks.*;
+import org.basex.core.users.*;
+import org.junit.*;
+import org.junit.Test;
+
+/**
+ * This class tests the modification states of accessed databases.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class SnapshotTest extends SandboxTest {
+  /** Second database. */
+  private static final String NAME2 = NAME + '2';
+
+  /**
+   * Creates the test databases.
+   * @throws BaseXException database exception
+   */
+  @Before
+  public void init() throws BaseXException {
+    new CreateDB(NAME, "<a><b/></a>").execute(context);
+    new CreateDB(NAME2, "<a/>").execute(context);
+    new Close().execute(context);
+  }
+
+  /**
+   * Drops the test databases.
+   * @throws BaseXException database exception
+   */
+  @After
+  public void finish() throws BaseXException {
+    new DropDB(NAME + ',' + NAME2).execute(context);
+  }
+
+  /**
+   * Reads and updates databases.
+   * @throws BaseXException database exception
+   */
+  @Test
+  public void update() throws BaseXException {
+    final Context ctx = snapshot("count(db:open('" + NAME + "')//b)");
+    assertTrue(ctx.snapshot.complete());
+    assertTrue(ctx.snapshot.current(context.modifications));
+
+    // update other database
+    snapshot("insert node <b/> into db:open('" + NAME2 + "')/a");
+    assertTrue(ctx.snapshot.current(context.modifications));
+    // update accessed database
+    snapshot("insert node <b/> into db:open('" + NAME + "')/a");
+    assertFalse(ctx.snapshot.current(context.modifications));
+  }
+
+  /**
+   * Updates single documents.
+   * @throws BaseXException database exception
+   */
+  @Test
+  public void document() throws BaseXException {
+    new XQuery("db:add('" + NAME + "', <c/>, 'c.xml')").execute(context);
+    final Context ctx = snapshot("db:open('" + NAME + "', 'c.xml')");
+    assertTrue(ctx.snapshot.complete());
+    // documents are counted as their databases
+    snapshot("db:replace('" + NAME + "', 'c.xml', <d/>)");
+    assertFalse(ctx.snapshot.current(context.modifications));
+  }
+
+  /**
+   * Reads and updates the shards of a collection.
+   * @throws BaseXException database exception
+   */
+  @Test
+  public void shards() throws BaseXException {
+    final String coll = NAME + 's';
+    for(int s = 0; s < 2; s++) new CreateDB(Shards.name(coll, s), "<a/>").execute(context);
+    new Close().execute(context);
+    try {
+      final Context ctx = snapshot("count(db:open('" + Shards.name(coll, 1) + "'))");
+      assertTrue(ctx.snapshot.complete());
+      // shards are counted as their collection
+      snapshot("insert node <b/> into db:open('" + Shards.name(coll, 0) + "')/a");
+      assertFalse(ctx.snapshot.current(context.modifications));
+    } finally {
+      new DropDB(Shards.name(coll, 0) + ',' + Shards.name(coll, 1)).execute(context);
+    }
+  }
+
+  /**
+   * Drops a database.
+   * @throws BaseXException database exception
+   */
+  @Test
+  public void drop() throws BaseXException {
+    final Context ctx = snapshot("db:open('" + NAME2 + "')");
+    new DropDB(NAME2).execute(context);
+    assertFalse(ctx.snapshot.current(context.modifications));
+  }
+
+  /**
+   * Incomplete snapshots.
+   * @throws BaseXException database exception
+   */
+  @Test
+  public void incomplete() throws BaseXException {
+    // updating query
+    assertFalse(snapshot("delete node db:open('" + NAME + "')//b").snapshot.complete());
+    // databases cannot be statically determined
+    assertFalse(snapshot("for $db in ('" + NAME + "', '" + NAME2 + "') return db:open($db)").
+        snapshot.complete());
+  }
+
+  /**
+   * Runs a query in a new context and records the states of the accessed databases.
+   * @param query query
+   * @return context
+   * @throws BaseXException database exception
+   */
+  private static Context snapshot(final String query) throws BaseXException {
+    final Context ctx = new Context(context);
+    ctx.user(context.users.get(UserText.ADMIN));
+    ctx.snapshot = new Snapshot();
+    new XQuery(query).execute(ctx);
+    return ctx;
+  }
+}
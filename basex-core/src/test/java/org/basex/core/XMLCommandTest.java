@@ -128,6 +128,8 @@ public final class XMLCommandTest extends SandboxTest {
 
     ok("<show-events/>");
 
+    ok("<show-locks/>");
+
     ok("<show-sessions/>");
 
     ok("<show-users/>");
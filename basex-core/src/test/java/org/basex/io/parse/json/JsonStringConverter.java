@@ -118,7 +118,7 @@ final class JsonStringConverter extends JsonConverter {
   }
 
   @Override
-  void stringLit(final byte[] value) {
+  protected void stringLit(final byte[] value) {
     tb.add('"');
     final int vl = value.length;
     for(int v = 0; v < vl; v += Token.cl(value, v)) {
@@ -4,6 +4,7 @@ import static org.basex.query.func.Function.*;
 
 import org.basex.core.*;
 import org.basex.core.cmd.*;
+import org.basex.query.*;
 import org.basex.query.expr.*;
 import org.basex.query.func.basex.*;
 import org.basex.query.func.fn.*;
@@ -37,6 +38,37 @@ public final class RewritingsTest extends QueryPlanTest {
     new DropDB(NAME).execute(context);
   }
 
+  /**
+   * Checks if aggregations of numeric database values are pre-evaluated.
+   * @throws Exception exception
+   */
+  @Test
+  public void aggregate() throws Exception {
+    final String dbl = "exists(//" + Util.className(Dbl.class) + ')';
+    new CreateDB(NAME, "<xml><a x='1.5'>1</a><a x='2'>2</a><b><a>6</a></b><c>1</c><c/></xml>").
+      execute(context);
+    check(SUM.args(" //a"), "9", dbl);
+    check(AVG.args(" //a"), "3", dbl);
+    check(MIN.args(" //a"), "1", dbl);
+    check(MAX.args(" //a/@x"), "2", dbl);
+    check(SUM.args(" /xml/a/@x"), "3.5", dbl);
+
+    // skip elements without text, and paths that are no axis paths
+    check(SUM.args(" //c/text()"), "1", dbl);
+    error(SUM.args(" //c"), QueryError.FUNCAST_X_X);
+    check(SUM.args(" //(a|@x)"), "12.5", "not(" + dbl + ')');
+
+    // skip elements that may have no or several text nodes
+    context.options.set(MainOptions.MAINMEM, true);
+    try {
+      new CreateDB(NAME, "<xml><d>1<!--x-->2</d><d/></xml>").execute(context);
+      error(SUM.args(" //d"), QueryError.FUNCAST_X_X);
+    } finally {
+      context.options.set(MainOptions.MAINMEM, false);
+    }
+    new DropDB(NAME).execute(context);
+  }
+
   /**
    * Checks if descendant-or-self::node() steps are rewritten.
    * @throws Exception exception
@@ -192,4 +224,32 @@ public final class RewritingsTest extends QueryPlanTest {
     check("<a/>[" + STRING_LENGTH.args() + " = <a>1</a>]", "", "exists(//" + stringLength + ")");
 
   }
+
+  /**
+   * Checks if paths on nodes of several databases are evaluated in parallel.
+   * @throws Exception exception
+   */
+  @Test
+  public void parallelPath() throws Exception {
+    for(int s = 0; s < 3; s++) {
+      new CreateDB(Shards.name(NAME, s), "<a><b>" + s + "</b><c/></a>").execute(context);
+    }
+    new Close().execute(context);
+    try {
+      check(_DB_OPEN.args(NAME) + "//b/text()", "0\n1\n2", "exists(//ParallelPath)");
+      check("(" + _DB_OPEN.args(Shards.name(NAME, 0)) + ", " +
+          _DB_OPEN.args(Shards.name(NAME, 2)) + ")/a/*",
+          "<b>0</b>\n<c/>\n<b>2</b>\n<c/>", "exists(//ParallelPath)");
+      // databases with dynamic names: results are returned in document order
+      check("(for $s in 0 to 2 return " + _DB_OPEN.args(" '" + NAME + "~' || $s") + ")/a/*",
+          "<b>0</b>\n<c/>\n<b>1</b>\n<c/>\n<b>2</b>\n<c/>", "exists(//ParallelPath)");
+      check("(for $db in reverse(" + _DB_LIST.args() + ") return " + _DB_OPEN.args(" $db") +
+          ")//b/text()", "0\n1\n2", "exists(//ParallelPath)");
+      check(_DB_OPEN.args(NAME) + "//a[b = '1']/c", "<c/>", "exists(//ParallelPath)");
+      check(_DB_OPEN.args(Shards.name(NAME, 0)) + "//b", "<b>0</b>", "empty(//ParallelPath)");
+      check(_DB_OPEN.args(NAME) + "//b[. = <x>1</x>]", "<b>1</b>", "empty(//ParallelPath)");
+    } finally {
+      for(int s = 0; s < 3; s++) new DropDB(Shards.name(NAME, s)).execute(context);
+    }
+  }
 }
@@ -2,11 +2,13 @@ package org.basex.query.func;
 
 import static org.basex.query.QueryError.*;
 import static org.basex.query.func.Function.*;
+import static org.junit.Assert.*;
 
 import java.util.*;
 
 import org.basex.core.*;
 import org.basex.core.cmd.*;
+import org.basex.core.locks.*;
 import org.basex.query.*;
 import org.basex.server.*;
 import org.junit.*;
@@ -44,6 +46,27 @@ public final class AdminModuleTest extends AdvancedQueryTest {
     query(_ADMIN_SESSIONS.args(), "");
   }
 
+  /**
+   * Test method.
+   * @throws BaseXException database exception
+   */
+  @Test
+  public void locks() throws BaseXException {
+    query("exists(" + _ADMIN_LOCKS.args() + "[@name = '%QUEUE'])", "true");
+    query("count(" + _ADMIN_LOCKS.args() + "[1]/wait/bucket)", LockStats.LIMITS.length + 1);
+    // the lock of the current command is held, and no transaction is waiting for it
+    assertEquals("1 0", new XQuery("let $lock := " + _ADMIN_LOCKS.args() +
+        "[@name = '%ADMIN'] return count($lock/holder) || ' ' || count($lock/waiter)").
+        execute(context));
+
+    // statistics on user-defined locks are discarded after the locks have been released
+    final String lock = "exists(" + _ADMIN_LOCKS.args() + "[@name = '" +
+        DBLocking.USER_PREFIX + NAME + "'])";
+    assertEquals("true", new XQuery("declare option query:write-lock '" + NAME + "'; " +
+        lock).execute(context));
+    assertEquals("false", new XQuery(lock).execute(context));
+  }
+
   /** Test method. */
   @Test
   public void logs() {
@@ -81,6 +81,55 @@ public final class DbModuleTest extends AdvancedQueryTest {
     error(_DB_OPEN.args(NAME), BXDB_OPEN_X);
   }
 
+  /**
+   * Test method.
+   * @throws BaseXException database exception
+   */
+  @Test
+  public void shards() throws BaseXException {
+    final int shards = 3;
+    final String coll = NAME + 's';
+    for(int s = 0; s < shards; s++) {
+      query(_DB_CREATE.args(Shards.name(coll, s), "()", "()", " map { 'updindex': true() }"));
+    }
+    try {
+      query("for $i in 1 to 9 return " + _DB_ADD.args(coll, " <a>{ $i }</a>", " $i || '.xml'"));
+      query(COUNT.args(_DB_OPEN.args(coll)), "9");
+      query(COUNT.args(COLLECTION.args(coll)), "9");
+      query(_DB_OPEN.args(coll, "5.xml"), "<a>5</a>");
+      // documents are distributed over all shards
+      for(int s = 0; s < shards; s++) {
+        query(EXISTS.args(_DB_OPEN.args(Shards.name(coll, s))), "true");
+      }
+      // index access in each shard
+      query("sort(" + _DB_OPEN.args(coll) + "//a[text() = ('3', '7')] ! string())", "3\n7");
+
+      // paths are normalized before documents are routed
+      query(_DB_REPLACE.args(coll, "/5.xml", " <b/>"));
+      query(_DB_OPEN.args(coll, "5.xml"), "<b/>");
+      query(COUNT.args(_DB_OPEN.args(coll)), "9");
+      query(_DB_DELETE.args(coll, "5.xml"));
+      query(COUNT.args(_DB_OPEN.args(coll)), "8");
+
+      // documents of directories are routed one by one, and replaced in their shard
+      query(_DB_ADD.args(coll, FLDR, "dir"));
+      query(COUNT.args(_DB_OPEN.args(coll, "dir")), "3");
+      for(final String doc : new String[] { "input.xml", "test.xml", "xmark.xml" }) {
+        query(_DB_REPLACE.args(coll, "dir//" + doc, " <c/>"));
+      }
+      query(COUNT.args(_DB_OPEN.args(coll, "dir")), "3");
+      query("distinct-values(" + _DB_OPEN.args(coll, "dir") + "/*/name())", "c");
+
+      // documents of archives are routed one by one
+      query(_DB_ADD.args(coll, "src/test/resources/xml.zip", "zip"));
+      query(COUNT.args(_DB_OPEN.args(coll, "zip")), "4");
+      query(_DB_DELETE.args(coll, "zip"));
+      query(COUNT.args(_DB_OPEN.args(coll, "zip")), "0");
+    } finally {
+      for(int s = 0; s < shards; s++) new DropDB(Shards.name(coll, s)).execute(context);
+    }
+  }
+
   /** Test method. */
   @Test
   public void openPre() {
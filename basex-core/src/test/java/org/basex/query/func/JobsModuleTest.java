@@ -0,0 +1,147 @@
+package org.basex.query.func;
+
+import static org.basex.query.QueryError.*;
+import static org.basex.query.func.Function.*;
+import static org.junit.Assert.*;
+
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.query.*;
+import org.basex.util.*;
+import org.junit.*;
+import org.junit.Test;
+
+/**
+ * This class tests the functions of the Jobs Module.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class JobsModuleTest extends AdvancedQueryTest {
+  /** Query that runs until it is canceled. */
+  private static final String LOOP = "\"sum(for $i in 1 to 1000000000000 return $i mod 2)\"";
+
+  /** Test method. */
+  @Test
+  public void submit() {
+    final String id = query(_JOBS_SUBMIT.args("1 + 1"));
+    finish(id, "finished");
+    query(_JOBS_RESULT.args(id), "2");
+    query("let $id := " + _JOBS_SUBMIT.args("\"<a/>\"", 5) + " return " + _JOBS_LIST.args() +
+        "[@id = $id]/@priority/string()", "5");
+  }
+
+  /** Test method. */
+  @Test
+  public void list() {
+    final String id = query(_JOBS_SUBMIT.args("1"));
+    finish(id, "finished");
+    query(_JOBS_LIST.args() + "[@id = '" + id + "']/string()", "1");
+    query("exists(" + _JOBS_LIST.args() + "[@id = '" + id + "']/@ms)", "true");
+  }
+
+  /** Test method. */
+  @Test
+  public void result() {
+    error(_JOBS_RESULT.args("unknown"), BXJO_UNKNOWN_X);
+    final String id = query(_JOBS_SUBMIT.args("\"error()\""));
+    finish(id, "failed");
+    error(_JOBS_RESULT.args(id), BXJO_FAILED_X_X);
+  }
+
+  /** Test method. */
+  @Test
+  public void cancel() {
+    error(_JOBS_CANCEL.args("unknown"), BXJO_UNKNOWN_X);
+    final String id = query(_JOBS_SUBMIT.args(LOOP));
+    query(_JOBS_CANCEL.args(id));
+    finish(id, "canceled");
+    error(_JOBS_RESULT.args(id), BXJO_RESULT_X_X);
+
+    // remove job
+    query(_JOBS_CANCEL.args(id));
+    error(_JOBS_RESULT.args(id), BXJO_UNKNOWN_X);
+  }
+
+  /**
+   * Tests the JOBS command.
+   * @throws BaseXException database exception
+   */
+  @Test
+  public void command() throws BaseXException {
+    final String id = query(_JOBS_SUBMIT.args("\"<a/>\""));
+    finish(id, "finished");
+    assertTrue(new JobsList().execute(context).contains(id));
+    assertEquals("<a/>", new JobsResult(id).execute(context));
+    new JobsCancel(id).execute(context);
+    assertFalse(new JobsList().execute(context).contains(id));
+    try {
+      new JobsResult(id).execute(context);
+      fail("Job should not exist anymore.");
+    } catch(final BaseXException ex) {
+      Util.debug(ex);
+    }
+  }
+
+  /**
+   * Tests the limits of jobs of users without admin permissions.
+   * @throws BaseXException database exception
+   */
+  @Test
+  public void limits() throws BaseXException {
+    new CreateUser(NAME, NAME).execute(context);
+    final Context ctx = new Context(context);
+    ctx.user(context.users.get(NAME));
+    final StaticOptions sopts = context.soptions;
+    sopts.set(StaticOptions.JOBTIMEOUT, 1);
+    sopts.set(StaticOptions.JOBRESULTSIZE, 1);
+    try {
+      // jobs are stopped after the job timeout
+      final String id1 = new XQuery(_JOBS_SUBMIT.args(LOOP)).execute(ctx);
+      finish(id1, "failed");
+      // results must not exceed the maximum size
+      final String id2 = new XQuery(_JOBS_SUBMIT.args(
+          "\"string-join((1 to 1000000) ! 'xx')\"")).execute(ctx);
+      finish(id2, "failed");
+      error(_JOBS_RESULT.args(id2), BXJO_FAILED_X_X);
+    } finally {
+      sopts.set(StaticOptions.JOBTIMEOUT, StaticOptions.JOBTIMEOUT.value());
+      sopts.set(StaticOptions.JOBRESULTSIZE, StaticOptions.JOBRESULTSIZE.value());
+      new DropUser(NAME).execute(context);
+    }
+  }
+
+  /**
+   * Tests the priorities of jobs of users without admin permissions.
+   * @throws BaseXException database exception
+   */
+  @Test
+  public void priority() throws BaseXException {
+    new CreateUser(NAME, NAME).execute(context);
+    final Context ctx = new Context(context);
+    ctx.user(context.users.get(NAME));
+    try {
+      // priorities higher than the default priority are lowered
+      final String id1 = new XQuery(_JOBS_SUBMIT.args("1", 5)).execute(ctx);
+      query(_JOBS_LIST.args() + "[@id = '" + id1 + "']/@priority/string()", "0");
+      final String id2 = new XQuery(_JOBS_SUBMIT.args("1", -5)).execute(ctx);
+      query(_JOBS_LIST.args() + "[@id = '" + id2 + "']/@priority/string()", "-5");
+    } finally {
+      new DropUser(NAME).execute(context);
+    }
+  }
+
+  /**
+   * Waits until the specified job has reached the expected state.
+   * @param id job id
+   * @param state expected state
+   */
+  private static void finish(final String id, final String state) {
+    final String query = _JOBS_LIST.args() + "[@id = '" + id + "']/@state/string()";
+    for(int c = 0; c < 100; c++) {
+      if(query(query).equals(state)) return;
+      Performance.sleep(50);
+    }
+    fail("Job '" + id + "' did not reach state: " + state);
+  }
+}
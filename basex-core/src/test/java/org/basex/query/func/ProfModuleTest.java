@@ -1,9 +1,14 @@
 package org.basex.query.func;
 
 import static org.basex.query.func.Function.*;
+import static org.junit.Assert.*;
 
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.core.cmd.Set;
 import org.basex.query.*;
 import org.junit.*;
+import org.junit.Test;
 
 /**
  * This class tests the functions of the Profiling Module.
@@ -40,6 +45,39 @@ public final class ProfModuleTest extends AdvancedQueryTest {
     }
   }
 
+  /**
+   * Test method.
+   * @throws BaseXException database exception
+   */
+  @Test
+  public void resources() throws BaseXException {
+    try {
+      System.setErr(NULL);
+      query(_PROF_RESOURCES.args("()"));
+      query(COUNT.args(_PROF_RESOURCES.args(" 1 to 100 ", false)), "100");
+      query(COUNT.args(_PROF_RESOURCES.args(" 1 to 100 ", true)), "100");
+      query(COUNT.args(_PROF_RESOURCES.args(" 1 to 100 ", true, "label")), "100");
+    } finally {
+      System.setErr(ERR);
+    }
+
+    // consumed resources are reported in the query info and the query plan
+    new CreateDB(NAME, "<a><b>1</b><b>2</b></a>").execute(context);
+    try {
+      new Set(MainOptions.QUERYINFO, true).execute(context);
+      new Set(MainOptions.XMLPLAN, true).execute(context);
+      final XQuery xquery = new XQuery("//b[text() = '1']");
+      xquery.execute(context);
+      final String info = xquery.info();
+      assertTrue(info, info.contains(", 1 index probes, "));
+      assertTrue(info, info.contains("<QueryProfile "));
+    } finally {
+      new Set(MainOptions.QUERYINFO, false).execute(context);
+      new Set(MainOptions.XMLPLAN, false).execute(context);
+      new DropDB(NAME).execute(context);
+    }
+  }
+
   /** Test method. */
   @Test
   public void sleep() {
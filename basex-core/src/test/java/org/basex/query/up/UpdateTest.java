@@ -1217,6 +1217,25 @@ public final class UpdateTest extends AdvancedQueryTest {
         + "declare function local:b() { () }; ()", "");
   }
 
+  /**
+   * Rejects updates that exceed the node range of a database.
+   * @throws BaseXException database exception
+   */
+  @Test
+  public void nodeRange() throws BaseXException {
+    createDB("<x/>");
+    // leave space for three more nodes
+    context.data().meta.lastid = Integer.MAX_VALUE - 4;
+    query("insert node <a><b/></a> into /x");
+    query("insert node <a/> into /x");
+    error("insert node <a><b/></a> into /x", BXDB_LIMIT_X);
+    context.data().meta.lastid = Integer.MAX_VALUE - 4;
+    // nodes of added documents and inserted nodes are counted together
+    error(_DB_ADD.args(NAME, " <a/>", "a.xml") + ", insert node <a><b/></a> into /x",
+        BXDB_LIMIT_X);
+    query(COUNT.args(" //a"), "2");
+  }
+
   /** Test output URI is correctly resolved. */
   @Test
   public void resolveUri() {
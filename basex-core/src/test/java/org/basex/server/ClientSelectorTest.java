@@ -0,0 +1,117 @@
+package org.basex.server;
+
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.net.*;
+import java.util.*;
+
+import org.basex.*;
+import org.basex.api.client.*;
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.core.users.*;
+import org.basex.util.*;
+import org.junit.*;
+import org.junit.Test;
+
+/**
+ * This class tests the dispatching of client requests to worker threads.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class ClientSelectorTest extends SandboxTest {
+  /** Server reference. */
+  private static BaseXServer server;
+
+  /**
+   * Starts the server.
+   * @throws IOException I/O exception
+   */
+  @BeforeClass
+  public static void start() throws IOException {
+    // a single worker thread
+    final String threads = Prop.DBPREFIX + StaticOptions.SERVERTHREADS.name().toLowerCase(
+        Locale.ENGLISH);
+    System.setProperty(threads, "1");
+    try {
+      server = createServer();
+    } finally {
+      System.clearProperty(threads);
+    }
+    server.context.soptions.set(StaticOptions.READTIMEOUT, 1);
+  }
+
+  /**
+   * Stops the server.
+   * @throws IOException I/O exception
+   */
+  @AfterClass
+  public static void stop() throws IOException {
+    stopServer(server);
+  }
+
+  /**
+   * Closes sessions that stop sending in the middle of a request.
+   * @throws Exception exception
+   */
+  @Test
+  public void incompleteRequest() throws Exception {
+    try(final Socket socket = new Socket(Text.S_LOCALHOST, DB_PORT)) {
+      socket.setSoTimeout(10000);
+      final InputStream in = socket.getInputStream();
+      // skip realm and nonce
+      while(in.read() > 0);
+      // send incomplete user name; the session is closed after the timeout
+      socket.getOutputStream().write(Token.token(UserText.ADMIN));
+      socket.getOutputStream().flush();
+      assertEquals(-1, in.read());
+    }
+    // other sessions are processed as before
+    try(final ClientSession cs = createClient()) {
+      assertEquals("1", cs.query("1").execute());
+    }
+  }
+
+  /**
+   * Processes the requests of sessions with open cursors if all worker threads are blocked.
+   * @throws Exception exception
+   */
+  @Test
+  public void cursors() throws Exception {
+    try(final ClientSession cs1 = createClient(); final ClientSession cs2 = createClient()) {
+      cs1.execute(new CreateDB(NAME, "<a/>"));
+      try {
+        // open cursor, which holds a read lock on the database
+        final ClientQuery query = cs1.query("1 to 10, db:open('" + NAME + "')");
+        query.batch(1, Long.MAX_VALUE);
+        assertEquals("1", query.next());
+
+        // the worker thread waits until the cursor is closed
+        final Thread writer = new Thread() {
+          @Override
+          public void run() {
+            try {
+              cs2.execute("xquery insert node <b/> into db:open('" + NAME + "')/a");
+            } catch(final IOException ex) {
+              Util.stack(ex);
+            }
+          }
+        };
+        writer.start();
+        Performance.sleep(200);
+
+        // the cursor can still be fetched and closed
+        int c = 1;
+        while(query.next() != null) c++;
+        assertEquals(11, c);
+        query.close();
+        writer.join();
+        assertEquals("1", cs1.query("count(db:open('" + NAME + "')//b)").execute());
+      } finally {
+        cs1.execute(new DropDB(NAME));
+      }
+    }
+  }
+}
@@ -1,10 +1,15 @@
 package org.basex.server;
 
+import static org.basex.query.func.Function.*;
 import static org.junit.Assert.*;
 
 import java.io.*;
+import java.math.*;
+import java.util.*;
 
 import org.basex.*;
+import org.basex.api.client.*;
+import org.basex.core.*;
 import org.basex.util.*;
 import org.junit.*;
 
@@ -46,4 +51,143 @@ public class ClientSessionTest extends SessionTest {
       fail(Util.message(ex));
     }
   }
+
+  /**
+   * Fetches results in batches.
+   * @throws IOException I/O exception
+   */
+  @Test
+  public void queryBatch() throws IOException {
+    try(final ClientQuery query = (ClientQuery) session.query("1 to 10")) {
+      // limit number of items
+      query.batch(3, Long.MAX_VALUE);
+      int c = 0;
+      while(query.more()) assertEqual(++c, query.next());
+      assertEquals(10, c);
+
+      // limit number of bytes: at least one item will be returned per batch
+      query.batch(Integer.MAX_VALUE, 1);
+      c = 0;
+      while(query.more()) assertEqual(++c, query.next());
+      assertEquals(10, c);
+    }
+  }
+
+  /**
+   * Iterates results without cursor.
+   * @throws IOException I/O exception
+   */
+  @Test
+  public void queryNoCursor() throws IOException {
+    session.execute("create db " + NAME + " <a/>");
+    try(final ClientQuery query = (ClientQuery) session.query(_DB_OPEN.args(NAME) + ", 1 to 5")) {
+      assertTrue(query.more());
+      assertEqual("<a/>", query.next());
+      // all results have been retrieved: no locks are kept
+      try(final Session writer = createClient()) {
+        writer.execute("xquery insert node <b/> into " + _DB_OPEN.args(NAME) + "/a");
+      }
+      int c = 0;
+      while(query.more()) assertEqual(++c, query.next());
+      assertEquals(5, c);
+    }
+  }
+
+  /**
+   * Closes a query with a partially consumed cursor.
+   * @throws IOException I/O exception
+   */
+  @Test
+  public void queryBatchClose() throws IOException {
+    session.execute("create db " + NAME + " <a/>");
+    try(final ClientQuery query = (ClientQuery) session.query(_DB_OPEN.args(NAME) + ", 1 to 5")) {
+      query.batch(1, Long.MAX_VALUE);
+      assertTrue(query.more());
+      assertEqual("<a/>", query.next());
+    }
+    // locks of the cursor must have been released
+    session.execute("xquery insert node <b/> into " + _DB_OPEN.args(NAME) + "/a");
+    assertEqual("1", session.execute("xquery count(" + _DB_OPEN.args(NAME) + "//b)"));
+  }
+
+  /**
+   * Releases the locks of a cursor that has not been used for a while.
+   * @throws IOException I/O exception
+   */
+  @Test
+  public void queryBatchIdle() throws IOException {
+    session.execute("create db " + NAME + " <a/>");
+    server.context.soptions.set(StaticOptions.CURSORTIMEOUT, 1);
+    try(final ClientQuery query = (ClientQuery) session.query(_DB_OPEN.args(NAME) + ", 1 to 5")) {
+      query.batch(1, Long.MAX_VALUE);
+      assertTrue(query.more());
+      assertEqual("<a/>", query.next());
+      Performance.sleep(2000);
+      // locks of the cursor must have been released
+      try(final Session writer = createClient()) {
+        writer.execute("xquery insert node <b/> into " + _DB_OPEN.args(NAME) + "/a");
+      }
+      // the cursor has been closed
+      try {
+        while(query.more()) query.next();
+        fail("Cursor was not closed.");
+      } catch(final BaseXException ex) {
+        assertTrue(ex.getMessage().contains(Text.TIMEOUT_EXCEEDED));
+      }
+    } finally {
+      server.context.soptions.set(StaticOptions.CURSORTIMEOUT,
+          StaticOptions.CURSORTIMEOUT.value());
+    }
+  }
+
+  /**
+   * Returns results as Java objects.
+   * @throws IOException I/O exception
+   */
+  @Test
+  public void queryObjects() throws IOException {
+    try(final ClientQuery query = (ClientQuery) session.query(
+        "1, 2.5e0, xs:float(1.5), true(), 1.25, 'a', <a/>")) {
+      query.batch(2, Long.MAX_VALUE);
+      assertEquals(1L, query.nextObject());
+      assertEquals(2.5d, query.nextObject());
+      assertEquals(1.5f, query.nextObject());
+      assertEquals(true, query.nextObject());
+      assertEquals(new BigDecimal("1.25"), query.nextObject());
+      assertEquals("a", query.nextObject());
+      assertEquals("<a/>", query.nextObject());
+      assertNull(query.nextObject());
+    }
+  }
+
+  /**
+   * Sends a batch of requests.
+   * @throws IOException I/O exception
+   */
+  @Test
+  public void batch() throws IOException {
+    final ClientSession cs = (ClientSession) session;
+    try(final ClientQuery query = cs.query("declare variable $a external; $a + .")) {
+      final List<String> results = cs.batch().bind(query, "a", 1, "xs:integer").
+          context(query, 2, "xs:integer").execute(query).execute("xquery 3").execute();
+      assertEquals(Arrays.asList("", "", "3", "3"), results);
+    }
+
+    // requests exceeding the window: responses are read while the requests are sent
+    final ClientBatch cb = cs.batch();
+    final String large = "xquery string-join((1 to 10000) ! 'x')";
+    final int rs = ClientBatch.WINDOW / 10;
+    for(int r = 0; r < rs; r++) cb.execute(large);
+    final List<String> list = cb.execute();
+    assertEquals(rs, list.size());
+    for(final String result : list) assertEquals(10000, result.length());
+
+    // errors are raised after all responses have been read
+    try {
+      cs.batch().execute("xquery 1+").execute("xquery 2").execute();
+      fail("Error expected.");
+    } catch(final BaseXException ex) {
+      assertEqual("4", session.execute("xquery 4"));
+    }
+  }
 }
@@ -195,6 +195,34 @@ public final class EventTest extends SandboxTest {
     session.execute("drop event " + NAME);
   }
 
+  /**
+   * Sends a sequence of events, which must arrive in the same order.
+   * @throws IOException I/O exception
+   * @throws InterruptedException waiting interrupted
+   */
+  @Test
+  public void sequence() throws IOException, InterruptedException {
+    session.execute("create event " + NAME);
+
+    final int count = 1000;
+    final CountDownLatch doneSignal = new CountDownLatch(count);
+    final List<String> received = Collections.synchronizedList(new ArrayList<String>());
+    sessions[0].watch(NAME, new EventNotifier() {
+      @Override
+      public void notify(final String data) {
+        received.add(data);
+        doneSignal.countDown();
+      }
+    });
+    session.query("for $i in 1 to " + count + " return " + _DB_EVENT.args(NAME, " string($i)")).
+      execute();
+    assertTrue(doneSignal.await(5, TimeUnit.SECONDS));
+    for(int i = 0; i < count; i++) assertEquals(Integer.toString(i + 1), received.get(i));
+
+    sessions[0].unwatch(NAME);
+    session.execute("drop event " + NAME);
+  }
+
   /**
    * Concurrent events.
    * @throws Exception exception
@@ -249,6 +277,48 @@ public final class EventTest extends SandboxTest {
     session.execute("drop event " + NAME + 1);
   }
 
+  /**
+   * Unsubscribes a client from all events if its queue is full.
+   * @throws IOException I/O exception
+   */
+  @Test
+  public void queueFull() throws IOException {
+    session.execute("create event " + NAME);
+    session.execute("create event " + NAME + 1);
+
+    final StaticOptions sopts = server.context.soptions;
+    final int queue = sopts.get(StaticOptions.EVENTQUEUE);
+    sopts.set(StaticOptions.EVENTQUEUE, 1);
+    final CountDownLatch blocked = new CountDownLatch(1);
+    try {
+      // notifier blocks until the end of the test
+      final EventNotifier notifier = new EventNotifier() {
+        @Override
+        public void notify(final String data) {
+          try {
+            blocked.await();
+          } catch(final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+          }
+        }
+      };
+      sessions[0].watch(NAME, notifier);
+      sessions[0].watch(NAME + 1, notifier);
+
+      // large events will fill the socket buffers of the blocked client
+      session.query("let $s := string-join((1 to 100000) ! 'x') " +
+        "for $i in 1 to 500 return " + _DB_EVENT.args(NAME, " $s")).execute();
+      // client has been removed from both events
+      assertTrue(server.context.events.get(NAME).isEmpty());
+      assertTrue(server.context.events.get(NAME + 1).isEmpty());
+    } finally {
+      blocked.countDown();
+      sopts.set(StaticOptions.EVENTQUEUE, queue);
+      session.execute("drop event " + NAME);
+      session.execute("drop event " + NAME + 1);
+    }
+  }
+
   /** Single client. */
   static final class Client extends Thread {
     /** Client session. */
@@ -167,11 +167,11 @@ public final class LockingTest extends SandboxTest {
         new XQuery(f("insert node %s into doc('%s')", Q, NAME)),
         new XQuery(f("insert node %s into doc('%s1')", Q, NAME)),
         true);
-    // Read from and write to the same database
+    // Read from and write to the same database (updates are deferred until the end)
     testQueries(
         new XQuery(f("(doc('%s'), %s)", NAME, Q)),
         new XQuery(f("insert node %s into doc('%s')", Q, NAME)),
-        false);
+        true);
     // Read from and write to different databases
     testQueries(
         new XQuery(f("(doc('%s'), %s)", NAME, Q)),
@@ -0,0 +1,115 @@
+package org.basex.server;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.basex.*;
+import org.basex.core.*;
+import org.basex.io.*;
+import org.basex.server.Log.LogType;
+import org.junit.*;
+import org.junit.Test;
+
+/**
+ * This class tests the log writer.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class LogTest extends SandboxTest {
+  /** Number of threads. */
+  private static final int THREADS = 8;
+  /** Number of entries per thread. */
+  private static final int ENTRIES = 500;
+
+  /**
+   * Resets the options and deletes the log files.
+   */
+  @After
+  public void reset() {
+    final StaticOptions sopts = context.soptions;
+    sopts.set(StaticOptions.LOGQUEUE, StaticOptions.LOGQUEUE.value());
+    sopts.set(StaticOptions.LOGDROP, StaticOptions.LOGDROP.value());
+    context.log.close();
+    context.log.dir().delete();
+  }
+
+  /**
+   * Writes entries from concurrent threads.
+   * @throws Exception exception
+   */
+  @Test
+  public void concurrent() throws Exception {
+    write("concurrent");
+    assertEquals(THREADS * ENTRIES, count("concurrent"));
+  }
+
+  /**
+   * Writes entries synchronously if the queue is full.
+   * @throws Exception exception
+   */
+  @Test
+  public void full() throws Exception {
+    context.soptions.set(StaticOptions.LOGQUEUE, 10);
+    write("full");
+    assertEquals(THREADS * ENTRIES, count("full"));
+  }
+
+  /**
+   * Drops entries if the queue is full.
+   * @throws Exception exception
+   */
+  @Test
+  public void drop() throws Exception {
+    context.soptions.set(StaticOptions.LOGQUEUE, 10);
+    context.soptions.set(StaticOptions.LOGDROP, true);
+    write("drop");
+    assertTrue(count("drop") < THREADS * ENTRIES);
+    assertTrue(content().contains("log entries have been dropped."));
+  }
+
+  /**
+   * Writes log entries in parallel.
+   * @param info info string
+   * @throws InterruptedException interrupted exception
+   */
+  private static void write(final String info) throws InterruptedException {
+    final Thread[] threads = new Thread[THREADS];
+    for(int t = 0; t < THREADS; t++) {
+      threads[t] = new Thread() {
+        @Override
+        public void run() {
+          for(int e = 0; e < ENTRIES; e++) {
+            context.log.write(Log.SERVER, null, LogType.INFO, info, null);
+          }
+        }
+      };
+      threads[t].start();
+    }
+    for(final Thread thread : threads) thread.join();
+  }
+
+  /**
+   * Counts the log entries with the specified info string.
+   * @param info info string
+   * @return number of entries
+   * @throws Exception exception
+   */
+  private static int count(final String info) throws Exception {
+    int c = 0;
+    for(final String line : content().split("\r?\n")) {
+      if(line.endsWith('\t' + info)) c++;
+    }
+    return c;
+  }
+
+  /**
+   * Returns the content of the current log file.
+   * @return content
+   * @throws Exception exception
+   */
+  private static String content() throws Exception {
+    return new IOFile(context.log.dir(), Log.name(new Date()) + IO.LOGSUFFIX).string();
+  }
+}
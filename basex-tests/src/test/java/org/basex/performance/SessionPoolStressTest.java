@@ -0,0 +1,134 @@
+package org.basex.performance;
+
+import static org.basex.core.Text.*;
+import static org.junit.Assert.*;
+
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+import org.basex.*;
+import org.basex.api.client.*;
+import org.basex.core.users.*;
+import org.basex.util.*;
+import org.junit.*;
+
+/**
+ * This class performs a client/server stress test with a specified number of threads,
+ * which share the sessions of a {@link SessionPool}.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class SessionPoolStressTest extends SandboxTest {
+  /** Input document. */
+  private static final String INPUT = "src/test/resources/factbook.zip";
+  /** Query to be run ("%" may be used as placeholder for dynamic content). */
+  private static final String QUERY = "(doc('test')//text())[position() = %]";
+  /** Maximum position to retrieve. */
+  private static final int MAX = 1000;
+
+  /** Random number generator. */
+  static final Random RND = new Random();
+  /** Number of failed requests. */
+  static final AtomicInteger ERRORS = new AtomicInteger();
+
+  /**
+   * Runs the test.
+   * @throws Exception exception
+   */
+  @Test
+  public void clients20sessions5() throws Exception {
+    run(20, 5, 200);
+  }
+
+  /**
+   * Runs the test.
+   * @throws Exception exception
+   */
+  @Test
+  public void clients200sessions20() throws Exception {
+    run(200, 20, 200);
+  }
+
+  /**
+   * Runs the test.
+   * @throws Exception exception
+   */
+  @Test
+  public void clients1000sessions50() throws Exception {
+    run(1000, 50, 20);
+  }
+
+  /**
+   * Runs the stress test.
+   * @param clients number of clients
+   * @param sessions maximum number of sessions
+   * @param runs number of runs per client
+   * @throws Exception exception
+   */
+  private static void run(final int clients, final int sessions, final int runs)
+      throws Exception {
+
+    // run server instance
+    final BaseXServer server = createServer();
+    ERRORS.set(0);
+    try(final SessionPool pool = new SessionPool(S_LOCALHOST, DB_PORT, UserText.ADMIN,
+        UserText.ADMIN, sessions, 60000)) {
+      // create test database
+      try(final ClientSession cs = pool.session()) {
+        cs.execute("create db test " + INPUT);
+      }
+
+      // run clients
+      final Performance perf = new Performance();
+      final Client[] cl = new Client[clients];
+      for(int i = 0; i < clients; ++i) cl[i] = new Client(pool, runs);
+      for(final Client c : cl) c.start();
+      for(final Client c : cl) c.join();
+      Util.outln(clients + " clients, " + sessions + " sessions, " + runs + " runs: " + perf);
+
+      assertEquals(0, ERRORS.get());
+      assertTrue(pool.idle() <= sessions);
+
+      // drop database
+      try(final ClientSession cs = pool.session()) {
+        cs.execute("drop db test");
+      }
+    }
+    stopServer(server);
+  }
+
+  /** Single client. */
+  static final class Client extends Thread {
+    /** Session pool. */
+    private final SessionPool pool;
+    /** Number of runs. */
+    private final int runs;
+
+    /**
+     * Constructor.
+     * @param pool session pool
+     * @param runs number of runs
+     */
+    Client(final SessionPool pool, final int runs) {
+      this.pool = pool;
+      this.runs = runs;
+    }
+
+    @Override
+    public void run() {
+      try {
+        for(int i = 0; i < runs; ++i) {
+          // return nth text of the database
+          final int n = RND.nextInt(MAX) + 1;
+          try(final ClientSession session = pool.session()) {
+            session.execute("xquery " + Util.info(QUERY, n));
+          }
+        }
+      } catch(final Exception ex) {
+        ERRORS.incrementAndGet();
+        ex.printStackTrace();
+      }
+    }
+  }
+}